@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Badges awarded to the users. Each one is a rule over the user's {@link UserProgress}, so it is evaluated in constant
+ * time whenever a training is saved.
+ */
+enum Achievement {
+
+    /**
+     * Covered 100 km in running trainings in total.
+     */
+    FIRST_100_KM_OF_RUNNING("First 100 km of running") {
+        @Override
+        boolean isReachedBy(UserProgress progress) {
+            return progress.getTotalDistance(ActivityType.RUNNING) >= 100;
+        }
+    },
+
+    /**
+     * Finished 10 trainings of any activity within one week, Monday to Sunday.
+     */
+    TEN_TRAININGS_IN_A_WEEK("10 trainings in a week") {
+        @Override
+        boolean isReachedBy(UserProgress progress) {
+            return progress.getMostTrainingsInWeek() >= 10;
+        }
+    },
+
+    /**
+     * Ran 5 km in under 25 minutes, at the average pace of a running training of at least 5 km.
+     */
+    FAST_5_KM("5 km run in under 25 minutes") {
+        @Override
+        boolean isReachedBy(UserProgress progress) {
+            Long seconds = progress.getBestFiveKmSeconds(ActivityType.RUNNING);
+            return seconds != null && seconds < 25 * 60;
+        }
+    };
+
+    private final String description;
+
+    Achievement(String description) {
+        this.description = description;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param progress running state of the user's trainings
+     * @return {@code true} if the state satisfies the achievement
+     */
+    abstract boolean isReachedBy(UserProgress progress);
+
+}
@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * {@link Achievement} awarded to a user. Each achievement is awarded to a user at most once.
+ */
+@Entity
+@Table(name = "achievement_awards", uniqueConstraints = @UniqueConstraint(name = "ux_achievement_awards_user_achievement",
+                                                                        columnNames = {"user_id", "achievement"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class AchievementAward {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "achievement", nullable = false, length = 64)
+    private Achievement achievement;
+
+    /**
+     * End time of the training the achievement was reached with.
+     */
+    @Column(name = "awarded_at", nullable = false)
+    private Instant awardedAt;
+
+}
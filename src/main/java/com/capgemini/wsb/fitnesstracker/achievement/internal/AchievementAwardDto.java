@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import java.time.Instant;
+
+/**
+ * Read model of an {@link AchievementAward}.
+ *
+ * @param achievement the achievement awarded
+ * @param description human-readable description of the achievement
+ * @param awardedAt   end time of the training the achievement was reached with
+ */
+record AchievementAwardDto(Achievement achievement, String description, Instant awardedAt) {
+
+    /**
+     * Constructor used by the JPQL constructor expression in the award repository.
+     */
+    AchievementAwardDto(Achievement achievement, Instant awardedAt) {
+        this(achievement, achievement.getDescription(), awardedAt);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+interface AchievementAwardRepository extends JpaRepository<AchievementAward, Long> {
+
+    /**
+     * Query returning the achievements awarded to a user.
+     *
+     * @param userId ID of the user
+     * @return awards of the user, oldest first
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.achievement.internal.AchievementAwardDto(a.achievement, a.awardedAt)
+            from AchievementAward a
+            where a.user.id = :userId
+            order by a.awardedAt, a.achievement
+            """)
+    List<AchievementAwardDto> findDtosByUserId(@Param("userId") Long userId);
+
+}
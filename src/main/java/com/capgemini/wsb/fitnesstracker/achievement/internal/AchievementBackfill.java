@@ -0,0 +1,101 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recomputes the achievement progress of every user by replaying all stored trainings, awarding what was reached
+ * and not awarded yet, e.g. after a new {@link Achievement} was added.
+ * <p>
+ * Users are split into chunks of {@link AchievementProperties#getBackfillChunkSize()}, replayed in parallel, each chunk
+ * in its own transaction: the chunk's users are locked, their progress rows deleted, their trainings read with one
+ * query and added user by user in the order they ended. The lock keeps the training events' listeners of these users
+ * out until the chunk commits, so a training stored meanwhile is either replayed or added afterwards, never lost.
+ */
+@Component
+@Slf4j
+class AchievementBackfill {
+
+    private final ActivityProgressRepository progressRepository;
+    private final UserProgressRepository userProgressRepository;
+    private final AchievementServiceImpl achievementService;
+    private final AchievementProperties properties;
+    private final TransactionTemplate chunkTransaction;
+
+    AchievementBackfill(ActivityProgressRepository progressRepository,
+                        UserProgressRepository userProgressRepository,
+                        AchievementServiceImpl achievementService,
+                        AchievementProperties properties,
+                        PlatformTransactionManager transactionManager) {
+        this.progressRepository = progressRepository;
+        this.userProgressRepository = userProgressRepository;
+        this.achievementService = achievementService;
+        this.properties = properties;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    AchievementBackfillResult backfill() {
+        log.info("Replaying the trainings of all users in chunks of {} on {} threads",
+                 properties.getBackfillChunkSize(), properties.getBackfillThreads());
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getBackfillThreads(),
+                                                                new CustomizableThreadFactory("achievement-backfill-"));
+        long users = 0;
+        long trainings = 0;
+        long awards = 0;
+        try {
+            List<Future<ChunkResult>> futures = new ArrayList<>();
+            long afterId = 0;
+            List<Long> userIds;
+            do {
+                userIds = progressRepository.findUserIdPage(afterId, Limit.of(properties.getBackfillChunkSize()));
+                if (!userIds.isEmpty()) {
+                    List<Long> chunk = userIds;
+                    futures.add(executor.submit(() -> chunkTransaction.execute(status -> replay(chunk))));
+                    afterId = userIds.get(userIds.size() - 1);
+                    users += userIds.size();
+                }
+            } while (userIds.size() == properties.getBackfillChunkSize());
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult result = future.get();
+                trainings += result.trainings();
+                awards += result.awards();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Achievement backfill was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Achievement backfill failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        log.info("Replayed {} trainings of {} users in {} ms, {} achievements awarded", trainings, users, millis, awards);
+        return new AchievementBackfillResult(users, trainings, awards, millis);
+    }
+
+    private ChunkResult replay(List<Long> userIds) {
+        userProgressRepository.lockUsers(userIds);
+        userProgressRepository.deleteAll(userIds);
+        List<TrainingSnapshot> trainings = progressRepository.findTrainingsToReplay(userIds);
+        return new ChunkResult(trainings.size(), achievementService.evaluate(trainings));
+    }
+
+    private record ChunkResult(int trainings, int awards) {
+
+    }
+
+}
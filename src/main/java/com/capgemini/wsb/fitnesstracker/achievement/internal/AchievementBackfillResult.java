@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+/**
+ * Outcome of an achievement backfill.
+ *
+ * @param users     number of users whose trainings were replayed
+ * @param trainings number of trainings replayed
+ * @param awards    number of achievements newly awarded; those awarded before are not counted again
+ * @param millis    duration of the backfill in milliseconds
+ */
+record AchievementBackfillResult(long users, long trainings, long awards, long millis) {
+
+}
@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/achievements")
+@RequiredArgsConstructor
+class AchievementController {
+
+    private final AchievementServiceImpl achievementService;
+    private final AchievementBackfill achievementBackfill;
+    private final UserProvider userProvider;
+
+    /**
+     * Retrieves the achievements awarded to the given user.
+     *
+     * @param userId ID of the user
+     * @return awards of the user, oldest first
+     * @throws NotFoundException if no user with the given ID exists
+     */
+    @GetMapping("/user/{userId}")
+    public List<AchievementAwardDto> getAwardsByUserId(@PathVariable Long userId) {
+        List<AchievementAwardDto> awards = achievementService.getAwards(userId);
+        if (awards.isEmpty() && userProvider.getUser(userId).isEmpty()) {
+            throw new NotFoundException("User with ID=%s was not found".formatted(userId));
+        }
+        return awards;
+    }
+
+    /**
+     * Replays the trainings of all users and awards the achievements they reached but do not hold yet.
+     * Runs until all users are replayed.
+     *
+     * @return number of replayed users and trainings and of newly awarded achievements
+     */
+    @PostMapping("/backfill")
+    public AchievementBackfillResult backfill() {
+        return achievementBackfill.backfill();
+    }
+
+}
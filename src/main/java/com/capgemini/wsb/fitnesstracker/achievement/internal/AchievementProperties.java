@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration of the achievement evaluation and of the backfill replaying the stored trainings.
+ */
+@ConfigurationProperties(prefix = "achievement")
+@Getter
+class AchievementProperties {
+
+    /**
+     * Time zone the weeks (Monday to Monday) of the weekly achievements are computed in.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Number of users whose trainings are replayed together, in one transaction, by the backfill.
+     */
+    private final int backfillChunkSize;
+
+    /**
+     * Number of threads replaying the chunks of the backfill, {@code 0} for one per available processor.
+     */
+    private final int backfillThreads;
+
+    AchievementProperties(@DefaultValue("UTC") ZoneId zone,
+                          @DefaultValue("500") int backfillChunkSize,
+                          @DefaultValue("0") int backfillThreads) {
+        this.zone = zone;
+        this.backfillChunkSize = backfillChunkSize;
+        this.backfillThreads = backfillThreads > 0 ? backfillThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Awards the {@link Achievement}s from a per-user running state, updated by the training events' listeners in the
+ * same transaction that stores the trainings.
+ * <p>
+ * Each event locks the affected users, loads their progress rows and the weekly counts of the weeks its trainings
+ * ended in, adds the trainings in memory, writes the rows back in JDBC batches and awards what the trainings reached. Awards are inserted only if the user
+ * does not hold them yet, so replaying trainings (see {@link AchievementBackfill}) never awards an achievement twice.
+ */
+@Service
+@RequiredArgsConstructor
+class AchievementServiceImpl {
+
+    private static final String INSERT_AWARD = """
+            insert into achievement_awards (user_id, achievement, awarded_at)
+            select ?, ?, ?
+            where not exists (select 1 from achievement_awards where user_id = ? and achievement = ?)
+            """;
+
+    private final UserProgressRepository progressRepository;
+    private final AchievementAwardRepository awardRepository;
+    private final AchievementProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Retrieves the achievements awarded to the user.
+     *
+     * @param userId ID of the user
+     * @return awards of the user, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<AchievementAwardDto> getAwards(Long userId) {
+        return awardRepository.findDtosByUserId(userId);
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingCreated(TrainingCreatedEvent event) {
+        evaluate(List.of(event.training()));
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingsCreated(TrainingsCreatedEvent event) {
+        evaluate(event.trainings());
+    }
+
+    /**
+     * Takes the previous state of the training out of its user's counters and adds the current one. Achievements
+     * already awarded are kept, even if the updated training no longer reaches them.
+     *
+     * @param event event carrying the training before and after the update
+     */
+    @EventListener
+    @Transactional
+    void onTrainingUpdated(TrainingUpdatedEvent event) {
+        TrainingSnapshot previous = event.previous();
+        TrainingSnapshot current = event.current();
+        Map<Long, UserProgress> progress = progressRepository.lockAll(List.of(previous, current), properties.getZone());
+        progress.get(previous.userId()).remove(previous);
+        List<Object[]> awards = new ArrayList<>();
+        add(progress.get(current.userId()), current, awards);
+        save(progress.values(), awards);
+    }
+
+    /**
+     * Adds the trainings to their users' progress, in the order they ended, and awards the achievements they reached.
+     * Must be called within a transaction.
+     *
+     * @param trainings trainings of any users
+     * @return number of achievements newly awarded
+     */
+    int evaluate(List<TrainingSnapshot> trainings) {
+        if (trainings.isEmpty()) {
+            return 0;
+        }
+        Map<Long, UserProgress> progress = progressRepository.lockAll(trainings, properties.getZone());
+        List<Object[]> awards = new ArrayList<>();
+        trainings.stream()
+                .sorted(Comparator.comparing(TrainingSnapshot::endTime))
+                .forEach(training -> add(progress.get(training.userId()), training, awards));
+        return save(progress.values(), awards);
+    }
+
+    private void add(UserProgress progress, TrainingSnapshot training, List<Object[]> awards) {
+        for (Achievement achievement : progress.add(training)) {
+            awards.add(new Object[]{training.userId(),
+                                    achievement.name(),
+                                    training.endTime().atOffset(ZoneOffset.UTC),
+                                    training.userId(),
+                                    achievement.name()});
+        }
+    }
+
+    private int save(Collection<UserProgress> progress, List<Object[]> awards) {
+        progressRepository.saveAll(progress);
+        int awarded = 0;
+        for (int inserted : jdbcTemplate.batchUpdate(INSERT_AWARD, awards)) {
+            awarded += inserted;
+        }
+        return awarded;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Duration;
+
+/**
+ * Running state of a single user's trainings of one activity type: the counters and maxima the {@link Achievement}s
+ * are evaluated against, so that no achievement ever needs the user's training history. The trainings per week are
+ * counted across all activity types, by {@link WeeklyProgress}.
+ * <p>
+ * Mapped as an entity for the table only: the rows are read and written by the {@link UserProgressRepository} with
+ * plain statements, so evaluating a training loads no entities.
+ */
+@Entity
+@Table(name = "achievement_progress", uniqueConstraints = @UniqueConstraint(name = "ux_achievement_progress_user_activity",
+                                                                          columnNames = {"user_id", "activity_type"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class ActivityProgress {
+
+    /**
+     * Distance a training must cover to count for the best 5 km time.
+     */
+    static final double FIVE_KM = 5;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Mapped only for the foreign key; the rows are read and written through {@link #userId}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Column(name = "trainings", nullable = false)
+    private int trainings;
+
+    @Column(name = "total_distance", nullable = false)
+    private double totalDistance;
+
+    @Column(name = "max_distance", nullable = false)
+    private double maxDistance;
+
+    /**
+     * Shortest time of 5 km, at the average pace of a training that covered at least 5 km; {@code null} if none did.
+     */
+    @Column(name = "best_five_km_seconds")
+    private Long bestFiveKmSeconds;
+
+    ActivityProgress(Long userId, ActivityType activityType) {
+        this.userId = userId;
+        this.activityType = activityType;
+    }
+
+    ActivityProgress(Long id,
+                     Long userId,
+                     ActivityType activityType,
+                     int trainings,
+                     double totalDistance,
+                     double maxDistance,
+                     Long bestFiveKmSeconds) {
+        this.id = id;
+        this.userId = userId;
+        this.activityType = activityType;
+        this.trainings = trainings;
+        this.totalDistance = totalDistance;
+        this.maxDistance = maxDistance;
+        this.bestFiveKmSeconds = bestFiveKmSeconds;
+    }
+
+    /**
+     * Adds a training to the counters and maxima.
+     *
+     * @param training training to add
+     */
+    void add(TrainingSnapshot training) {
+        trainings++;
+        totalDistance += training.distance();
+        maxDistance = Math.max(maxDistance, training.distance());
+        if (training.distance() >= FIVE_KM) {
+            long seconds = Duration.between(training.startTime(), training.endTime()).toSeconds();
+            long fiveKmSeconds = Math.round(seconds * FIVE_KM / training.distance());
+            if (bestFiveKmSeconds == null || fiveKmSeconds < bestFiveKmSeconds) {
+                bestFiveKmSeconds = fiveKmSeconds;
+            }
+        }
+    }
+
+    /**
+     * Takes a training back out of the counters, e.g. before adding its updated state. The maxima are kept, as they
+     * cannot be recalculated without the history: {@link #getMaxDistance()} and {@link #getBestFiveKmSeconds()} are
+     * the best ever recorded, including trainings edited since, until the {@link AchievementBackfill} replays the
+     * user's current trainings.
+     *
+     * @param training training to remove
+     */
+    void remove(TrainingSnapshot training) {
+        trainings--;
+        totalDistance -= training.distance();
+    }
+
+}
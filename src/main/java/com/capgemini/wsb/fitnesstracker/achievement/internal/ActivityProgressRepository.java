@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+interface ActivityProgressRepository extends JpaRepository<ActivityProgress, Long> {
+
+    /**
+     * Query returning all trainings of the given users in the order they are replayed: by user, then by end time.
+     *
+     * @param userIds IDs of the users
+     * @return trainings of the users
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot(
+                t.id, t.user.id, t.activityType, t.startTime, t.endTime, t.distance, t.averageSpeed)
+            from Training t
+            where t.user.id in :userIds
+            order by t.user.id, t.endTime, t.id
+            """)
+    List<TrainingSnapshot> findTrainingsToReplay(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Keyset query returning the next page of user IDs, used to walk all users during the backfill.
+     *
+     * @param afterId ID of the last user of the previous page
+     * @param limit   maximum number of IDs to return
+     * @return next page of user IDs in ascending order
+     */
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findUserIdPage(@Param("afterId") long afterId, Limit limit);
+
+}
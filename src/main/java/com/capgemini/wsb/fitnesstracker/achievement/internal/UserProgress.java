@@ -0,0 +1,120 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running state of all trainings of a single user: one {@link ActivityProgress} per activity type the user trained,
+ * and the {@link WeeklyProgress} of the weeks the trainings being evaluated ended in.
+ */
+class UserProgress {
+
+    private final Long userId;
+    private final ZoneId zone;
+    private final Map<ActivityType, ActivityProgress> activities = new EnumMap<>(ActivityType.class);
+    private final Map<LocalDate, WeeklyProgress> weeks = new HashMap<>();
+
+    UserProgress(Long userId, ZoneId zone, List<ActivityProgress> activities, List<WeeklyProgress> weeks) {
+        this.userId = userId;
+        this.zone = zone;
+        activities.forEach(activity -> this.activities.put(activity.getActivityType(), activity));
+        weeks.forEach(week -> this.weeks.put(week.getWeekStart(), week));
+    }
+
+    /**
+     * @param training training of any user
+     * @param zone     time zone the weeks are computed in
+     * @return Monday of the week the training ended in
+     */
+    static LocalDate weekOf(TrainingSnapshot training, ZoneId zone) {
+        return LocalDate.ofInstant(training.endTime(), zone).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Adds the training and tells which achievements it reached. Achievements reached before are not repeated.
+     *
+     * @param training training of the user
+     * @return achievements the user reached with this training
+     */
+    Set<Achievement> add(TrainingSnapshot training) {
+        Set<Achievement> reached = reached();
+        activity(training.activityType()).add(training);
+        week(weekOf(training, zone)).add();
+        Set<Achievement> reachedNow = reached();
+        reachedNow.removeAll(reached);
+        return reachedNow;
+    }
+
+    /**
+     * Takes the training back out of the counters, see {@link ActivityProgress#remove(TrainingSnapshot)}.
+     *
+     * @param training training of the user
+     */
+    void remove(TrainingSnapshot training) {
+        activity(training.activityType()).remove(training);
+        week(weekOf(training, zone)).remove();
+    }
+
+    double getTotalDistance(ActivityType activityType) {
+        ActivityProgress activity = activities.get(activityType);
+        return activity == null ? 0 : activity.getTotalDistance();
+    }
+
+    Long getBestFiveKmSeconds(ActivityType activityType) {
+        ActivityProgress activity = activities.get(activityType);
+        return activity == null ? null : activity.getBestFiveKmSeconds();
+    }
+
+    /**
+     * @return the highest number of trainings of all activities together within one of the loaded weeks; enough to
+     * tell whether the trainings being evaluated reached a weekly achievement, as only their weeks can change
+     */
+    int getMostTrainingsInWeek() {
+        return weeks.values().stream().mapToInt(WeeklyProgress::getTrainings).max().orElse(0);
+    }
+
+    /**
+     * @return progress rows of the user, those created since the state was loaded without an ID
+     */
+    Collection<ActivityProgress> getActivities() {
+        return activities.values();
+    }
+
+    /**
+     * @return loaded weekly progress rows of the user, those created since the state was loaded without an ID
+     */
+    Collection<WeeklyProgress> getWeeks() {
+        return weeks.values();
+    }
+
+    private Set<Achievement> reached() {
+        Set<Achievement> reached = EnumSet.noneOf(Achievement.class);
+        for (Achievement achievement : Achievement.values()) {
+            if (achievement.isReachedBy(this)) {
+                reached.add(achievement);
+            }
+        }
+        return reached;
+    }
+
+    private ActivityProgress activity(ActivityType activityType) {
+        return activities.computeIfAbsent(activityType, type -> new ActivityProgress(userId, type));
+    }
+
+    private WeeklyProgress week(LocalDate weekStart) {
+        return weeks.computeIfAbsent(weekStart, week -> new WeeklyProgress(userId, week));
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the {@link ActivityProgress} and {@link WeeklyProgress} rows with plain statements: a single locking
+ * query and two reads per event and JDBC batches for the changes. Going through the persistence context instead would
+ * load an entity per row and make large batches dirty-check every row loaded so far.
+ * <p>
+ * Every writer first locks the rows of its users in the {@code users} table, which exist even before the users' first
+ * training, so the progress of a user is never read and written by two transactions at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+class UserProgressRepository {
+
+    private static final String LOCK_USERS = """
+            select id from users where id in (:userIds) order by id for update
+            """;
+
+    private static final String SELECT_ACTIVITIES = """
+            select id, user_id, activity_type, trainings, total_distance, max_distance, best_five_km_seconds
+            from achievement_progress
+            where user_id in (:userIds)
+            """;
+
+    private static final String SELECT_WEEKS = """
+            select id, user_id, week_start, trainings
+            from achievement_weekly_progress
+            where user_id in (:userIds) and week_start in (:weekStarts)
+            """;
+
+    private static final String INSERT_ACTIVITY = """
+            insert into achievement_progress (user_id, activity_type, trainings, total_distance, max_distance, best_five_km_seconds)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_ACTIVITY = """
+            update achievement_progress
+            set trainings = ?, total_distance = ?, max_distance = ?, best_five_km_seconds = ?
+            where id = ?
+            """;
+
+    private static final String INSERT_WEEK = """
+            insert into achievement_weekly_progress (user_id, week_start, trainings) values (?, ?, ?)
+            """;
+
+    private static final String UPDATE_WEEK = """
+            update achievement_weekly_progress set trainings = ? where id = ?
+            """;
+
+    private static final String DELETE_ACTIVITIES = """
+            delete from achievement_progress where user_id in (:userIds)
+            """;
+
+    private static final String DELETE_WEEKS = """
+            delete from achievement_weekly_progress where user_id in (:userIds)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Locks the users until the end of the transaction, in ascending ID order, so that concurrent transactions locking
+     * several users never wait for each other in a cycle.
+     *
+     * @param userIds IDs of the users
+     */
+    void lockUsers(Collection<Long> userIds) {
+        namedParameterJdbcTemplate.queryForList(LOCK_USERS, Map.of("userIds", userIds), Long.class);
+    }
+
+    /**
+     * Locks the users of the trainings, see {@link #lockUsers(Collection)}, and loads their progress with the weeks
+     * the trainings ended in.
+     *
+     * @param trainings trainings about to be added to or removed from the progress
+     * @param zone      time zone the weeks of the progress are computed in
+     * @return progress of every user of the trainings, empty for users without rows
+     */
+    Map<Long, UserProgress> lockAll(Collection<TrainingSnapshot> trainings, ZoneId zone) {
+        Set<Long> userIds = new TreeSet<>();
+        Set<Date> weekStarts = new HashSet<>();
+        for (TrainingSnapshot training : trainings) {
+            userIds.add(training.userId());
+            weekStarts.add(Date.valueOf(UserProgress.weekOf(training, zone)));
+        }
+        lockUsers(userIds);
+        Map<Long, List<ActivityProgress>> activitiesByUser = namedParameterJdbcTemplate
+                .query(SELECT_ACTIVITIES, Map.of("userIds", userIds), (rs, rowNum) -> mapActivity(rs))
+                .stream()
+                .collect(Collectors.groupingBy(ActivityProgress::getUserId));
+        Map<Long, List<WeeklyProgress>> weeksByUser = namedParameterJdbcTemplate
+                .query(SELECT_WEEKS, Map.of("userIds", userIds, "weekStarts", weekStarts), (rs, rowNum) -> mapWeek(rs))
+                .stream()
+                .collect(Collectors.groupingBy(WeeklyProgress::getUserId));
+        Map<Long, UserProgress> progress = new HashMap<>();
+        for (Long userId : userIds) {
+            progress.put(userId, new UserProgress(userId,
+                                                  zone,
+                                                  activitiesByUser.getOrDefault(userId, List.of()),
+                                                  weeksByUser.getOrDefault(userId, List.of())));
+        }
+        return progress;
+    }
+
+    /**
+     * Inserts the new progress rows of the users and updates the existing ones.
+     *
+     * @param progress progress of the users
+     */
+    void saveAll(Collection<UserProgress> progress) {
+        List<Object[]> activityInserts = new ArrayList<>();
+        List<Object[]> activityUpdates = new ArrayList<>();
+        List<Object[]> weekInserts = new ArrayList<>();
+        List<Object[]> weekUpdates = new ArrayList<>();
+        for (UserProgress userProgress : progress) {
+            for (ActivityProgress activity : userProgress.getActivities()) {
+                if (activity.getId() == null) {
+                    activityInserts.add(new Object[]{activity.getUserId(), activity.getActivityType().ordinal(),
+                                                     activity.getTrainings(), activity.getTotalDistance(), activity.getMaxDistance(),
+                                                     activity.getBestFiveKmSeconds()});
+                } else {
+                    activityUpdates.add(new Object[]{activity.getTrainings(), activity.getTotalDistance(), activity.getMaxDistance(),
+                                                     activity.getBestFiveKmSeconds(), activity.getId()});
+                }
+            }
+            for (WeeklyProgress week : userProgress.getWeeks()) {
+                if (week.getId() == null) {
+                    weekInserts.add(new Object[]{week.getUserId(), Date.valueOf(week.getWeekStart()), week.getTrainings()});
+                } else {
+                    weekUpdates.add(new Object[]{week.getTrainings(), week.getId()});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACTIVITY, activityInserts);
+        jdbcTemplate.batchUpdate(UPDATE_ACTIVITY, activityUpdates);
+        jdbcTemplate.batchUpdate(INSERT_WEEK, weekInserts);
+        jdbcTemplate.batchUpdate(UPDATE_WEEK, weekUpdates);
+    }
+
+    /**
+     * Deletes all progress rows of the users, e.g. before their trainings are replayed.
+     *
+     * @param userIds IDs of the users
+     */
+    void deleteAll(Collection<Long> userIds) {
+        namedParameterJdbcTemplate.update(DELETE_ACTIVITIES, Map.of("userIds", userIds));
+        namedParameterJdbcTemplate.update(DELETE_WEEKS, Map.of("userIds", userIds));
+    }
+
+    private static ActivityProgress mapActivity(ResultSet rs) throws SQLException {
+        return new ActivityProgress(rs.getLong("id"),
+                                    rs.getLong("user_id"),
+                                    ActivityType.values()[rs.getInt("activity_type")],
+                                    rs.getInt("trainings"),
+                                    rs.getDouble("total_distance"),
+                                    rs.getDouble("max_distance"),
+                                    rs.getObject("best_five_km_seconds", Long.class));
+    }
+
+    private static WeeklyProgress mapWeek(ResultSet rs) throws SQLException {
+        return new WeeklyProgress(rs.getLong("id"),
+                                  rs.getLong("user_id"),
+                                  rs.getDate("week_start").toLocalDate(),
+                                  rs.getInt("trainings"));
+    }
+
+}
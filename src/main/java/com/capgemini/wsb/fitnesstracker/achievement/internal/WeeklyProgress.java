@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Number of a single user's trainings of all activity types that ended within one week, Monday to Sunday. Kept for
+ * every week the user trained in, so trainings uploaded or edited late count in their own week; only the weeks of the
+ * trainings being evaluated are ever loaded.
+ * <p>
+ * Mapped as an entity for the table only, like {@link ActivityProgress}.
+ */
+@Entity
+@Table(name = "achievement_weekly_progress", uniqueConstraints = @UniqueConstraint(name = "ux_achievement_weekly_progress_user_week",
+                                                                                  columnNames = {"user_id", "week_start"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class WeeklyProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Mapped only for the foreign key; the rows are read and written through {@link #userId}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Monday of the week.
+     */
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "trainings", nullable = false)
+    private int trainings;
+
+    WeeklyProgress(Long userId, LocalDate weekStart) {
+        this.userId = userId;
+        this.weekStart = weekStart;
+    }
+
+    WeeklyProgress(Long id, Long userId, LocalDate weekStart, int trainings) {
+        this.id = id;
+        this.userId = userId;
+        this.weekStart = weekStart;
+        this.trainings = trainings;
+    }
+
+    void add() {
+        trainings++;
+    }
+
+    void remove() {
+        trainings--;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Totals and averages of the trainings of one activity type.
+ *
+ * @param activityType    type of activity
+ * @param trainings       number of trainings
+ * @param totalDistance   sum of the distances
+ * @param averageDistance average distance of a training, {@code 0} without trainings
+ * @param maxDistance     longest distance of a training
+ * @param averageSpeed    average of the trainings' average speeds, {@code 0} without trainings
+ * @param totalHours      sum of the trainings' durations
+ */
+record ActivitySummaryDto(ActivityType activityType,
+                          long trainings,
+                          double totalDistance,
+                          double averageDistance,
+                          double maxDistance,
+                          double averageSpeed,
+                          double totalHours) {
+
+}
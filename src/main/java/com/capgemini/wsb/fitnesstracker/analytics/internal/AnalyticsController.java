@@ -0,0 +1,106 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/analytics")
+@RequiredArgsConstructor
+class AnalyticsController {
+
+    private final AnalyticsServiceImpl analyticsService;
+
+    /**
+     * Sums up the trainings of every activity type that ended within the range. Served from memory.
+     *
+     * @param from inclusive first day of the range, omitted for no lower bound
+     * @param to   exclusive last day of the range, omitted for no upper bound
+     * @return one summary per activity type
+     * @throws BusinessException if the range is empty
+     */
+    @GetMapping("/summary")
+    public List<ActivitySummaryDto> getSummary(@RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @Nullable LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @Nullable LocalDate to) {
+        checkRange(from, to);
+        return analyticsService.getSummary(from, to);
+    }
+
+    /**
+     * Totals the trainings of the activity type by day, week or month. Served from memory.
+     *
+     * @param activityType type of activity, case-insensitive
+     * @param period       {@code day}, {@code week} or {@code month}, case-insensitive
+     * @param from         inclusive first day of the range
+     * @param to           exclusive last day of the range
+     * @return totals of every period overlapping the range, oldest first
+     * @throws BusinessException if the activity type or the period is unknown, the range is empty,
+     *                           or it spans more than 1000 periods
+     */
+    @GetMapping("/{activityType}/periods")
+    public List<PeriodTotalsDto> getPeriodTotals(@PathVariable String activityType,
+                                                 @RequestParam(defaultValue = "week") String period,
+                                                 @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return analyticsService.getPeriodTotals(parse(ActivityType.class, activityType), parse(AnalyticsPeriod.class, period), from, to);
+    }
+
+    /**
+     * Counts the trainings of the activity type by their distance. Served from memory.
+     *
+     * @param activityType type of activity, case-insensitive
+     * @param bucketWidth  width of a distance bucket
+     * @param from         inclusive first day of the range, omitted for no lower bound
+     * @param to           exclusive last day of the range, omitted for no upper bound
+     * @return buckets from the shortest distance up to the last one with trainings
+     * @throws BusinessException if the activity type is unknown, the bucket width is not positive or the range is empty
+     */
+    @GetMapping("/{activityType}/distribution")
+    public List<DistributionBucketDto> getDistanceDistribution(@PathVariable String activityType,
+                                                               @RequestParam(defaultValue = "5") double bucketWidth,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @Nullable LocalDate from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @Nullable LocalDate to) {
+        checkRange(from, to);
+        if (!(bucketWidth > 0)) {
+            throw new BusinessException("Bucket width must be positive, got " + bucketWidth);
+        }
+        return analyticsService.getDistanceDistribution(parse(ActivityType.class, activityType), bucketWidth, from, to);
+    }
+
+    /**
+     * Reports the heap taken by the in-memory copy of the trainings the analytics are served from.
+     *
+     * @return bytes per training of the columns, against the estimated size of a training entity
+     */
+    @GetMapping("/memory")
+    public MemoryReportDto getMemoryReport() {
+        return analyticsService.getMemoryReport();
+    }
+
+    private static void checkRange(@Nullable LocalDate from, @Nullable LocalDate to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BusinessException("Range from %s to %s is empty".formatted(from, to));
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown %s: %s".formatted(type.getSimpleName(), value));
+        }
+    }
+
+}
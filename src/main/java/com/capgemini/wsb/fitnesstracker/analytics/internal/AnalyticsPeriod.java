@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar periods the trainings are totalled by.
+ */
+enum AnalyticsPeriod {
+
+    DAY {
+        @Override
+        LocalDate start(LocalDate day) {
+            return day;
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+    /**
+     * Monday to Monday.
+     */
+    WEEK {
+        @Override
+        LocalDate start(LocalDate day) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    },
+    MONTH {
+        @Override
+        LocalDate start(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    /**
+     * @param day any day
+     * @return first day of the period the day belongs to
+     */
+    abstract LocalDate start(LocalDate day);
+
+    /**
+     * @param start first day of a period
+     * @return first day of the following period
+     */
+    abstract LocalDate next(LocalDate start);
+
+}
@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration of the in-memory columnar copy of the trainings the analytics are computed from.
+ */
+@ConfigurationProperties(prefix = "analytics")
+@Getter
+class AnalyticsProperties {
+
+    /**
+     * Time zone the days, weeks and months of the analytics are computed in.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Number of threads loading the activity types' trainings, {@code 0} for one per available processor.
+     */
+    private final int loadThreads;
+
+    /**
+     * Number of rows the JDBC driver fetches at once while loading.
+     */
+    private final int fetchSize;
+
+    AnalyticsProperties(@DefaultValue("UTC") ZoneId zone,
+                        @DefaultValue("0") int loadThreads,
+                        @DefaultValue("5000") int fetchSize) {
+        this.zone = zone;
+        this.loadThreads = loadThreads > 0 ? loadThreads : Runtime.getRuntime().availableProcessors();
+        this.fetchSize = fetchSize;
+    }
+
+}
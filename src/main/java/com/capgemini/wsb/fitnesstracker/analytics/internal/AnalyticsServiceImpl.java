@@ -0,0 +1,211 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the training analytics from the {@link ColumnarTrainingStore}, without touching the database.
+ * <p>
+ * Every aggregation is a single pass over the columns of an activity type: an indexed loop over primitive arrays,
+ * reading only the columns it needs. The summary of all activity types runs the segments in parallel.
+ * Trainings are assigned to days, weeks and months by their end time, in {@link AnalyticsProperties#getZone()}.
+ */
+@Service
+@RequiredArgsConstructor
+class AnalyticsServiceImpl {
+
+    /**
+     * Shallow heap size of one detached {@code Training} with the objects only it references, on a 64-bit JVM with
+     * compressed references: the entity (12 bytes of header, 5 references and 2 doubles, 48 bytes), its {@code Long}
+     * ID (16 bytes) and its two {@code Instant}s (24 bytes each). The {@code User} proxy is shared by the user's
+     * trainings and not counted. A managed entity takes more: the persistence context adds a copy of its loaded state
+     * and its own entries per entity.
+     */
+    static final int ENTITY_GRAPH_BYTES_PER_TRAINING = 48 + 16 + 2 * 24;
+
+    static final int MAX_DISTRIBUTION_BUCKETS = 100;
+
+    static final int MAX_PERIODS = 1000;
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private final ColumnarTrainingStore store;
+    private final AnalyticsProperties properties;
+
+    /**
+     * Sums up the trainings of every activity type that ended within the range.
+     *
+     * @param from inclusive first day of the range, {@code null} for no lower bound
+     * @param to   exclusive last day of the range, {@code null} for no upper bound
+     * @return one summary per activity type, in the order of {@link ActivityType}
+     */
+    List<ActivitySummaryDto> getSummary(@Nullable LocalDate from, @Nullable LocalDate to) {
+        long fromMillis = from == null ? Long.MIN_VALUE : toMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : toMillis(to);
+        return Arrays.stream(ActivityType.values())
+                .parallel()
+                .map(activityType -> store.read(activityType, columns -> summarize(activityType, columns, fromMillis, toMillis)))
+                .toList();
+    }
+
+    /**
+     * Totals the trainings of the activity type by the periods that overlap the range. The first and the last
+     * period are whole, even if the range starts or ends within them.
+     *
+     * @param activityType type of activity
+     * @param period       length of the periods
+     * @param from         inclusive first day of the range
+     * @param to           exclusive last day of the range
+     * @return totals of every period, including those without trainings, oldest first
+     * @throws BusinessException if the range spans more than {@value #MAX_PERIODS} periods
+     */
+    List<PeriodTotalsDto> getPeriodTotals(ActivityType activityType, AnalyticsPeriod period, LocalDate from, LocalDate to) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = period.start(from); start.isBefore(to); start = period.next(start)) {
+            if (starts.size() == MAX_PERIODS) {
+                throw new BusinessException("Range from %s to %s spans more than %s periods".formatted(from, to, MAX_PERIODS));
+            }
+            starts.add(start);
+        }
+        int periods = starts.size();
+        long[] boundaries = new long[periods + 1];
+        for (int i = 0; i < periods; i++) {
+            boundaries[i] = toMillis(starts.get(i));
+        }
+        boundaries[periods] = toMillis(period.next(starts.get(periods - 1)));
+
+        long[] trainings = new long[periods];
+        double[] distances = new double[periods];
+        long[] durations = new long[periods];
+        store.read(activityType, columns -> {
+            long[] startMillis = columns.startMillis();
+            long[] endMillis = columns.endMillis();
+            double[] distance = columns.distances();
+            for (int i = 0, size = columns.size(); i < size; i++) {
+                long end = endMillis[i];
+                if (end < boundaries[0] || end >= boundaries[periods] || columns.isRemoved(i)) {
+                    continue;
+                }
+                int index = Arrays.binarySearch(boundaries, end);
+                if (index < 0) {
+                    index = -index - 2;
+                }
+                trainings[index]++;
+                distances[index] += distance[i];
+                durations[index] += end - startMillis[i];
+            }
+            return null;
+        });
+
+        List<PeriodTotalsDto> totals = new ArrayList<>(periods);
+        for (int i = 0; i < periods; i++) {
+            totals.add(new PeriodTotalsDto(starts.get(i), trainings[i], distances[i], durations[i] / MILLIS_PER_HOUR));
+        }
+        return totals;
+    }
+
+    /**
+     * Counts the trainings of the activity type that ended within the range by their distance, in buckets of equal
+     * width. Distances beyond {@value #MAX_DISTRIBUTION_BUCKETS} buckets are counted in the last one.
+     *
+     * @param activityType type of activity
+     * @param bucketWidth  width of a bucket, in the unit of the distances
+     * @param from         inclusive first day of the range, {@code null} for no lower bound
+     * @param to           exclusive last day of the range, {@code null} for no upper bound
+     * @return buckets from the shortest distance up to the last one with trainings
+     */
+    List<DistributionBucketDto> getDistanceDistribution(ActivityType activityType,
+                                                        double bucketWidth,
+                                                        @Nullable LocalDate from,
+                                                        @Nullable LocalDate to) {
+        long fromMillis = from == null ? Long.MIN_VALUE : toMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : toMillis(to);
+        long[] counts = store.read(activityType, columns -> {
+            long[] endMillis = columns.endMillis();
+            double[] distances = columns.distances();
+            long[] buckets = new long[MAX_DISTRIBUTION_BUCKETS];
+            for (int i = 0, size = columns.size(); i < size; i++) {
+                long end = endMillis[i];
+                if (end < fromMillis || end >= toMillis || columns.isRemoved(i)) {
+                    continue;
+                }
+                buckets[(int) Math.min(Math.max(distances[i], 0) / bucketWidth, MAX_DISTRIBUTION_BUCKETS - 1)]++;
+            }
+            return buckets;
+        });
+
+        int last = counts.length - 1;
+        while (last >= 0 && counts[last] == 0) {
+            last--;
+        }
+        List<DistributionBucketDto> buckets = new ArrayList<>(last + 1);
+        for (int i = 0; i <= last; i++) {
+            Double upperBound = i == MAX_DISTRIBUTION_BUCKETS - 1 ? null : (i + 1) * bucketWidth;
+            buckets.add(new DistributionBucketDto(i * bucketWidth, upperBound, counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * @return heap taken by the columns of every activity type, against the estimated size of the same trainings as
+     * entities
+     */
+    MemoryReportDto getMemoryReport() {
+        List<MemoryReportDto.Segment> segments = Arrays.stream(ActivityType.values())
+                .map(activityType -> store.read(activityType, columns -> new MemoryReportDto.Segment(
+                        activityType, columns.liveSize(), columns.capacity(), columns.allocatedBytes())))
+                .toList();
+        long trainings = segments.stream().mapToLong(MemoryReportDto.Segment::trainings).sum();
+        long allocatedBytes = segments.stream().mapToLong(MemoryReportDto.Segment::allocatedBytes).sum();
+        return new MemoryReportDto(trainings,
+                                   allocatedBytes,
+                                   trainings == 0 ? 0 : (double) allocatedBytes / trainings,
+                                   TrainingColumns.BYTES_PER_ROW,
+                                   ENTITY_GRAPH_BYTES_PER_TRAINING,
+                                   segments);
+    }
+
+    private static ActivitySummaryDto summarize(ActivityType activityType, TrainingColumns columns, long fromMillis, long toMillis) {
+        long[] startMillis = columns.startMillis();
+        long[] endMillis = columns.endMillis();
+        double[] distances = columns.distances();
+        double[] averageSpeeds = columns.averageSpeeds();
+        long trainings = 0;
+        double totalDistance = 0;
+        double maxDistance = 0;
+        double speedSum = 0;
+        long durationMillis = 0;
+        for (int i = 0, size = columns.size(); i < size; i++) {
+            long end = endMillis[i];
+            if (end < fromMillis || end >= toMillis || columns.isRemoved(i)) {
+                continue;
+            }
+            double distance = distances[i];
+            trainings++;
+            totalDistance += distance;
+            maxDistance = Math.max(maxDistance, distance);
+            speedSum += averageSpeeds[i];
+            durationMillis += end - startMillis[i];
+        }
+        return new ActivitySummaryDto(activityType,
+                                      trainings,
+                                      totalDistance,
+                                      trainings == 0 ? 0 : totalDistance / trainings,
+                                      maxDistance,
+                                      trainings == 0 ? 0 : speedSum / trainings,
+                                      durationMillis / MILLIS_PER_HOUR);
+    }
+
+    private long toMillis(LocalDate day) {
+        return day.atStartOfDay(properties.getZone()).toInstant().toEpochMilli();
+    }
+
+}
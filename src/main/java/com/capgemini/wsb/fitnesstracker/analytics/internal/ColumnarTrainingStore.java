@@ -0,0 +1,184 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory copy of the {@code trainings} table, one {@link TrainingColumns} segment per activity type.
+ * <p>
+ * The segments are loaded from the database when the application is ready, and reloaded by
+ * {@code analytics.reload-cron} if set, e.g. to drop the trainings of deleted users, which publish no events. Meanwhile
+ * the previous segments keep serving and the training events are buffered, then replayed onto the loaded segments;
+ * replaying is idempotent, so events whose trainings the load already saw change nothing. Otherwise the events are
+ * applied once their transaction commits: created trainings are appended, updated ones removed and appended again.
+ * <p>
+ * Each segment has a read-write lock: aggregations of a segment run concurrently and only wait for the few
+ * microseconds of an append. Finding the row of an updated training scans its segment's IDs, which is cheap next to
+ * the update's own transaction.
+ */
+@Component
+@Slf4j
+class ColumnarTrainingStore {
+
+    private final TrainingColumnsLoader loader;
+    private final Map<ActivityType, Segment> segments;
+    private final Object reloadLock = new Object();
+    @Nullable
+    private List<Change> buffered;
+
+    ColumnarTrainingStore(TrainingColumnsLoader loader) {
+        this.loader = loader;
+        Map<ActivityType, Segment> segments = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ActivityType.values()) {
+            segments.put(activityType, new Segment());
+        }
+        this.segments = Collections.unmodifiableMap(segments);
+    }
+
+    /**
+     * Runs the reader on the columns of the activity type, which it must not keep or modify.
+     *
+     * @param activityType type of activity
+     * @param reader       function reading the columns
+     * @param <R>          type of the result
+     * @return result of the reader
+     */
+    <R> R read(ActivityType activityType, Function<TrainingColumns, R> reader) {
+        Segment segment = segments.get(activityType);
+        segment.lock.readLock().lock();
+        try {
+            return reader.apply(segment.columns);
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces all segments with the current content of the {@code trainings} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${analytics.reload-cron:-}")
+    void load() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                buffered = new ArrayList<>();
+            }
+            long started = System.nanoTime();
+            Map<ActivityType, TrainingColumns> loaded;
+            try {
+                loaded = loader.loadAll();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    buffered.forEach(change -> apply(change, true));
+                    buffered = null;
+                }
+                throw e;
+            }
+            int trainings = 0;
+            synchronized (this) {
+                for (Map.Entry<ActivityType, TrainingColumns> entry : loaded.entrySet()) {
+                    Segment segment = segments.get(entry.getKey());
+                    segment.lock.writeLock().lock();
+                    try {
+                        segment.columns = entry.getValue();
+                    } finally {
+                        segment.lock.writeLock().unlock();
+                    }
+                    trainings += entry.getValue().size();
+                }
+                buffered.forEach(change -> apply(change, true));
+                buffered = null;
+            }
+            log.info("Loaded {} trainings for analytics in {} ms", trainings, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    synchronized void onTrainingCreated(TrainingCreatedEvent event) {
+        change(new Change(null, event.training()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    synchronized void onTrainingsCreated(TrainingsCreatedEvent event) {
+        event.trainings().forEach(training -> change(new Change(null, training)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    synchronized void onTrainingUpdated(TrainingUpdatedEvent event) {
+        change(new Change(event.previous(), event.current()));
+    }
+
+    private void change(Change change) {
+        if (buffered != null) {
+            buffered.add(change);
+        } else {
+            apply(change, false);
+        }
+    }
+
+    /**
+     * @param change     created or updated training
+     * @param idempotent whether the training may be stored already, in its current state or not, and must be found
+     *                   and replaced instead of appended twice
+     */
+    private void apply(Change change, boolean idempotent) {
+        if (change.previous() != null) {
+            remove(change.previous());
+        }
+        if (idempotent) {
+            remove(change.current());
+        }
+        Segment segment = segments.get(change.current().activityType());
+        segment.lock.writeLock().lock();
+        try {
+            segment.columns.append(change.current());
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(TrainingSnapshot training) {
+        Segment segment = segments.get(training.activityType());
+        segment.lock.writeLock().lock();
+        try {
+            int index = segment.columns.indexOf(training.id());
+            if (index >= 0) {
+                segment.columns.remove(index);
+            }
+        } finally {
+            segment.lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Segment {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private TrainingColumns columns = new TrainingColumns();
+
+    }
+
+    private record Change(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Number of trainings whose distance falls within a bucket.
+ *
+ * @param fromDistance inclusive lower bound of the distance
+ * @param toDistance   exclusive upper bound of the distance, {@code null} for the last, open-ended bucket
+ * @param trainings    number of trainings
+ */
+record DistributionBucketDto(double fromDistance, @Nullable Double toDistance, long trainings) {
+
+}
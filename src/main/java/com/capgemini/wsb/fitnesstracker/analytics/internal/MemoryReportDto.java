@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.List;
+
+/**
+ * Heap taken by the columnar copy of the trainings, compared with holding them as entities.
+ *
+ * @param trainings                   number of stored trainings
+ * @param allocatedBytes              bytes allocated by all segments, unused capacity included
+ * @param bytesPerTraining            allocated bytes divided by the number of trainings
+ * @param columnBytesPerTraining      bytes of one row in the columns, without unused capacity
+ * @param entityGraphBytesPerTraining estimated bytes of one detached {@code Training} with its own objects
+ * @param segments                    the same figures per activity type
+ */
+record MemoryReportDto(long trainings,
+                       long allocatedBytes,
+                       double bytesPerTraining,
+                       int columnBytesPerTraining,
+                       int entityGraphBytesPerTraining,
+                       List<Segment> segments) {
+
+    /**
+     * @param activityType   type of activity
+     * @param trainings      number of stored trainings
+     * @param capacity       number of rows the arrays can hold without growing
+     * @param allocatedBytes bytes allocated by the segment
+     */
+    record Segment(ActivityType activityType, int trainings, int capacity, long allocatedBytes) {
+
+    }
+
+}
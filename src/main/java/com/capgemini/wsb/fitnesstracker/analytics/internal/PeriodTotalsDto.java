@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of the trainings of one activity type that ended within a period.
+ *
+ * @param periodStart   first day of the period
+ * @param trainings     number of trainings
+ * @param totalDistance sum of the distances
+ * @param totalHours    sum of the trainings' durations
+ */
+record PeriodTotalsDto(LocalDate periodStart, long trainings, double totalDistance, double totalHours) {
+
+}
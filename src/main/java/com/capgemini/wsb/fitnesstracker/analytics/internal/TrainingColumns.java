@@ -0,0 +1,185 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Trainings of a single activity type stored column by column, one primitive array per field, so that an aggregation
+ * reads only the columns it needs, sequentially, without dereferencing a single object.
+ * <p>
+ * Rows are appended at the end. A row is removed by marking it in a bit set; the aggregations skip marked rows and the
+ * columns are compacted once more than an eighth of the rows are marked. Instances are not thread-safe, see
+ * {@link ColumnarTrainingStore}.
+ */
+final class TrainingColumns {
+
+    /**
+     * Bytes taken by one row in the columns: the ID, user ID, start and end times and the two doubles.
+     */
+    static final int BYTES_PER_ROW = 6 * Long.BYTES;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int COLUMNS = 6;
+
+    private long[] ids;
+    private long[] userIds;
+    private long[] startMillis;
+    private long[] endMillis;
+    private double[] distances;
+    private double[] averageSpeeds;
+    private final BitSet removed = new BitSet();
+    private int size;
+    private int removedCount;
+
+    TrainingColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    TrainingColumns(int capacity) {
+        ids = new long[capacity];
+        userIds = new long[capacity];
+        startMillis = new long[capacity];
+        endMillis = new long[capacity];
+        distances = new double[capacity];
+        averageSpeeds = new double[capacity];
+    }
+
+    void append(TrainingSnapshot training) {
+        append(training.id(),
+               training.userId(),
+               training.startTime().toEpochMilli(),
+               training.endTime().toEpochMilli(),
+               training.distance(),
+               training.averageSpeed());
+    }
+
+    void append(long id, long userId, long start, long end, double distance, double averageSpeed) {
+        if (size == ids.length) {
+            grow(size + (size >> 1) + 1);
+        }
+        ids[size] = id;
+        userIds[size] = userId;
+        startMillis[size] = start;
+        endMillis[size] = end;
+        distances[size] = distance;
+        averageSpeeds[size] = averageSpeed;
+        size++;
+    }
+
+    /**
+     * Finds the row of the training, scanning from the most recently appended one.
+     *
+     * @param id ID of the training
+     * @return index of the row, or {@code -1} if the training is not stored or was removed
+     */
+    int indexOf(long id) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (ids[i] == id && !removed.get(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void remove(int index) {
+        removed.set(index);
+        removedCount++;
+        if (removedCount > size >> 3) {
+            compact();
+        }
+    }
+
+    /**
+     * Releases the capacity not taken by rows, e.g. after the bulk load.
+     */
+    void trimToSize() {
+        if (size < ids.length) {
+            grow(size);
+        }
+    }
+
+    /**
+     * @return number of rows, including those removed but not compacted yet
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of stored trainings
+     */
+    int liveSize() {
+        return size - removedCount;
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * @param index index of a row
+     * @return whether the row is removed and must be skipped
+     */
+    boolean isRemoved(int index) {
+        return removedCount > 0 && removed.get(index);
+    }
+
+    long[] userIds() {
+        return userIds;
+    }
+
+    long[] startMillis() {
+        return startMillis;
+    }
+
+    long[] endMillis() {
+        return endMillis;
+    }
+
+    double[] distances() {
+        return distances;
+    }
+
+    double[] averageSpeeds() {
+        return averageSpeeds;
+    }
+
+    /**
+     * @return bytes taken by the arrays, with their unused capacity, and the bit set of removed rows
+     */
+    long allocatedBytes() {
+        return (long) COLUMNS * (ARRAY_HEADER_BYTES + (long) ids.length * Long.BYTES)
+                + ARRAY_HEADER_BYTES + (long) removed.size() / Byte.SIZE;
+    }
+
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed.get(i)) {
+                ids[target] = ids[i];
+                userIds[target] = userIds[i];
+                startMillis[target] = startMillis[i];
+                endMillis[target] = endMillis[i];
+                distances[target] = distances[i];
+                averageSpeeds[target] = averageSpeeds[i];
+                target++;
+            }
+        }
+        size = target;
+        removed.clear();
+        removedCount = 0;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        startMillis = Arrays.copyOf(startMillis, capacity);
+        endMillis = Arrays.copyOf(endMillis, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the {@code trainings} table into {@link TrainingColumns}, one activity type per thread. Rows go straight from
+ * the result set into the arrays, sized up front by a count over the activity type index, so loading creates no
+ * entities and copies no arrays.
+ */
+@Component
+class TrainingColumnsLoader {
+
+    private static final String COUNT = "select count(*) from trainings where activity_type = ?";
+
+    private static final String SELECT = """
+            select id, user_id, start_time, end_time, distance, average_speed
+            from trainings
+            where activity_type = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsProperties properties;
+
+    TrainingColumnsLoader(DataSource dataSource, AnalyticsProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.properties = properties;
+    }
+
+    /**
+     * @return columns of every activity type, trimmed to their size
+     */
+    Map<ActivityType, TrainingColumns> loadAll() {
+        ActivityType[] activityTypes = ActivityType.values();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(properties.getLoadThreads(), activityTypes.length),
+                                                                new CustomizableThreadFactory("analytics-load-"));
+        try {
+            List<Future<TrainingColumns>> futures = new ArrayList<>(activityTypes.length);
+            for (ActivityType activityType : activityTypes) {
+                futures.add(executor.submit(() -> load(activityType)));
+            }
+            Map<ActivityType, TrainingColumns> columns = new EnumMap<>(ActivityType.class);
+            for (ActivityType activityType : activityTypes) {
+                columns.put(activityType, futures.get(activityType.ordinal()).get());
+            }
+            return columns;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Loading the trainings for analytics was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Loading the trainings for analytics failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TrainingColumns load(ActivityType activityType) {
+        Integer count = jdbcTemplate.queryForObject(COUNT, Integer.class, activityType.ordinal());
+        TrainingColumns columns = new TrainingColumns(Math.max(1, count == null ? 0 : count));
+        jdbcTemplate.query(SELECT, rs -> {
+            columns.append(rs.getLong(1),
+                           rs.getLong(2),
+                           rs.getObject(3, OffsetDateTime.class).toInstant().toEpochMilli(),
+                           rs.getObject(4, OffsetDateTime.class).toInstant().toEpochMilli(),
+                           rs.getDouble(5),
+                           rs.getDouble(6));
+        }, activityType.ordinal());
+        columns.trimToSize();
+        return columns;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/leaderboards")
+@RequiredArgsConstructor
+class LeaderboardController {
+
+    private final LeaderboardServiceImpl leaderboardService;
+
+    /**
+     * Retrieves the users who covered the longest distance in trainings of the activity type that ended within the
+     * window. Served from memory, without touching the database.
+     *
+     * @param activityType type of activity, case-insensitive
+     * @param window       {@code week} (the last 7 days) or {@code month} (the last 30 days), case-insensitive
+     * @return the best users, best first
+     * @throws BusinessException if the activity type or the window is unknown
+     */
+    @GetMapping("/{activityType}")
+    public List<LeaderboardEntryDto> getLeaderboard(@PathVariable String activityType,
+                                                    @RequestParam(defaultValue = "week") String window) {
+        return leaderboardService.getLeaderboard(parse(ActivityType.class, activityType), parse(LeaderboardWindow.class, window));
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown %s: %s".formatted(type.getSimpleName(), value));
+        }
+    }
+
+}
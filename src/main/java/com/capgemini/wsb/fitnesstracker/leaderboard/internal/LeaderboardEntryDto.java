@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+/**
+ * Single position of a leaderboard.
+ *
+ * @param rank     position in the leaderboard, starting from {@code 1}
+ * @param userId   ID of the user
+ * @param distance total distance covered by the user within the window
+ */
+record LeaderboardEntryDto(int rank, Long userId, double distance) {
+
+}
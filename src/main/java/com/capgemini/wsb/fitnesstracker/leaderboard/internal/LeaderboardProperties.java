@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration of the per-activity leaderboards.
+ */
+@ConfigurationProperties(prefix = "leaderboard")
+@Getter
+class LeaderboardProperties {
+
+    /**
+     * Number of users ranked in each leaderboard.
+     */
+    private final int size;
+
+    /**
+     * Time zone the days of the rolling windows are computed in.
+     */
+    private final ZoneId zone;
+
+    LeaderboardProperties(@DefaultValue("100") int size,
+                          @DefaultValue("UTC") ZoneId zone) {
+        this.size = size;
+        this.zone = zone;
+    }
+
+}
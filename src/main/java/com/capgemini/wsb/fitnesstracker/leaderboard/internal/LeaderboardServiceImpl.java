@@ -0,0 +1,287 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the per-activity {@link RollingLeaderboard}s in memory, ranking the users by the distance of the trainings
+ * that ended within each {@link LeaderboardWindow}.
+ * <p>
+ * The leaderboards are filled from the database when the application is ready and then updated from the training
+ * events once their transaction commits, so a rolled back training never shows up. Meanwhile the previous leaderboards
+ * keep serving and the training events are buffered, then replayed onto the rebuilt leaderboards; replaying replaces
+ * whatever the rebuild read of the training, so events whose trainings the rebuild already saw are not counted twice.
+ * <p>
+ * Each activity type's leaderboard has a lock of its own, so changes of different activity types do not wait for each
+ * other; reads return the last published ranking without locking.
+ */
+@Service
+@Slf4j
+class LeaderboardServiceImpl {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final TrainingProvider trainingProvider;
+    private final LeaderboardProperties properties;
+    private final Map<ActivityType, Board> boards;
+    private final ReadWriteLock changeLock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    @Nullable
+    private Queue<Change> buffered;
+
+    LeaderboardServiceImpl(TrainingProvider trainingProvider, LeaderboardProperties properties) {
+        this.trainingProvider = trainingProvider;
+        this.properties = properties;
+        long today = currentDay();
+        Map<ActivityType, Board> boards = new EnumMap<>(ActivityType.class);
+        emptyLeaderboards(today).forEach((activityType, leaderboard) -> boards.put(activityType, new Board(leaderboard, today)));
+        this.boards = Collections.unmodifiableMap(boards);
+    }
+
+    /**
+     * Retrieves the best users of the activity type within the window.
+     *
+     * @param activityType type of activity
+     * @param window       window the distances are summed over
+     * @return at most {@code leaderboard.size} users, best first
+     */
+    List<LeaderboardEntryDto> getLeaderboard(ActivityType activityType, LeaderboardWindow window) {
+        Board board = boards.get(activityType);
+        long day = currentDay();
+        if (day > board.today) {
+            board.apply(List.of(), day);
+        }
+        return board.leaderboard.getRanking(window);
+    }
+
+    /**
+     * Refills all leaderboards from the trainings that ended within the longest window.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuild() {
+        synchronized (rebuildLock) {
+            changeLock.writeLock().lock();
+            try {
+                buffered = new ConcurrentLinkedQueue<>();
+            } finally {
+                changeLock.writeLock().unlock();
+            }
+            long day = currentDay();
+            Map<ActivityType, RollingLeaderboard> rebuilt = emptyLeaderboards(day);
+            Map<Long, Contribution> read = new HashMap<>();
+            try {
+                readTrainings(day, rebuilt, read);
+            } catch (RuntimeException e) {
+                changeLock.writeLock().lock();
+                try {
+                    apply(new ArrayList<>(buffered));
+                    buffered = null;
+                } finally {
+                    changeLock.writeLock().unlock();
+                }
+                throw e;
+            }
+            int trainings = read.size();
+            changeLock.writeLock().lock();
+            try {
+                for (Change change : buffered) {
+                    Contribution current = contribution(change.current());
+                    Contribution previous = read.put(change.current().id(), current);
+                    if (previous != null) {
+                        previous.negate().addTo(rebuilt);
+                    }
+                    current.addTo(rebuilt);
+                }
+                rebuilt.forEach((activityType, leaderboard) -> boards.get(activityType).replace(leaderboard, day, currentDay()));
+                buffered = null;
+            } finally {
+                changeLock.writeLock().unlock();
+            }
+            log.info("Leaderboards rebuilt from {} trainings", trainings);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onTrainingCreated(TrainingCreatedEvent event) {
+        change(List.of(new Change(null, event.training())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onTrainingsCreated(TrainingsCreatedEvent event) {
+        change(event.trainings().stream().map(training -> new Change(null, training)).toList());
+    }
+
+    /**
+     * Subtracts the previous distance of the training and adds the current one, which may belong to another user,
+     * activity type or day.
+     *
+     * @param event event carrying the training before and after the update
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    void onTrainingUpdated(TrainingUpdatedEvent event) {
+        change(List.of(new Change(event.previous(), event.current())));
+    }
+
+    private void readTrainings(long day, Map<ActivityType, RollingLeaderboard> rebuilt, Map<Long, Contribution> read) {
+        Instant from = LocalDate.ofEpochDay(day - LeaderboardWindow.LONGEST).atStartOfDay(properties.getZone()).toInstant();
+        long afterId = 0;
+        List<TrainingDto> page;
+        do {
+            page = trainingProvider.getCompletedTrainingsAfter(from, afterId, REBUILD_PAGE_SIZE);
+            for (TrainingDto training : page) {
+                Contribution contribution = new Contribution(training.user().id(), training.activityType(),
+                                                             dayOf(training.endTime()), training.distance());
+                contribution.addTo(rebuilt);
+                read.put(training.id(), contribution);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    private void change(List<Change> changes) {
+        changeLock.readLock().lock();
+        try {
+            if (buffered != null) {
+                buffered.addAll(changes);
+            } else {
+                apply(changes);
+            }
+        } finally {
+            changeLock.readLock().unlock();
+        }
+    }
+
+    private void apply(List<Change> changes) {
+        Map<ActivityType, List<Contribution>> contributions = new EnumMap<>(ActivityType.class);
+        for (Change change : changes) {
+            if (change.previous() != null) {
+                Contribution previous = contribution(change.previous()).negate();
+                contributions.computeIfAbsent(previous.activityType(), a -> new ArrayList<>()).add(previous);
+            }
+            Contribution current = contribution(change.current());
+            contributions.computeIfAbsent(current.activityType(), a -> new ArrayList<>()).add(current);
+        }
+        long day = currentDay();
+        contributions.forEach((activityType, changed) -> boards.get(activityType).apply(changed, day));
+    }
+
+    private Contribution contribution(TrainingSnapshot training) {
+        return new Contribution(training.userId(), training.activityType(), dayOf(training.endTime()), training.distance());
+    }
+
+    private Map<ActivityType, RollingLeaderboard> emptyLeaderboards(long day) {
+        Map<ActivityType, RollingLeaderboard> empty = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ActivityType.values()) {
+            empty.put(activityType, new RollingLeaderboard(properties.getSize(), day));
+        }
+        return empty;
+    }
+
+    private long dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, properties.getZone()).toEpochDay();
+    }
+
+    private long currentDay() {
+        return LocalDate.now(properties.getZone()).toEpochDay();
+    }
+
+    /**
+     * Leaderboard of a single activity type with the lock serializing its changes, rolling and publishing.
+     */
+    private static final class Board {
+
+        private final Lock lock = new ReentrantLock();
+        private volatile RollingLeaderboard leaderboard;
+        private volatile long today;
+
+        private Board(RollingLeaderboard leaderboard, long today) {
+            this.leaderboard = leaderboard;
+            this.today = today;
+        }
+
+        /**
+         * Rolls the leaderboard to the given day if it is behind, adds the contributions and publishes the result.
+         */
+        void apply(List<Contribution> contributions, long day) {
+            lock.lock();
+            try {
+                if (day > today) {
+                    leaderboard.rollTo(day);
+                    today = day;
+                }
+                contributions.forEach(contribution -> leaderboard.add(contribution.userId(), contribution.day(), contribution.distance()));
+                leaderboard.publish();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Publishes the rebuilt leaderboard, rolled to the current day, in place of the current one.
+         *
+         * @param rebuilt  leaderboard replacing the current one
+         * @param builtFor epoch day the rebuilt leaderboard ends with
+         * @param day      current epoch day
+         */
+        void replace(RollingLeaderboard rebuilt, long builtFor, long day) {
+            lock.lock();
+            try {
+                rebuilt.rollTo(day);
+                rebuilt.publish();
+                leaderboard = rebuilt;
+                today = Math.max(builtFor, day);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+    /**
+     * Distance a training adds to its user's day, negative if it is being removed.
+     */
+    private record Contribution(Long userId, ActivityType activityType, long day, double distance) {
+
+        Contribution negate() {
+            return new Contribution(userId, activityType, day, -distance);
+        }
+
+        void addTo(Map<ActivityType, RollingLeaderboard> leaderboards) {
+            leaderboards.get(activityType).add(userId, day, distance);
+        }
+
+    }
+
+    private record Change(@Nullable TrainingSnapshot previous, TrainingSnapshot current) {
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import java.util.Arrays;
+
+/**
+ * Rolling time window a leaderboard is computed over: the current day and the days before it.
+ */
+enum LeaderboardWindow {
+
+    /**
+     * The last 7 days, today included.
+     */
+    WEEK(7),
+
+    /**
+     * The last 30 days, today included.
+     */
+    MONTH(30);
+
+    /**
+     * Number of days of the longest window, i.e. how many days of trainings have to be kept.
+     */
+    static final int LONGEST = Arrays.stream(values()).mapToInt(LeaderboardWindow::getDays).max().orElseThrow();
+
+    private final int days;
+
+    LeaderboardWindow(int days) {
+        this.days = days;
+    }
+
+    int getDays() {
+        return days;
+    }
+
+    /**
+     * Tells whether the day falls within the window ending with the given day.
+     *
+     * @param day   epoch day to check
+     * @param today epoch day the window ends with
+     * @return {@code true} if the day is one of the window's days
+     */
+    boolean contains(long day, long today) {
+        return day <= today && day > today - days;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Leaderboards of a single activity type for all {@link LeaderboardWindow}s.
+ * <p>
+ * The distances are kept per day and user for the days of the longest window (and for trainings ending in the future).
+ * When the day changes, each window subtracts the days that fell out of it and adds the days that came into it, so
+ * rolling touches only those days instead of all trainings.
+ * <p>
+ * Not thread-safe: changes, rolling and publishing must be serialized by the caller.
+ */
+class RollingLeaderboard {
+
+    private final NavigableMap<Long, Map<Long, Double>> distanceByDayAndUser = new TreeMap<>();
+    private final Map<LeaderboardWindow, WindowRanking> rankings = new EnumMap<>(LeaderboardWindow.class);
+    private long today;
+
+    RollingLeaderboard(int size, long today) {
+        this.today = today;
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            rankings.put(window, new WindowRanking(size));
+        }
+    }
+
+    /**
+     * Changes the distance covered by the user on the given day. Days before the longest window are ignored.
+     *
+     * @param userId   ID of the user
+     * @param day      epoch day the training ended on
+     * @param distance distance to add, negative to subtract
+     */
+    void add(Long userId, long day, double distance) {
+        if (day <= today - LeaderboardWindow.LONGEST || distance == 0) {
+            return;
+        }
+        distanceByDayAndUser.computeIfAbsent(day, d -> new HashMap<>()).merge(userId, distance, Double::sum);
+        rankings.forEach((window, ranking) -> {
+            if (window.contains(day, today)) {
+                ranking.add(userId, distance);
+            }
+        });
+    }
+
+    /**
+     * Moves all windows to end with the given day and forgets the days no window covers anymore.
+     *
+     * @param day epoch day the windows are to end with, not before the current one
+     */
+    void rollTo(long day) {
+        if (day <= today) {
+            return;
+        }
+        rankings.forEach((window, ranking) -> {
+            long leftAfter = today - window.getDays();
+            long leftUntil = Math.min(today, day - window.getDays());
+            long enteredAfter = Math.max(today, day - window.getDays());
+            distanceByDayAndUser.subMap(leftAfter, false, leftUntil, true)
+                    .values()
+                    .forEach(distances -> distances.forEach((userId, distance) -> ranking.add(userId, -distance)));
+            distanceByDayAndUser.subMap(enteredAfter, false, day, true)
+                    .values()
+                    .forEach(distances -> distances.forEach(ranking::add));
+        });
+        distanceByDayAndUser.headMap(day - LeaderboardWindow.LONGEST, true).clear();
+        today = day;
+    }
+
+    /**
+     * Makes the changes since the last call visible to {@link #getRanking(LeaderboardWindow)}.
+     */
+    void publish() {
+        rankings.values().forEach(WindowRanking::publish);
+    }
+
+    /**
+     * @param window window of the leaderboard
+     * @return the best users within the window as of the last {@link #publish()}, best first
+     */
+    List<LeaderboardEntryDto> getRanking(LeaderboardWindow window) {
+        return rankings.get(window).getPublished();
+    }
+
+}
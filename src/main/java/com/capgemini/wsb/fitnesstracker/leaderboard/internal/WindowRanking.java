@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Ranking of the users by the distance they covered within a single {@link LeaderboardWindow}.
+ * <p>
+ * Keeps every user's total within the window and a sorted set of at most {@code size} best users, maintained on each
+ * change in {@code O(log size)}. Only a decrease of a ranked user while there are unranked users can let one of them
+ * in; then the ranking is recomputed from the totals, once, when it is next published. The published ranking is an
+ * immutable list, so reads never wait for the writers.
+ * <p>
+ * Not thread-safe: changes and publishing must be serialized by the caller.
+ */
+class WindowRanking {
+
+    private static final double EMPTY_DISTANCE = 1e-9;
+
+    private static final Comparator<Position> ORDER = Comparator.comparingDouble(Position::distance).reversed()
+            .thenComparing(Position::userId);
+
+    private final int size;
+    private final Map<Long, Double> distanceByUser = new HashMap<>();
+    private final TreeSet<Position> ranked = new TreeSet<>(ORDER);
+    private boolean stale;
+    private volatile List<LeaderboardEntryDto> published = List.of();
+
+    WindowRanking(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Changes the distance covered by the user within the window.
+     *
+     * @param userId ID of the user
+     * @param delta  distance to add, negative to subtract
+     */
+    void add(Long userId, double delta) {
+        Double previous = distanceByUser.get(userId);
+        double current = (previous == null ? 0 : previous) + delta;
+        if (current < EMPTY_DISTANCE) {
+            distanceByUser.remove(userId);
+        } else {
+            distanceByUser.put(userId, current);
+        }
+        if (stale) {
+            return;
+        }
+        boolean wasRanked = previous != null && ranked.remove(new Position(userId, previous));
+        int otherUsers = distanceByUser.size() - (current < EMPTY_DISTANCE ? 0 : 1);
+        if (wasRanked && delta < 0 && otherUsers > ranked.size()) {
+            stale = true;
+        } else if (current >= EMPTY_DISTANCE) {
+            offer(new Position(userId, current));
+        }
+    }
+
+    /**
+     * Makes the current ranking visible to {@link #getPublished()}, recomputing it first if it went stale.
+     */
+    void publish() {
+        if (stale) {
+            ranked.clear();
+            distanceByUser.forEach((userId, distance) -> offer(new Position(userId, distance)));
+            stale = false;
+        }
+        List<LeaderboardEntryDto> entries = new ArrayList<>(ranked.size());
+        for (Position position : ranked) {
+            entries.add(new LeaderboardEntryDto(entries.size() + 1, position.userId(), position.distance()));
+        }
+        published = List.copyOf(entries);
+    }
+
+    /**
+     * @return the best users as of the last {@link #publish()}, best first
+     */
+    List<LeaderboardEntryDto> getPublished() {
+        return published;
+    }
+
+    private void offer(Position position) {
+        if (ranked.size() < size) {
+            ranked.add(position);
+        } else if (ORDER.compare(position, ranked.last()) < 0) {
+            ranked.pollLast();
+            ranked.add(position);
+        }
+    }
+
+    private record Position(Long userId, double distance) {
+
+    }
+
+}
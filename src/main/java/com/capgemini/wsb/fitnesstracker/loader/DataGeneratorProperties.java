@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration of the synthetic data set generated on startup by {@link SyntheticDataGenerator}.
+ * The same properties and seed always produce the same data set, regardless of the number of threads.
+ */
+@ConfigurationProperties(prefix = "data-generator")
+@Getter
+class DataGeneratorProperties {
+
+    /**
+     * Number of users to generate.
+     */
+    private final int users;
+
+    /**
+     * Number of trainings generated for every user.
+     */
+    private final int trainingsPerUser;
+
+    /**
+     * Relative weights of the activity types of the generated trainings; types left out are not generated.
+     * Empty means all activity types are equally likely.
+     */
+    private final Map<ActivityType, Integer> activityMix;
+
+    /**
+     * First day (inclusive, UTC) the generated trainings can start on.
+     */
+    private final LocalDate from;
+
+    /**
+     * Last day (exclusive, UTC) the generated trainings can start on.
+     */
+    private final LocalDate to;
+
+    /**
+     * Seed of the random generator.
+     */
+    private final long seed;
+
+    /**
+     * Number of users generated and inserted together in one transaction.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of threads generating and inserting chunks in parallel, {@code 0} for one per available processor.
+     * Should not exceed the size of the connection pool.
+     */
+    private final int threads;
+
+    DataGeneratorProperties(@DefaultValue("10") int users,
+                            @DefaultValue("1") int trainingsPerUser,
+                            @DefaultValue Map<ActivityType, Integer> activityMix,
+                            @DefaultValue("2024-01-01") LocalDate from,
+                            @DefaultValue("2024-02-01") LocalDate to,
+                            @DefaultValue("42") long seed,
+                            @DefaultValue("1000") int chunkSize,
+                            @DefaultValue("0") int threads) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("data-generator.from " + from + " must be before data-generator.to " + to);
+        }
+        this.users = users;
+        this.trainingsPerUser = trainingsPerUser;
+        this.activityMix = activityMix.isEmpty() ? uniformMix() : new EnumMap<>(activityMix);
+        this.from = from;
+        this.to = to;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static Map<ActivityType, Integer> uniformMix() {
+        Map<ActivityType, Integer> mix = new EnumMap<>(ActivityType.class);
+        for (ActivityType activityType : ActivityType.values()) {
+            mix.put(activityType, 1);
+        }
+        return mix;
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.version.api.ChangeVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills an empty database with a synthetic, reproducible data set described by {@link DataGeneratorProperties}.
+ * Runs with the {@code loadInitialData} profile (a small data set for manual testing) or the {@code capacity}
+ * profile (millions of rows for load and query tests).
+ * <p>
+ * Users are split into chunks, each generated from its own seed and inserted with JDBC batches in its own transaction,
+ * by several threads at once. IDs are assigned up front, so a chunk never depends on another one, and the ID
+ * generators are moved past them at the end. Every chunk publishes a {@link TrainingsCreatedEvent}, which keeps the
+ * data derived from trainings (e.g. statistics) consistent with the generated rows, and changes all
+ * {@link ChangeVersions}, as clients may already poll while the data is generated.
+ */
+@Component
+@Profile({"loadInitialData", "capacity"})
+@Slf4j
+class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Emma", "Ethan", "Olivia", "Daniel", "Sophia", "Liam", "Ava", "Noah", "Grace", "Oliver",
+            "Mia", "Lucas", "Amelia", "Jack", "Isla", "Leo", "Chloe", "Henry", "Zoe", "Adam"};
+    private static final String[] LAST_NAMES = {
+            "Johnson", "Taylor", "Davis", "Thomas", "Baker", "Jones", "Williams", "Miller", "Anderson", "Swift",
+            "Brown", "Wilson", "Moore", "Clark", "Lewis", "Walker", "Hall", "Young", "King", "Wright"};
+    private static final int MIN_AGE = 16;
+    private static final int MAX_AGE = 80;
+    private static final int MIN_DURATION_MINUTES = 20;
+    private static final int MAX_DURATION_MINUTES = 150;
+    /**
+     * Allocation size of the pooled {@code trainings_seq} generator of {@code Training}.
+     */
+    private static final int TRAININGS_SEQUENCE_ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_USER = """
+            insert into users (id, first_name, last_name, birthdate, email, email_normalized)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_TRAINING = """
+            insert into trainings (id, user_id, start_time, end_time, activity_type, distance, average_speed)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final DataGeneratorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeVersions changeVersions;
+    private final ActivityType[] activityTypes;
+    private final int[] cumulativeWeights;
+    private final Instant trainingsFrom;
+    private final long trainingsSpanSeconds;
+
+    SyntheticDataGenerator(DataGeneratorProperties properties,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           ChangeVersions changeVersions) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.changeVersions = changeVersions;
+
+        Map<ActivityType, Integer> mix = properties.getActivityMix();
+        this.activityTypes = mix.keySet().toArray(ActivityType[]::new);
+        this.cumulativeWeights = new int[activityTypes.length];
+        int total = 0;
+        for (int i = 0; i < activityTypes.length; i++) {
+            total += mix.get(activityTypes[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("data-generator.activity-mix must contain a positive weight");
+        }
+        this.trainingsFrom = properties.getFrom().atStartOfDay(ZoneOffset.UTC).toInstant();
+        this.trainingsSpanSeconds = Duration.between(trainingsFrom, properties.getTo().atStartOfDay(ZoneOffset.UTC)).toSeconds();
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void generate() {
+        Long existingUsers = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("Database already contains {} users, skipping data generation", existingUsers);
+            return;
+        }
+
+        int users = properties.getUsers();
+        int chunkSize = properties.getChunkSize();
+        int chunks = (users + chunkSize - 1) / chunkSize;
+        long trainings = (long) users * properties.getTrainingsPerUser();
+        log.info("Generating {} users with {} trainings in {} chunks on {} threads (seed {})",
+                 users, trainings, chunks, properties.getThreads(), properties.getSeed());
+        long started = System.nanoTime();
+
+        AtomicInteger completedChunks = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads(),
+                                                                 new CustomizableThreadFactory("data-generator-"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int index = chunk;
+                futures.add(executor.submit(() -> {
+                    chunkTransaction.executeWithoutResult(status -> insertChunk(index));
+                    logProgress(completedChunks.incrementAndGet(), chunks);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        restartIdGenerators(users, trainings);
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Generated {} users and {} trainings in {} ms", users, trainings, took.toMillis());
+    }
+
+    private void insertChunk(int chunk) {
+        int firstUser = chunk * properties.getChunkSize() + 1;
+        int lastUser = Math.min(properties.getUsers(), firstUser + properties.getChunkSize() - 1);
+        int trainingsPerUser = properties.getTrainingsPerUser();
+        SplittableRandom random = new SplittableRandom(properties.getSeed() * 31 + chunk);
+
+        int userCount = lastUser - firstUser + 1;
+        List<Object[]> users = new ArrayList<>(userCount);
+        List<Object[]> trainings = new ArrayList<>(userCount * trainingsPerUser);
+        List<TrainingSnapshot> snapshots = new ArrayList<>(userCount * trainingsPerUser);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (long userId = firstUser; userId <= lastUser; userId++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = "%s.%s.%d@domain.com".formatted(firstName, lastName, userId).toLowerCase(Locale.ROOT);
+            LocalDate birthdate = today.minusDays(random.nextLong(MIN_AGE * 365L, MAX_AGE * 365L));
+            users.add(new Object[]{userId, firstName, lastName, birthdate, email, email});
+
+            long firstTrainingId = (userId - 1) * trainingsPerUser + 1;
+            for (long trainingId = firstTrainingId; trainingId < firstTrainingId + trainingsPerUser; trainingId++) {
+                TrainingSnapshot training = generateTraining(random, trainingId, userId);
+                snapshots.add(training);
+                trainings.add(new Object[]{training.id(),
+                                           training.userId(),
+                                           training.startTime().atOffset(ZoneOffset.UTC),
+                                           training.endTime().atOffset(ZoneOffset.UTC),
+                                           training.activityType().ordinal(),
+                                           training.distance(),
+                                           training.averageSpeed()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER, users);
+        jdbcTemplate.batchUpdate(INSERT_TRAINING, trainings);
+        eventPublisher.publishEvent(new TrainingsCreatedEvent(snapshots));
+        changeVersions.allChanged();
+    }
+
+    private TrainingSnapshot generateTraining(SplittableRandom random, long trainingId, long userId) {
+        Instant startTime = trainingsFrom.plusSeconds(random.nextLong(trainingsSpanSeconds));
+        int minutes = random.nextInt(MIN_DURATION_MINUTES, MAX_DURATION_MINUTES + 1);
+
+        ActivityType activityType = nextActivityType(random);
+        double averageSpeed = round(typicalSpeed(activityType) * random.nextDouble(0.7, 1.3));
+        double distance = round(averageSpeed * minutes / 60);
+        return new TrainingSnapshot(trainingId, userId, activityType, startTime, startTime.plusSeconds(minutes * 60L),
+                                    distance, averageSpeed);
+    }
+
+    private ActivityType nextActivityType(SplittableRandom random) {
+        int weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= weight) {
+            i++;
+        }
+        return activityTypes[i];
+    }
+
+    /**
+     * Typical average speed of the activity in km/h.
+     */
+    private static double typicalSpeed(ActivityType activityType) {
+        return switch (activityType) {
+            case RUNNING -> 10;
+            case CYCLING -> 20;
+            case WALKING -> 5;
+            case SWIMMING -> 2.5;
+            case TENNIS -> 4;
+        };
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private void logProgress(int completed, int chunks) {
+        if (completed * 10L / chunks != (completed - 1) * 10L / chunks) {
+            log.info("Data generation {}% done ({} of {} chunks)", completed * 100L / chunks, completed, chunks);
+        }
+    }
+
+    /**
+     * Moves the user identity and the training sequence past the generated IDs. The pooled training generator hands out
+     * the {@value #TRAININGS_SEQUENCE_ALLOCATION_SIZE} IDs below each sequence value, hence the extra allocation.
+     */
+    private void restartIdGenerators(long users, long trainings) {
+        jdbcTemplate.execute("alter table users alter column id restart with " + (users + 1));
+        jdbcTemplate.execute("alter sequence trainings_seq restart with " + (trainings + TRAININGS_SEQUENCE_ALLOCATION_SIZE + 1));
+    }
+
+}
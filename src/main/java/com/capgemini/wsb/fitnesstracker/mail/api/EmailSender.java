@@ -1,5 +1,8 @@
 package com.capgemini.wsb.fitnesstracker.mail.api;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * API interface for component responsible for sending emails.
  */
@@ -7,9 +10,25 @@ public interface EmailSender {
 
     /**
      * Sends the email message to the recipient from the provided {@link EmailDto}.
+     * Implementations may send it asynchronously, after this method returns.
      *
      * @param email information on email to be sent
+     * @return completed once the mail server accepted the email, or exceptionally once the email was dropped, with
+     *         {@link MailGivenUpException} if sending it again is unlikely to succeed
+     * @throws MailQueueFullException if the email cannot be accepted at the moment
+     */
+    CompletableFuture<Void> send(EmailDto email);
+
+    /**
+     * Sends all the provided email messages. Implementations able to reuse a single connection for many messages
+     * should override it; by default the messages are sent one by one.
+     *
+     * @param emails information on emails to be sent
+     * @return outcome of every email, see {@link #send(EmailDto)}, in the order of {@code emails}
+     * @throws MailQueueFullException if any of the emails cannot be accepted at the moment
      */
-    void send(EmailDto email);
+    default List<CompletableFuture<Void>> sendAll(List<EmailDto> emails) {
+        return emails.stream().map(this::send).toList();
+    }
 
 }
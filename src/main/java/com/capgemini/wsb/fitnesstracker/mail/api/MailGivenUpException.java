@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.mail.api;
+
+/**
+ * Completes the outcome of an email the {@link EmailSender} gave up on, because it cannot be sent at all or failed all
+ * its attempts. Sending the same email again is unlikely to succeed, unlike after other failures, e.g. a shutdown.
+ */
+public class MailGivenUpException extends RuntimeException {
+
+    public MailGivenUpException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
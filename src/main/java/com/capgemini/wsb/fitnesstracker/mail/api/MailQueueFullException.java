@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.mail.api;
+
+/**
+ * Thrown by the {@link EmailSender} when the email cannot be accepted, because too many emails are already waiting to be sent.
+ */
+public class MailQueueFullException extends RuntimeException {
+
+    public MailQueueFullException(String message) {
+        super(message);
+    }
+
+}
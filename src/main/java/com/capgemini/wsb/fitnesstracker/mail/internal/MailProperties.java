@@ -2,16 +2,17 @@ package com.capgemini.wsb.fitnesstracker.mail.internal;
 
 import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.Duration;
+
 /**
  * Configuration of the {@link EmailSender} (additional to the Spring mail configuration for {@link JavaMailSender} bean autoconfiguration).
  */
 @ConfigurationProperties(prefix = "mail")
 @Getter
-@RequiredArgsConstructor
 class MailProperties {
 
     /**
@@ -19,4 +20,33 @@ class MailProperties {
      */
     private final String from;
 
+    /**
+     * Configuration of the outbound queue the emails wait in before they are sent.
+     */
+    private final Queue queue;
+
+    MailProperties(String from, @DefaultValue Queue queue) {
+        this.from = from;
+        this.queue = queue;
+    }
+
+    /**
+     * @param capacity       maximum number of emails waiting to be sent
+     * @param offerTimeout   how long a caller waits for space in a full queue before the email is rejected
+     * @param workers        number of threads sending the emails
+     * @param batchSize      maximum number of emails sent over a single SMTP connection
+     * @param maxAttempts    number of attempts after which a failing email is dropped
+     * @param initialBackoff delay before the first retry, doubled with every further attempt
+     * @param maxBackoff     upper bound of the delay between retries
+     */
+    record Queue(@DefaultValue("10000") int capacity,
+                 @DefaultValue("0s") Duration offerTimeout,
+                 @DefaultValue("2") int workers,
+                 @DefaultValue("50") int batchSize,
+                 @DefaultValue("5") int maxAttempts,
+                 @DefaultValue("1s") Duration initialBackoff,
+                 @DefaultValue("1m") Duration maxBackoff) {
+
+    }
+
 }
@@ -0,0 +1,310 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.api.MailGivenUpException;
+import com.capgemini.wsb.fitnesstracker.mail.api.MailQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EmailSender} that never talks to the SMTP server on the caller's thread.
+ * <p>
+ * Emails are put into a bounded queue drained by a small pool of workers. Each worker takes up to
+ * {@link MailProperties.Queue#batchSize()} emails at once and sends them over a single SMTP connection.
+ * Emails that failed are retried with exponential backoff and dropped after {@link MailProperties.Queue#maxAttempts()}.
+ * The future returned for every email completes once the SMTP server accepted it, or exceptionally once it is dropped,
+ * with {@link MailGivenUpException} if it cannot be converted to a MIME message or failed all its attempts.
+ * When the queue is full, {@link #send(EmailDto)} waits at most {@link MailProperties.Queue#offerTimeout()} and then
+ * rejects the email, while {@link #sendAll(List)} blocks until all emails are accepted, slowing bulk producers down.
+ * <p>
+ * On shutdown the workers keep sending until the queue is empty, at most for {@link #SHUTDOWN_TIMEOUT}. Emails waiting
+ * for a retry get their last attempt right away instead of after their backoff. Emails still unsent when the timeout
+ * elapses are logged and counted as failed.
+ */
+@Component
+@Slf4j
+class QueuedEmailSender implements EmailSender {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final JavaMailSender javaMailSender;
+    private final MailProperties properties;
+    private final BlockingQueue<PendingEmail> queue;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+    private final Counter shutdownCounter;
+    private final Set<PendingEmail> retries = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    QueuedEmailSender(JavaMailSender javaMailSender, MailProperties properties, MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueue().capacity());
+        this.workers = Executors.newFixedThreadPool(properties.getQueue().workers(), new CustomizableThreadFactory("mail-sender-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-retry-"));
+        meterRegistry.gaugeCollectionSize("mail.queue.size", List.of(), queue);
+        this.sendTimer = Timer.builder("mail.send")
+                .description("Duration of sending a batch of emails over one SMTP connection")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.sent")
+                .description("Emails accepted by the SMTP server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.retried")
+                .description("Failed emails scheduled for another attempt")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("mail.failed")
+                .description("Emails that were not sent")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("mail.failed")
+                .description("Emails that were not sent")
+                .tag("reason", "attempts-exhausted")
+                .register(meterRegistry);
+        this.shutdownCounter = Counter.builder("mail.failed")
+                .description("Emails that were not sent")
+                .tag("reason", "shutdown")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < properties.getQueue().workers(); i++) {
+            workers.execute(this::drainQueue);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (PendingEmail retry : retries) {
+            if (retries.remove(retry) && !queue.offer(retry)) {
+                log.error("Email to {} dropped on shutdown, the queue is full", retry.email().toAddress());
+                retry.fail(new MailSendException("Email was not sent before shutdown"));
+                shutdownCounter.increment();
+            }
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+            workers.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        List<PendingEmail> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        if (!unsent.isEmpty()) {
+            log.error("{} emails were not sent before shutdown", unsent.size());
+            unsent.forEach(pending -> pending.fail(new MailSendException("Email was not sent before shutdown")));
+            shutdownCounter.increment(unsent.size());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> send(EmailDto email) {
+        try {
+            Duration timeout = properties.getQueue().offerTimeout();
+            PendingEmail pending = new PendingEmail(email, 1, new CompletableFuture<>());
+            if (!queue.offer(pending, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new MailQueueFullException("Email to %s rejected, %d emails are already waiting to be sent"
+                                                         .formatted(email.toAddress(), queue.size()));
+            }
+            return pending.result();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailQueueFullException("Interrupted while queueing email to %s".formatted(email.toAddress()));
+        }
+    }
+
+    @Override
+    public List<CompletableFuture<Void>> sendAll(List<EmailDto> emails) {
+        try {
+            List<CompletableFuture<Void>> results = new ArrayList<>(emails.size());
+            for (EmailDto email : emails) {
+                PendingEmail pending = new PendingEmail(email, 1, new CompletableFuture<>());
+                queue.put(pending);
+                results.add(pending.result());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailQueueFullException("Interrupted while queueing %d emails".formatted(emails.size()));
+        }
+    }
+
+    private void drainQueue() {
+        List<PendingEmail> batch = new ArrayList<>(properties.getQueue().batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEmail first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getQueue().batchSize() - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure while sending emails", e);
+                batch.forEach(pending -> pending.fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingEmail> batch) {
+        Map<MimeMessage, PendingEmail> messages = new IdentityHashMap<>(batch.size());
+        for (PendingEmail pending : batch) {
+            try {
+                messages.put(toMimeMessage(pending.email()), pending);
+            } catch (MessagingException e) {
+                log.error("Email to {} dropped, it cannot be converted to a MIME message", pending.email().toAddress(), e);
+                pending.fail(new MailGivenUpException("Email cannot be converted to a MIME message", e));
+                droppedCounter.increment();
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            sentCounter.increment(messages.size());
+            messages.values().forEach(PendingEmail::succeed);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            sentCounter.increment(messages.size() - failedMessages.size());
+            messages.forEach((message, pending) -> {
+                if (!failedMessages.containsKey(message)) {
+                    pending.succeed();
+                }
+            });
+            failedMessages.forEach((message, cause) -> retryLater(messages.get(message), cause));
+        } catch (MailException e) {
+            messages.values().forEach(pending -> retryLater(pending, e));
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailDto email) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(properties.getFrom());
+        helper.setTo(email.toAddress());
+        helper.setSubject(email.subject());
+        helper.setText(email.content());
+        return message;
+    }
+
+    private void retryLater(PendingEmail pending, Exception cause) {
+        if (pending == null) {
+            return;
+        }
+        if (!running) {
+            log.error("Email to {} dropped on shutdown after {} attempts", pending.email().toAddress(), pending.attempt(), cause);
+            pending.fail(new MailSendException("Email was not sent before shutdown", cause));
+            shutdownCounter.increment();
+            return;
+        }
+        if (pending.attempt() >= properties.getQueue().maxAttempts()) {
+            log.error("Email to {} dropped after {} attempts", pending.email().toAddress(), pending.attempt(), cause);
+            pending.fail(new MailGivenUpException("Email dropped after %d attempts".formatted(pending.attempt()), cause));
+            droppedCounter.increment();
+            return;
+        }
+        Duration backoff = backoff(pending.attempt());
+        log.warn("Email to {} failed on attempt {}, retrying in {}", pending.email().toAddress(), pending.attempt(), backoff);
+        retriedCounter.increment();
+        PendingEmail retry = new PendingEmail(pending.email(), pending.attempt() + 1, pending.result());
+        retries.add(retry);
+        retryScheduler.schedule(() -> {
+            if (retries.remove(retry) && !queue.offer(retry)) {
+                log.error("Email to {} dropped, the queue is full", retry.email().toAddress());
+                retry.fail(new MailQueueFullException("Email dropped before its retry, the queue is full"));
+                rejectedCounter.increment();
+            }
+        }, backoff.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Duration backoff(int attempt) {
+        Duration backoff = properties.getQueue().initialBackoff().multipliedBy(1L << Math.min(attempt - 1, 30));
+        return backoff.compareTo(properties.getQueue().maxBackoff()) > 0 ? properties.getQueue().maxBackoff() : backoff;
+    }
+
+    /**
+     * Email with the number of its next attempt and the future completed with its outcome, shared by all attempts.
+     * Compared by identity, so that equal emails waiting for a retry at the same time are tracked separately.
+     */
+    private static final class PendingEmail {
+
+        private final EmailDto email;
+        private final int attempt;
+        private final CompletableFuture<Void> result;
+
+        private PendingEmail(EmailDto email, int attempt, CompletableFuture<Void> result) {
+            this.email = email;
+            this.attempt = attempt;
+            this.result = result;
+        }
+
+        EmailDto email() {
+            return email;
+        }
+
+        int attempt() {
+            return attempt;
+        }
+
+        CompletableFuture<Void> result() {
+            return result;
+        }
+
+        void succeed() {
+            result.complete(null);
+        }
+
+        void fail(Exception cause) {
+            result.completeExceptionally(cause);
+        }
+
+    }
+
+}
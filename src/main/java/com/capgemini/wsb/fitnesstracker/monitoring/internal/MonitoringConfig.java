@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+
+/**
+ * Metrics added on top of the ones Spring Boot records by itself ({@code http.server.requests},
+ * {@code spring.data.repository.invocations}, {@code hikaricp.*} and, with statistics enabled, {@code hibernate.*}).
+ */
+@Configuration
+class MonitoringConfig {
+
+    private static final String SERVICE_INVOCATIONS = "service.invocations";
+
+    /**
+     * Records {@code @Timed} classes and methods, i.e. the {@code service.invocations} timers of the services.
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Adds an {@code outcome} tag, {@code SUCCESS} or {@code ERROR}, to the {@code service.invocations} timers, derived
+     * from the {@code exception} tag {@link TimedAspect} sets to {@code none} when the method returned normally.
+     */
+    @Bean
+    MeterFilter serviceOutcomeFilter() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!SERVICE_INVOCATIONS.equals(id.getName()) || id.getTag("outcome") != null) {
+                    return id;
+                }
+                String outcome = TimedAspect.DEFAULT_EXCEPTION_TAG_VALUE.equals(id.getTag(TimedAspect.EXCEPTION_TAG)) ? "SUCCESS" : "ERROR";
+                return id.withTag(Tag.of("outcome", outcome));
+            }
+        };
+    }
+
+    /**
+     * Traces the calls of the service methods, see {@link ServiceTracingInterceptor}. The auto-proxy creator looks the
+     * advisors up while the post-processors are still being created, so the advisor is an infrastructure bean of a
+     * static method and binds its properties itself instead of depending on other beans.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(prefix = "monitoring.tracing", name = "enabled", havingValue = "true")
+    static Advisor serviceTracingAdvisor(Environment environment) {
+        TracingProperties properties = Binder.get(environment).bindOrCreate("monitoring.tracing", TracingProperties.class);
+        return new DefaultPointcutAdvisor(ServiceTracingInterceptor.SERVICE_METHODS, new ServiceTracingInterceptor(properties));
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCountingCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+}
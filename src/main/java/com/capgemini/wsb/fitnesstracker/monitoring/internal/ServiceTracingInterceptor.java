@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the calls of the public methods of {@code @Service} beans as {@code returnType Class.method(ParamType name, ...)}.
+ * <p>
+ * Only a sample of the calls is traced (see {@link TracingProperties}); the others pay for a logger level check and one
+ * random number, on top of the proxy itself. This is a plain {@link MethodInterceptor} rather than an AspectJ-style
+ * aspect, which would also create a join point and invoke the advice reflectively on every call. The signature of each
+ * method is built once and cached, and in {@link TracingProperties.Mode#TIMING} mode neither the arguments nor the
+ * result are turned into strings. The log writes go through an asynchronous appender, see {@code logback-spring.xml}.
+ */
+@Slf4j
+class ServiceTracingInterceptor implements MethodInterceptor {
+
+    /**
+     * Public methods declared by classes annotated with {@code @Service}.
+     */
+    static final Pointcut SERVICE_METHODS = new StaticMethodMatcherPointcut() {
+        {
+            setClassFilter(new AnnotationClassFilter(Service.class));
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass().isAnnotationPresent(Service.class);
+        }
+    };
+
+    private final double sampleRate;
+    private final boolean full;
+    private final Map<Method, String> signatures = new ConcurrentHashMap<>();
+
+    ServiceTracingInterceptor(TracingProperties properties) {
+        this.sampleRate = properties.getSampleRate();
+        this.full = properties.getMode() == TracingProperties.Mode.FULL;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!log.isInfoEnabled() || !sampled()) {
+            return invocation.proceed();
+        }
+
+        String signature = signatures.computeIfAbsent(invocation.getMethod(), ServiceTracingInterceptor::describe);
+        if (full) {
+            log.info("Calling {}", signature);
+        }
+        long started = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+            if (full) {
+                log.info("{} returned {} in {} µs", signature, result, micros);
+            } else {
+                log.info("{} took {} µs", signature, micros);
+            }
+            return result;
+        } catch (Throwable e) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+            log.info("{} threw {} in {} µs", signature, e.getClass().getSimpleName(), micros);
+            throw e;
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Builds the {@code returnType Class.method(ParamType name, ...)} description of the method.
+     */
+    static String describe(Method method) {
+        StringJoiner parameters = new StringJoiner(", ", "(", ")");
+        for (Parameter parameter : method.getParameters()) {
+            parameters.add(parameter.getType().getSimpleName() + " " + parameter.getName());
+        }
+        return method.getReturnType().getSimpleName() + " "
+                + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + parameters;
+    }
+
+}
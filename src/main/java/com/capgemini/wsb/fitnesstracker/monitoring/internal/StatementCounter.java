@@ -0,0 +1,37 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements prepared outside such a window, e.g. by scheduled jobs, are not counted.
+ */
+@Component
+class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    void start() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * @return number of statements prepared since {@link #start()}
+     */
+    int stop() {
+        int[] current = count.get();
+        count.remove();
+        return current == null ? 0 : current[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the {@link ServiceTracingInterceptor} logging the calls of the {@code @Service} methods.
+ */
+@ConfigurationProperties(prefix = "monitoring.tracing")
+@Getter
+class TracingProperties {
+
+    /**
+     * Whether the service calls are traced at all; without it the aspect is not even registered.
+     */
+    private final boolean enabled;
+
+    /**
+     * Share of the calls that are traced, from {@code 0} (none) to {@code 1} (all).
+     */
+    private final double sampleRate;
+
+    /**
+     * What is logged for a traced call.
+     */
+    private final Mode mode;
+
+    TracingProperties(@DefaultValue("false") boolean enabled,
+                      @DefaultValue("0.01") double sampleRate,
+                      @DefaultValue("FULL") Mode mode) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("monitoring.tracing.sample-rate must be between 0 and 1, was " + sampleRate);
+        }
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.mode = mode;
+    }
+
+    enum Mode {
+
+        /**
+         * Logs the method before the call and the method with its result ({@code toString()}) after it.
+         */
+        FULL,
+
+        /**
+         * Logs only the method and how long the call took, without touching the arguments or the result.
+         */
+        TIMING
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends a welcome email to every new user. The emails are handed to the {@link EmailSender} queue, and a notification
+ * is reported as delivered only once the mail server accepted its email; emails given up by the sender, or not sent
+ * before the claim of the batch expires, are retried by the dispatcher. A full queue fails the whole batch.
+ */
+@Component
+@RequiredArgsConstructor
+class EmailNotificationChannel implements NotificationChannel {
+
+    private final EmailSender emailSender;
+
+    @Override
+    public String getName() {
+        return "email";
+    }
+
+    @Override
+    public Set<NotificationType> getTypes() {
+        return Set.of(NotificationType.USER_CREATED);
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<Notification> notifications, Instant deadline) throws InterruptedException {
+        List<CompletableFuture<Void>> results = emailSender.sendAll(notifications.stream()
+                                                                            .map(notification -> welcomeEmail(notification.payload(UserCreatedEvent.class)))
+                                                                            .toList());
+        Map<Long, String> failures = new HashMap<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            try {
+                long remainingMillis = Math.max(0, Duration.between(Instant.now(), deadline).toMillis());
+                results.get(i).get(remainingMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                failures.put(notifications.get(i).id(), e.getCause().toString());
+            } catch (TimeoutException e) {
+                failures.put(notifications.get(i).id(), "Email was not sent before " + deadline);
+            }
+        }
+        return failures;
+    }
+
+    private static EmailDto welcomeEmail(UserCreatedEvent user) {
+        return new EmailDto(user.email(), "Welcome to Fitness Tracker", """
+                Hello %s,
+
+                welcome to Fitness Tracker! Record your trainings to follow your progress, earn achievements
+                and compare yourself with others on the leaderboards.
+                """.formatted(user.firstName()));
+    }
+
+}
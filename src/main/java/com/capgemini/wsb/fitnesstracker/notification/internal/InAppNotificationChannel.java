@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adds the notifications to the users' in-app feed, see {@link UserNotification}. Inserting is idempotent, so
+ * a notification delivered twice appears in the feed once; notifications of users deleted meanwhile are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+class InAppNotificationChannel implements NotificationChannel {
+
+    private static final String INSERT = """
+            insert into user_notifications (user_id, outbox_id, message, created_at)
+            select ?, ?, ?, ?
+            where not exists (select 1 from user_notifications where outbox_id = ?)
+              and exists (select 1 from users where id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String getName() {
+        return "in-app";
+    }
+
+    @Override
+    public Set<NotificationType> getTypes() {
+        return EnumSet.allOf(NotificationType.class);
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<Notification> notifications, Instant deadline) {
+        jdbcTemplate.batchUpdate(INSERT, notifications.stream()
+                .map(notification -> new Object[]{notification.userId(),
+                                                  notification.id(),
+                                                  message(notification),
+                                                  notification.createdAt().atOffset(ZoneOffset.UTC),
+                                                  notification.id(),
+                                                  notification.userId()})
+                .toList());
+        return Map.of();
+    }
+
+    private static String message(Notification notification) {
+        return switch (notification.type()) {
+            case USER_CREATED -> "Welcome to Fitness Tracker, %s!".formatted(notification.payload(UserCreatedEvent.class).firstName());
+            case TRAINING_CREATED -> "New %s training saved".formatted(describe(notification.payload(TrainingSnapshot.class)));
+            case TRAININGS_IMPORTED -> "%s trainings imported".formatted(notification.payload(TrainingsImported.class).trainings());
+            case TRAINING_UPDATED -> "Your %s training was updated".formatted(describe(notification.payload(TrainingSnapshot.class)));
+        };
+    }
+
+    private static String describe(TrainingSnapshot training) {
+        return String.format(Locale.ROOT, "%.2f km %s", training.distance(), training.activityType().name().toLowerCase(Locale.ROOT));
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.time.Instant;
+
+/**
+ * Outbox row claimed for delivery to a single {@link NotificationChannel}.
+ *
+ * @param id        ID of the outbox row, the same for every delivery attempt of the notification
+ * @param type      kind of the notification
+ * @param userId    ID of the user to notify
+ * @param payload   payload of the type given by {@link NotificationType#getPayloadType()}
+ * @param createdAt time the event was stored in the outbox
+ * @param attempt   number of this delivery attempt, starting from 1
+ */
+record Notification(Long id, NotificationType type, Long userId, Object payload, Instant createdAt, int attempt) {
+
+    <T> T payload(Class<T> payloadType) {
+        return payloadType.cast(payload);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Destination the {@link OutboxDispatcher} delivers notifications to. Every channel has its own rows in the outbox,
+ * its own rate limit and its own retries, so a slow or failing channel never holds the others back.
+ * <p>
+ * Delivery is at least once: a notification may be delivered again if the application stops, or the channel fails
+ * part-way through a batch, before the batch is marked as delivered. A channel reports a notification as delivered only
+ * once its destination accepted it.
+ */
+interface NotificationChannel {
+
+    /**
+     * @return name of the channel, stored with its outbox rows and used to configure it under
+     * {@code notification.outbox.channels}
+     */
+    String getName();
+
+    /**
+     * @return kinds of notifications the channel delivers; no outbox rows are written for the others
+     */
+    Set<NotificationType> getTypes();
+
+    /**
+     * Delivers the batch of notifications.
+     *
+     * @param notifications notifications of the channel's types, oldest first
+     * @param deadline      time the claim of the batch expires; a notification not confirmed by then should be reported
+     *                      as failed, as it may be claimed again
+     * @return reason of the failure of every notification that was not delivered, by its id; these are retried later,
+     * all the others are marked as delivered
+     * @throws RuntimeException     if the batch could not be delivered; all its notifications are retried later
+     * @throws InterruptedException if interrupted while delivering; the batch is delivered again once its claim expires
+     */
+    Map<Long, String> deliver(List<Notification> notifications, Instant deadline) throws InterruptedException;
+
+}
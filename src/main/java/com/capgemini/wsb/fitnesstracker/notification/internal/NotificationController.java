@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/notifications")
+@RequiredArgsConstructor
+class NotificationController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserNotificationRepository userNotificationRepository;
+    private final UserProvider userProvider;
+
+    /**
+     * Retrieves the latest entries of the user's in-app notification feed.
+     *
+     * @param userId ID of the user
+     * @param limit  maximum number of entries, at most 100
+     * @return entries of the feed, newest first
+     * @throws BusinessException if the limit is not positive
+     * @throws NotFoundException if no user with the given ID exists
+     */
+    @GetMapping("/user/{userId}")
+    public List<UserNotificationDto> getNotificationsByUserId(@PathVariable Long userId,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        if (limit <= 0) {
+            throw new BusinessException("Page limit must be positive, got " + limit);
+        }
+        List<UserNotificationDto> notifications =
+                userNotificationRepository.findLatestDtosByUserId(userId, Limit.of(Math.min(limit, MAX_PAGE_SIZE)));
+        if (notifications.isEmpty() && userProvider.getUser(userId).isEmpty()) {
+            throw new NotFoundException("User with ID=%s was not found".formatted(userId));
+        }
+        return notifications;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Kinds of domain events the users are notified about, each stored in the outbox with a JSON payload of its own type.
+ */
+@Getter
+@RequiredArgsConstructor
+enum NotificationType {
+
+    USER_CREATED(UserCreatedEvent.class),
+    TRAINING_CREATED(TrainingSnapshot.class),
+    /**
+     * Several trainings of one user stored by a single batch upload, notified once instead of per training.
+     */
+    TRAININGS_IMPORTED(TrainingsImported.class),
+    TRAINING_UPDATED(TrainingSnapshot.class);
+
+    private final Class<?> payloadType;
+
+}
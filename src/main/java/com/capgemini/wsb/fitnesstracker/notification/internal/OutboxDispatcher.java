@@ -0,0 +1,162 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the notifications from the outbox to the {@link NotificationChannel}s, at least once.
+ * <p>
+ * Each channel is drained by a thread of its own: it claims a batch of up to {@link OutboxProperties.Channel#batchSize()}
+ * due notifications, waits for the channel's rate limit, delivers the batch and marks the notifications the channel
+ * confirmed as delivered, until no due notifications are left; then it looks again after
+ * {@link OutboxProperties#getPollInterval()}. Notifications the channel failed to deliver are retried with exponential
+ * backoff and given up after {@link OutboxProperties#getMaxAttempts()}.
+ * Claims expire after {@link OutboxProperties#getLease()}, so notifications claimed by a dispatcher that stopped are
+ * delivered again, and several application instances can share the outbox.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class OutboxDispatcher {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxProperties properties;
+    private final List<ChannelWorker> workers;
+    private final ScheduledExecutorService executor;
+
+    OutboxDispatcher(OutboxRepository outboxRepository,
+                     OutboxProperties properties,
+                     List<NotificationChannel> channels,
+                     MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.workers = channels.stream().map(channel -> new ChannelWorker(channel, properties.getChannel(channel.getName()), meterRegistry)).toList();
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, channels.size()), new CustomizableThreadFactory("notification-outbox-"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        long pollMillis = properties.getPollInterval().toMillis();
+        workers.forEach(worker -> executor.scheduleWithFixedDelay(() -> drain(worker), 0, pollMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Notification outbox dispatcher did not stop within {}", SHUTDOWN_TIMEOUT);
+        }
+    }
+
+    @Scheduled(cron = "${notification.outbox.cleanup-cron:0 30 3 * * *}")
+    void deleteDelivered() {
+        int deleted = outboxRepository.deleteDelivered(Instant.now().minus(properties.getRetention()));
+        log.info("Deleted {} delivered notifications older than {}", deleted, properties.getRetention());
+    }
+
+    private void drain(ChannelWorker worker) {
+        try {
+            List<Notification> batch;
+            do {
+                Instant now = Instant.now();
+                Instant leaseUntil = now.plus(properties.getLease());
+                batch = outboxRepository.claimDue(worker.channel.getName(), now, leaseUntil, worker.batchSize);
+                if (!batch.isEmpty()) {
+                    worker.rateLimiter.acquire(batch.size());
+                    deliver(worker, batch, leaseUntil);
+                }
+            } while (!batch.isEmpty() && !Thread.currentThread().isInterrupted());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic task; the claimed notifications are delivered after their lease expires
+            log.error("Draining the notification outbox of channel {} failed", worker.channel.getName(), e);
+        }
+    }
+
+    private void deliver(ChannelWorker worker, List<Notification> batch, Instant leaseUntil) throws InterruptedException {
+        Map<Long, String> failures;
+        try {
+            failures = worker.channel.deliver(batch, leaseUntil);
+        } catch (RuntimeException e) {
+            log.warn("Delivery of {} notifications to channel {} failed: {}", batch.size(), worker.channel.getName(), e.toString());
+            batch.forEach(notification -> retryOrGiveUp(worker, notification, e.toString()));
+            return;
+        }
+        List<Notification> delivered = batch.stream().filter(notification -> !failures.containsKey(notification.id())).toList();
+        if (!delivered.isEmpty()) {
+            outboxRepository.markDelivered(delivered);
+            worker.deliveredCounter.increment(delivered.size());
+        }
+        if (!failures.isEmpty()) {
+            log.warn("Delivery of {} of {} notifications to channel {} failed", failures.size(), batch.size(), worker.channel.getName());
+            batch.stream()
+                    .filter(notification -> failures.containsKey(notification.id()))
+                    .forEach(notification -> retryOrGiveUp(worker, notification, failures.get(notification.id())));
+        }
+    }
+
+    private void retryOrGiveUp(ChannelWorker worker, Notification notification, String error) {
+        if (notification.attempt() >= properties.getMaxAttempts()) {
+            log.error("Giving up notification {} to channel {} after {} attempts", notification.id(), worker.channel.getName(), notification.attempt());
+            outboxRepository.markFailed(notification, error);
+            worker.failedCounter.increment();
+        } else {
+            outboxRepository.reschedule(notification, Instant.now().plus(backoff(notification.attempt())), error);
+            worker.retriedCounter.increment();
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempt - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+
+    private static final class ChannelWorker {
+
+        private final NotificationChannel channel;
+        private final int batchSize;
+        private final RateLimiter rateLimiter;
+        private final Counter deliveredCounter;
+        private final Counter retriedCounter;
+        private final Counter failedCounter;
+
+        private ChannelWorker(NotificationChannel channel, OutboxProperties.Channel properties, MeterRegistry meterRegistry) {
+            this.channel = channel;
+            this.batchSize = properties.batchSize();
+            this.rateLimiter = new RateLimiter(properties.ratePerSecond());
+            this.deliveredCounter = Counter.builder("notification.outbox.delivered")
+                    .description("Notifications delivered to the channel")
+                    .tag("channel", channel.getName())
+                    .register(meterRegistry);
+            this.retriedCounter = Counter.builder("notification.outbox.retried")
+                    .description("Failed notifications scheduled for another attempt")
+                    .tag("channel", channel.getName())
+                    .register(meterRegistry);
+            this.failedCounter = Counter.builder("notification.outbox.failed")
+                    .description("Notifications given up after the maximum number of attempts")
+                    .tag("channel", channel.getName())
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
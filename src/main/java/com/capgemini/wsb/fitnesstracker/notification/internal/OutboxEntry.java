@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Notification waiting in the outbox to be delivered to one {@link NotificationChannel}, written in the transaction
+ * that stores the event it notifies about.
+ * <p>
+ * Mapped as an entity for the table only: the rows are read and written by the {@link OutboxRepository} with plain
+ * statements, so writing and dispatching notifications loads no entities.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = @Index(name = "ix_notification_outbox_due",
+                                                      columnList = "channel, status, next_attempt_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "channel", nullable = false, length = 32)
+    private String channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private NotificationType type;
+
+    /**
+     * Not a foreign key: notifications about a deleted user are still dispatched, and skipped by the channels.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private OutboxStatus status;
+
+    /**
+     * Number of delivery attempts started so far.
+     */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /**
+     * Time the row is due for delivery; while an attempt is in progress, the time its claim expires.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    enum OutboxStatus {
+        PENDING,
+        DELIVERED,
+        /**
+         * Given up after the maximum number of attempts.
+         */
+        FAILED
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration of the notification outbox and of the {@link OutboxDispatcher} delivering it to the channels.
+ */
+@ConfigurationProperties(prefix = "notification.outbox")
+@Getter
+class OutboxProperties {
+
+    private static final Channel DEFAULT_CHANNEL = new Channel(100, 50);
+
+    /**
+     * Whether notifications are written to the outbox and dispatched at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Delay between the end of draining a channel and the next look for due notifications.
+     */
+    private final Duration pollInterval;
+
+    /**
+     * How long claimed notifications stay invisible to other dispatchers; notifications not completed by then
+     * are delivered again.
+     */
+    private final Duration lease;
+
+    /**
+     * Number of attempts after which a failing notification is given up.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Delay before the first retry, doubled with every further attempt.
+     */
+    private final Duration initialBackoff;
+
+    /**
+     * Upper bound of the delay between retries.
+     */
+    private final Duration maxBackoff;
+
+    /**
+     * How long delivered notifications are kept before they are deleted.
+     */
+    private final Duration retention;
+
+    /**
+     * Configuration of the channels by their name; channels not listed use 100 notifications per batch
+     * and 50 notifications per second.
+     */
+    private final Map<String, Channel> channels;
+
+    OutboxProperties(@DefaultValue("true") boolean enabled,
+                     @DefaultValue("1s") Duration pollInterval,
+                     @DefaultValue("1m") Duration lease,
+                     @DefaultValue("10") int maxAttempts,
+                     @DefaultValue("1s") Duration initialBackoff,
+                     @DefaultValue("10m") Duration maxBackoff,
+                     @DefaultValue("7d") Duration retention,
+                     @DefaultValue Map<String, Channel> channels) {
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.channels = channels;
+    }
+
+    Channel getChannel(String name) {
+        return channels.getOrDefault(name, DEFAULT_CHANNEL);
+    }
+
+    /**
+     * @param batchSize     maximum number of notifications claimed and delivered together
+     * @param ratePerSecond maximum average number of notifications delivered per second
+     */
+    record Channel(@DefaultValue("100") int batchSize,
+                   @DefaultValue("50") double ratePerSecond) {
+
+    }
+
+}
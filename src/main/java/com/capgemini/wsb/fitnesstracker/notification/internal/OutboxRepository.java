@@ -0,0 +1,190 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the {@link OutboxEntry} rows with plain statements: events are appended in a single JDBC batch and
+ * the dispatcher claims and completes its batches without loading entities.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+class OutboxRepository {
+
+    private static final String INSERT = """
+            insert into notification_outbox (channel, type, user_id, payload, created_at, status, attempts, next_attempt_at)
+            values (?, ?, ?, ?, ?, 'PENDING', 0, ?)
+            """;
+
+    private static final String SELECT_DUE = """
+            select id, type, user_id, payload, created_at, attempts
+            from notification_outbox
+            where channel = ? and status = 'PENDING' and next_attempt_at <= ?
+            order by id
+            fetch first ? rows only
+            """;
+
+    private static final String CLAIM = """
+            update notification_outbox
+            set attempts = attempts + 1, next_attempt_at = ?
+            where id = ? and status = 'PENDING' and attempts = ?
+            """;
+
+    private static final String MARK_DELIVERED = """
+            update notification_outbox set status = 'DELIVERED', last_error = null where id = ?
+            """;
+
+    private static final String RESCHEDULE = """
+            update notification_outbox set next_attempt_at = ?, last_error = ? where id = ?
+            """;
+
+    private static final String MARK_FAILED = """
+            update notification_outbox set status = 'FAILED', last_error = ? where id = ?
+            """;
+
+    private static final String DELETE_DELIVERED = """
+            delete from notification_outbox where status = 'DELIVERED' and created_at < ?
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Appends the notifications to the outbox, one row per channel, in the current transaction.
+     *
+     * @param notifications notifications about the events stored by the transaction
+     * @param createdAt     time the events were stored
+     */
+    void append(List<NewNotification> notifications, Instant createdAt) {
+        OffsetDateTime now = createdAt.atOffset(ZoneOffset.UTC);
+        List<Object[]> rows = new ArrayList<>();
+        for (NewNotification notification : notifications) {
+            String payload = toJson(notification.payload());
+            for (String channel : notification.channels()) {
+                rows.add(new Object[]{channel, notification.type().name(), notification.userId(), payload, now, now});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+
+    /**
+     * Claims the oldest notifications of the channel that are due, so that no other dispatcher picks them up until
+     * {@code leaseUntil}. If the claimer stops before completing them, they become due again once the lease expires.
+     * Rows whose payload cannot be read are marked as failed instead of being returned.
+     *
+     * @param channel    name of the channel
+     * @param now        current time
+     * @param leaseUntil time the claim expires
+     * @param limit      maximum number of notifications to claim
+     * @return claimed notifications, oldest first, with their attempt counted
+     */
+    List<Notification> claimDue(String channel, Instant now, Instant leaseUntil, int limit) {
+        List<OutboxRow> due = jdbcTemplate.query(SELECT_DUE, OutboxRepository::toRow, channel, now.atOffset(ZoneOffset.UTC), limit);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        OffsetDateTime lease = leaseUntil.atOffset(ZoneOffset.UTC);
+        int[] claimed = jdbcTemplate.batchUpdate(CLAIM, due.stream()
+                .map(row -> new Object[]{lease, row.id(), row.attempts()})
+                .toList());
+        List<Notification> notifications = new ArrayList<>(due.size());
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] > 0) {
+                toNotification(due.get(i)).ifPresent(notifications::add);
+            }
+        }
+        return notifications;
+    }
+
+    void markDelivered(List<Notification> notifications) {
+        jdbcTemplate.batchUpdate(MARK_DELIVERED, notifications.stream().map(notification -> new Object[]{notification.id()}).toList());
+    }
+
+    void reschedule(Notification notification, Instant nextAttemptAt, String error) {
+        jdbcTemplate.update(RESCHEDULE, nextAttemptAt.atOffset(ZoneOffset.UTC), truncate(error), notification.id());
+    }
+
+    void markFailed(Notification notification, String error) {
+        jdbcTemplate.update(MARK_FAILED, truncate(error), notification.id());
+    }
+
+    /**
+     * @param before exclusive upper bound of the time the notifications were created
+     * @return number of deleted rows
+     */
+    int deleteDelivered(Instant before) {
+        return jdbcTemplate.update(DELETE_DELIVERED, before.atOffset(ZoneOffset.UTC));
+    }
+
+    private Optional<Notification> toNotification(OutboxRow row) {
+        try {
+            NotificationType type = NotificationType.valueOf(row.type());
+            return Optional.of(new Notification(row.id(),
+                                                type,
+                                                row.userId(),
+                                                objectMapper.readValue(row.payload(), type.getPayloadType()),
+                                                row.createdAt(),
+                                                row.attempts() + 1));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.error("Outbox row {} of type {} cannot be read, giving it up", row.id(), row.type(), e);
+            jdbcTemplate.update(MARK_FAILED, truncate(e.toString()), row.id());
+            return Optional.empty();
+        }
+    }
+
+    private static OutboxRow toRow(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxRow(rs.getLong("id"),
+                             rs.getString("type"),
+                             rs.getLong("user_id"),
+                             rs.getString("payload"),
+                             rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+                             rs.getInt("attempts"));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the notification payload " + payload, e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Notification about an event, not yet in the outbox.
+     *
+     * @param type     kind of the notification
+     * @param userId   ID of the user to notify
+     * @param payload  payload of the type given by {@link NotificationType#getPayloadType()}
+     * @param channels names of the channels it is delivered to
+     */
+    record NewNotification(NotificationType type, Long userId, Object payload, List<String> channels) {
+
+    }
+
+    private record OutboxRow(Long id, String type, Long userId, String payload, Instant createdAt, int attempts) {
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.notification.internal.OutboxRepository.NewNotification;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersCreatedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a notification about every domain event to the outbox, inside the transaction that stores the event's data,
+ * so a notification is never lost for a committed change nor sent for a rolled back one. The write path only pays for
+ * the inserts; the channels are called later by the {@link OutboxDispatcher}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final Map<NotificationType, List<String>> channelsByType = new EnumMap<>(NotificationType.class);
+
+    OutboxWriter(OutboxRepository outboxRepository, List<NotificationChannel> channels) {
+        this.outboxRepository = outboxRepository;
+        for (NotificationType type : NotificationType.values()) {
+            channelsByType.put(type, channels.stream()
+                    .filter(channel -> channel.getTypes().contains(type))
+                    .map(NotificationChannel::getName)
+                    .toList());
+        }
+    }
+
+    @EventListener
+    @Transactional
+    void onUserCreated(UserCreatedEvent event) {
+        append(List.of(notification(NotificationType.USER_CREATED, event.userId(), event)));
+    }
+
+    @EventListener
+    @Transactional
+    void onUsersCreated(UsersCreatedEvent event) {
+        append(event.users().stream()
+                       .map(user -> notification(NotificationType.USER_CREATED, user.userId(), user))
+                       .toList());
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingCreated(TrainingCreatedEvent event) {
+        TrainingSnapshot training = event.training();
+        append(List.of(notification(NotificationType.TRAINING_CREATED, training.userId(), training)));
+    }
+
+    /**
+     * Notifies each user once about all their trainings in the batch, rather than once per training.
+     *
+     * @param event event carrying the created trainings
+     */
+    @EventListener
+    @Transactional
+    void onTrainingsCreated(TrainingsCreatedEvent event) {
+        Map<Long, List<TrainingSnapshot>> trainingsByUser = event.trainings().stream()
+                .collect(Collectors.groupingBy(TrainingSnapshot::userId, LinkedHashMap::new, Collectors.toList()));
+        List<NewNotification> notifications = new ArrayList<>(trainingsByUser.size());
+        trainingsByUser.forEach((userId, trainings) -> {
+            if (trainings.size() == 1) {
+                notifications.add(notification(NotificationType.TRAINING_CREATED, userId, trainings.get(0)));
+            } else {
+                Instant latestEndTime = trainings.stream().map(TrainingSnapshot::endTime).max(Comparator.naturalOrder()).orElseThrow();
+                notifications.add(notification(NotificationType.TRAININGS_IMPORTED, userId,
+                                               new TrainingsImported(trainings.size(), latestEndTime)));
+            }
+        });
+        append(notifications);
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingUpdated(TrainingUpdatedEvent event) {
+        TrainingSnapshot training = event.current();
+        append(List.of(notification(NotificationType.TRAINING_UPDATED, training.userId(), training)));
+    }
+
+    private NewNotification notification(NotificationType type, Long userId, Object payload) {
+        return new NewNotification(type, userId, payload, channelsByType.get(type));
+    }
+
+    private void append(List<NewNotification> notifications) {
+        outboxRepository.append(notifications, Instant.now());
+    }
+
+}
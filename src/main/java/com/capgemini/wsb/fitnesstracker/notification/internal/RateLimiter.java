@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled at a constant rate and holding at most one second of permits, so a channel idle for a while
+ * may take a burst of that size and is then held at its average rate.
+ * <p>
+ * Permits are taken before waiting for them: a request for more permits than available succeeds at once and makes the
+ * following requests wait until the debt is paid off, which lets a whole batch be taken with a single call.
+ */
+class RateLimiter {
+
+    private final double permitsPerNano;
+    private final double maxPermits;
+    private double availablePermits;
+    private long refilledAt;
+
+    RateLimiter(double permitsPerSecond) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.availablePermits = maxPermits;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes the permits, waiting until the permits taken before are paid off.
+     *
+     * @param permits number of permits to take
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void acquire(int permits) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(reserve(permits));
+    }
+
+    private synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        availablePermits = Math.min(maxPermits, availablePermits + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        long waitNanos = availablePermits >= 0 ? 0 : (long) (-availablePermits / permitsPerNano);
+        availablePermits -= permits;
+        return waitNanos;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.time.Instant;
+
+/**
+ * Payload of {@link NotificationType#TRAININGS_IMPORTED}.
+ *
+ * @param trainings     number of the user's trainings stored by the batch
+ * @param latestEndTime end time of the latest of them
+ */
+record TrainingsImported(int trainings, Instant latestEndTime) {
+
+}
@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Entry of a user's in-app notification feed, delivered by the {@link InAppNotificationChannel}.
+ */
+@Entity
+@Table(name = "user_notifications",
+       uniqueConstraints = @UniqueConstraint(name = "ux_user_notifications_outbox", columnNames = "outbox_id"),
+       indexes = @Index(name = "ix_user_notifications_user_created", columnList = "user_id, created_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class UserNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    /**
+     * ID of the outbox row the entry was delivered from, so that delivering it again adds no second entry.
+     */
+    @Column(name = "outbox_id", nullable = false)
+    private Long outboxId;
+
+    @Column(name = "message", nullable = false, length = 500)
+    private String message;
+
+    /**
+     * Time the event the user is notified about was stored.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
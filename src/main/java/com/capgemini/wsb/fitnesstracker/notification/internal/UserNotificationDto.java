@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.time.Instant;
+
+/**
+ * Read model of a {@link UserNotification}.
+ *
+ * @param message   text of the notification
+ * @param createdAt time the event the user is notified about was stored
+ */
+record UserNotificationDto(String message, Instant createdAt) {
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+interface UserNotificationRepository extends JpaRepository<UserNotification, Long> {
+
+    /**
+     * Query returning the latest entries of a user's notification feed.
+     *
+     * @param userId ID of the user
+     * @param limit  maximum number of entries
+     * @return entries of the feed, newest first
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.notification.internal.UserNotificationDto(n.message, n.createdAt)
+            from UserNotification n
+            where n.user.id = :userId
+            order by n.createdAt desc, n.id desc
+            """)
+    List<UserNotificationDto> findLatestDtosByUserId(@Param("userId") Long userId, Limit limit);
+
+}
@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Trainings of a single user within the reported week, aggregated from the adjacent {@link WeeklyTrainingRow}s of that user.
+ */
+@Getter
+final class UserWeek {
+
+    private final Long userId;
+    private final String email;
+    private final String firstName;
+    private final Map<ActivityType, ActivityTotals> activities = new EnumMap<>(ActivityType.class);
+    private int trainings;
+    private double distance;
+    private long durationMillis;
+
+    UserWeek(WeeklyTrainingRow row) {
+        this.userId = row.userId();
+        this.email = row.email();
+        this.firstName = row.firstName();
+    }
+
+    void add(WeeklyTrainingRow row) {
+        if (row.activityType() == null) {
+            return;
+        }
+        double rowDistance = row.distance() == null ? 0 : row.distance();
+        trainings++;
+        distance += rowDistance;
+        if (row.startTime() != null && row.endTime() != null) {
+            durationMillis += Math.max(0, Duration.between(row.startTime(), row.endTime()).toMillis());
+        }
+        activities.computeIfAbsent(row.activityType(), activityType -> new ActivityTotals()).add(rowDistance);
+    }
+
+    @Getter
+    static final class ActivityTotals {
+
+        private int trainings;
+        private double distance;
+
+        private void add(double distance) {
+            this.trainings++;
+            this.distance += distance;
+        }
+
+    }
+
+}
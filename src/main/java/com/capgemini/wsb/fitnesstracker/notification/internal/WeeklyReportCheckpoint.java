@@ -0,0 +1,62 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Progress of the weekly report run for a single week. Users are reported in ascending ID order,
+ * so the ID of the last reported user is enough to resume an interrupted run.
+ */
+@Entity
+@Table(name = "weekly_report_checkpoints")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class WeeklyReportCheckpoint {
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId;
+
+    @Column(name = "reports_sent", nullable = false)
+    private long reportsSent;
+
+    @Column(name = "reports_given_up", nullable = false)
+    private long reportsGivenUp;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    WeeklyReportCheckpoint(LocalDate weekStart) {
+        this.weekStart = weekStart;
+        this.updatedAt = Instant.now();
+    }
+
+    void advance(long lastUserId, int reportsSent, int reportsGivenUp) {
+        this.lastUserId = lastUserId;
+        this.reportsSent += reportsSent;
+        this.reportsGivenUp += reportsGivenUp;
+        this.updatedAt = Instant.now();
+    }
+
+    void complete() {
+        this.completed = true;
+        this.updatedAt = Instant.now();
+    }
+
+}
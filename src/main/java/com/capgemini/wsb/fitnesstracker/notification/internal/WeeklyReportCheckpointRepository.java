@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+interface WeeklyReportCheckpointRepository extends JpaRepository<WeeklyReportCheckpoint, LocalDate> {
+
+    /**
+     * Query searching runs that were started but never finished, e.g. because the application was stopped.
+     *
+     * @return unfinished checkpoints, oldest week first
+     */
+    List<WeeklyReportCheckpoint> findAllByCompletedFalseOrderByWeekStart();
+
+}
@@ -0,0 +1,233 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.api.MailGivenUpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and sends the weekly training report of every user.
+ * <p>
+ * The users are read in chunks of {@link WeeklyReportProperties#getChunkSize()}, by user ID after the last one of the
+ * previous chunk, each chunk with its week's trainings in a short read-only transaction of its own. Each chunk is
+ * rendered in parallel, handed to the {@link EmailSender} in batches and checkpointed once the sender is done with all
+ * its emails, so an interrupted run resumes after the last sent chunk. An email the sender gave up on, see
+ * {@link MailGivenUpException}, is logged and counted and its user skipped, since sending it again would fail again.
+ * Any other failure ends the run with the checkpoint right before the user whose email failed, so a resumed run sends
+ * that email again, along with the later emails of its chunk that may have been sent already.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.weekly-report", name = "enabled", havingValue = "true")
+@Slf4j
+class WeeklyReportGenerator {
+
+    private final WeeklyReportRepository weeklyReportRepository;
+    private final WeeklyReportCheckpointRepository checkpointRepository;
+    private final WeeklyReportRenderer renderer;
+    private final EmailSender emailSender;
+    private final WeeklyReportProperties properties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate checkpointTransaction;
+    private final ExecutorService renderExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastCheckpointUserId = new AtomicLong();
+    private final Counter usersCounter;
+    private final Counter emailsCounter;
+    private final Counter givenUpCounter;
+    private final Counter chunksCounter;
+    private final Timer runTimer;
+
+    WeeklyReportGenerator(WeeklyReportRepository weeklyReportRepository,
+                          WeeklyReportCheckpointRepository checkpointRepository,
+                          WeeklyReportRenderer renderer,
+                          EmailSender emailSender,
+                          WeeklyReportProperties properties,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.weeklyReportRepository = weeklyReportRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.renderer = renderer;
+        this.emailSender = emailSender;
+        this.properties = properties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.renderExecutor = Executors.newFixedThreadPool(properties.getRenderThreads(),
+                                                           new CustomizableThreadFactory("weekly-report-render-"));
+        this.usersCounter = Counter.builder("weekly.report.users")
+                .description("Users whose weekly report was generated")
+                .register(meterRegistry);
+        this.emailsCounter = Counter.builder("weekly.report.emails.sent")
+                .description("Weekly report emails accepted by the mail server")
+                .register(meterRegistry);
+        this.givenUpCounter = Counter.builder("weekly.report.emails.given.up")
+                .description("Weekly report emails the sender gave up on, whose users were skipped")
+                .register(meterRegistry);
+        this.chunksCounter = Counter.builder("weekly.report.chunks")
+                .description("Checkpointed chunks of the weekly report")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("weekly.report.run")
+                .description("Duration of a weekly report run")
+                .register(meterRegistry);
+        meterRegistry.gauge("weekly.report.checkpoint.user.id", lastCheckpointUserId);
+    }
+
+    /**
+     * Sends the report of the week starting on the given Monday to every user not reported yet.
+     * Does nothing if the week was already completed or another run is in progress.
+     *
+     * @param weekStart first day of the reported week
+     * @return number of reports sent by this run
+     */
+    long generate(LocalDate weekStart) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Weekly report for {} not started, another run is in progress", weekStart);
+            return 0;
+        }
+        try {
+            WeeklyReportCheckpoint checkpoint = checkpointTransaction.execute(status -> checkpointRepository.findById(weekStart)
+                    .orElseGet(() -> checkpointRepository.save(new WeeklyReportCheckpoint(weekStart))));
+            if (checkpoint.isCompleted()) {
+                log.info("Weekly report for {} was already sent", weekStart);
+                return 0;
+            }
+            log.info("Weekly report for {} starting after user {}", weekStart, checkpoint.getLastUserId());
+            long sent = runTimer.record(() -> sendAll(weekStart, checkpoint.getLastUserId()));
+            checkpointTransaction.executeWithoutResult(status -> checkpointRepository.findById(weekStart)
+                    .orElseThrow()
+                    .complete());
+            log.info("Weekly report for {} finished, {} reports sent", weekStart, sent);
+            return sent;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long sendAll(LocalDate weekStart, long afterUserId) {
+        ZoneId zone = properties.getZone();
+        Instant from = weekStart.atStartOfDay(zone).toInstant();
+        Instant to = weekStart.plusWeeks(1).atStartOfDay(zone).toInstant();
+        long sent = 0;
+        long lastUserId = afterUserId;
+        List<UserWeek> chunk;
+        while (!(chunk = readChunk(from, to, lastUserId)).isEmpty()) {
+            sent += sendChunk(weekStart, chunk);
+            lastUserId = chunk.get(chunk.size() - 1).getUserId();
+        }
+        return sent;
+    }
+
+    private List<UserWeek> readChunk(Instant from, Instant to, long afterUserId) {
+        return readTransaction.execute(status -> {
+            List<Long> userIds = weeklyReportRepository.findUserIdsAfter(afterUserId, Limit.of(properties.getChunkSize()));
+            if (userIds.isEmpty()) {
+                return List.of();
+            }
+            List<UserWeek> chunk = new ArrayList<>(userIds.size());
+            UserWeek current = null;
+            for (WeeklyTrainingRow row : weeklyReportRepository.findWeek(from, to, afterUserId, userIds.get(userIds.size() - 1))) {
+                if (current == null || !current.getUserId().equals(row.userId())) {
+                    current = new UserWeek(row);
+                    chunk.add(current);
+                }
+                current.add(row);
+            }
+            return chunk;
+        });
+    }
+
+    private int sendChunk(LocalDate weekStart, List<UserWeek> chunk) {
+        List<EmailDto> emails = render(weekStart, chunk);
+        List<CompletableFuture<Void>> results = new ArrayList<>(emails.size());
+        for (List<EmailDto> batch : partition(emails, properties.getEmailBatchSize())) {
+            results.addAll(emailSender.sendAll(batch));
+        }
+        int sent = 0;
+        int givenUp = 0;
+        long lastUserId = 0;
+        RuntimeException failure = null;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).join();
+                sent++;
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof MailGivenUpException)) {
+                    failure = e;
+                    break;
+                }
+                log.error("Weekly report for {} not sent to user {}, the email was given up",
+                          weekStart, chunk.get(i).getUserId(), e.getCause());
+                givenUp++;
+            }
+            lastUserId = chunk.get(i).getUserId();
+        }
+        if (sent + givenUp > 0) {
+            checkpoint(weekStart, lastUserId, sent, givenUp);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return sent;
+    }
+
+    private void checkpoint(LocalDate weekStart, long lastUserId, int sent, int givenUp) {
+        checkpointTransaction.executeWithoutResult(status -> checkpointRepository.findById(weekStart)
+                .orElseThrow()
+                .advance(lastUserId, sent, givenUp));
+        emailsCounter.increment(sent);
+        givenUpCounter.increment(givenUp);
+        usersCounter.increment(sent + givenUp);
+        chunksCounter.increment();
+        lastCheckpointUserId.set(lastUserId);
+    }
+
+    private List<EmailDto> render(LocalDate weekStart, List<UserWeek> chunk) {
+        int sliceSize = Math.max(1, (chunk.size() + properties.getRenderThreads() - 1) / properties.getRenderThreads());
+        List<CompletableFuture<List<EmailDto>>> slices = partition(chunk, sliceSize).stream()
+                .map(slice -> CompletableFuture.supplyAsync(() -> slice.stream()
+                        .map(week -> renderer.render(week, weekStart))
+                        .toList(), renderExecutor))
+                .toList();
+        return slices.stream()
+                .flatMap(slice -> slice.join().stream())
+                .toList();
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> partitions = new ArrayList<>((items.size() + size - 1) / size);
+        for (int start = 0; start < items.size(); start += size) {
+            partitions.add(items.subList(start, Math.min(start + size, items.size())));
+        }
+        return partitions;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Triggers the weekly report for the previous week and, after a restart, resumes runs that did not finish.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.weekly-report", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+class WeeklyReportJob {
+
+    private final WeeklyReportGenerator generator;
+    private final WeeklyReportCheckpointRepository checkpointRepository;
+    private final WeeklyReportProperties properties;
+    private final TaskScheduler taskScheduler;
+
+    @Scheduled(cron = "${notification.weekly-report.cron:0 0 6 * * MON}", zone = "${notification.weekly-report.zone:UTC}")
+    void sendPreviousWeek() {
+        LocalDate thisWeek = LocalDate.now(properties.getZone()).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        generator.generate(thisWeek.minusWeeks(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumeUnfinished() {
+        taskScheduler.schedule(() -> checkpointRepository.findAllByCompletedFalseOrderByWeekStart()
+                .forEach(checkpoint -> generator.generate(checkpoint.getWeekStart())), Instant.now());
+    }
+
+}
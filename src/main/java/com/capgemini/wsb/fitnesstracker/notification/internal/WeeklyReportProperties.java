@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration of the weekly training report sent by email to every user.
+ */
+@ConfigurationProperties(prefix = "notification.weekly-report")
+@Getter
+class WeeklyReportProperties {
+
+    /**
+     * Whether the weekly report is generated at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Time zone the weeks (Monday to Monday) are computed in.
+     */
+    private final ZoneId zone;
+
+    /**
+     * Number of users aggregated, rendered, sent and checkpointed together.
+     */
+    private final int chunkSize;
+
+    /**
+     * Maximum number of emails handed to the sender at once.
+     */
+    private final int emailBatchSize;
+
+    /**
+     * Number of threads rendering the reports of a chunk in parallel.
+     */
+    private final int renderThreads;
+
+    WeeklyReportProperties(@DefaultValue("false") boolean enabled,
+                           @DefaultValue("UTC") ZoneId zone,
+                           @DefaultValue("1000") int chunkSize,
+                           @DefaultValue("100") int emailBatchSize,
+                           @DefaultValue("4") int renderThreads) {
+        this.enabled = enabled;
+        this.zone = zone;
+        this.chunkSize = chunkSize;
+        this.emailBatchSize = emailBatchSize;
+        this.renderThreads = renderThreads;
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Renders the plain-text weekly report email of a single user. Stateless, so it is safe to call from many threads.
+ */
+@Component
+class WeeklyReportRenderer {
+
+    EmailDto render(UserWeek week, LocalDate weekStart) {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        String subject = "Your training summary for %s - %s".formatted(weekStart, weekEnd);
+        StringBuilder content = new StringBuilder(256)
+                .append("Hi ").append(week.getFirstName()).append(",\n\n");
+        if (week.getTrainings() == 0) {
+            content.append("you did not record any training between %s and %s. Maybe this week?\n".formatted(weekStart, weekEnd));
+            return new EmailDto(week.getEmail(), subject, content.toString());
+        }
+        content.append("between %s and %s you completed %d training(s):\n".formatted(weekStart, weekEnd, week.getTrainings()));
+        week.getActivities().forEach((activityType, totals) -> content.append(String.format(Locale.ROOT,
+                "- %s: %d (%.2f km)\n", activityType.getDisplayName(), totals.getTrainings(), totals.getDistance())));
+        Duration duration = Duration.ofMillis(week.getDurationMillis());
+        content.append(String.format(Locale.ROOT, "\nTotal distance: %.2f km\n", week.getDistance()))
+                .append("Total time: %d h %d min\n".formatted(duration.toHours(), duration.toMinutesPart()))
+                .append("\nKeep it up!\n");
+        return new EmailDto(week.getEmail(), subject, content.toString());
+    }
+
+}
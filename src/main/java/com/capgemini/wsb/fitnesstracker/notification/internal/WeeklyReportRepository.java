@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+interface WeeklyReportRepository extends Repository<User, Long> {
+
+    /**
+     * Keyset query finding the IDs of the next users to report.
+     *
+     * @param afterUserId ID of the last user already reported
+     * @param limit       maximum number of IDs
+     * @return IDs of the users after the given one, in ascending order
+     */
+    @Query("select u.id from User u where u.id > :afterUserId order by u.id")
+    List<Long> findUserIdsAfter(@Param("afterUserId") long afterUserId, Limit limit);
+
+    /**
+     * Finds the users within the given ID range together with their trainings that ended within the week, ordered by
+     * user ID, so all rows of one user are adjacent.
+     *
+     * @param from        inclusive start of the week
+     * @param to          exclusive end of the week
+     * @param afterUserId exclusive lower bound of the user IDs
+     * @param lastUserId  inclusive upper bound of the user IDs
+     * @return rows, one per training, or one per user without trainings
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.notification.internal.WeeklyTrainingRow(
+                u.id, u.email, u.firstName, t.activityType, t.distance, t.startTime, t.endTime)
+            from User u
+            left join Training t on t.user = u and t.endTime >= :from and t.endTime < :to
+            where u.id > :afterUserId and u.id <= :lastUserId
+            order by u.id, t.id
+            """)
+    List<WeeklyTrainingRow> findWeek(@Param("from") Instant from,
+                                     @Param("to") Instant to,
+                                     @Param("afterUserId") long afterUserId,
+                                     @Param("lastUserId") long lastUserId);
+
+}
@@ -0,0 +1,19 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Instant;
+
+/**
+ * One row of the weekly report query: a user joined with one of their trainings of the week.
+ * Users without trainings in the week produce a single row with all training columns set to {@code null}.
+ */
+record WeeklyTrainingRow(Long userId,
+                         String email,
+                         String firstName,
+                         ActivityType activityType,
+                         Double distance,
+                         Instant startTime,
+                         Instant endTime) {
+
+}
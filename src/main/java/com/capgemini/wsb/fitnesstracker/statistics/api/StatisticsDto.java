@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+/**
+ * Read model of the {@link Statistics} of a single user.
+ *
+ * @param userId              ID of the user the statistics belong to
+ * @param totalTrainings      number of trainings performed by the user
+ * @param totalDistance       total distance covered by the user
+ * @param totalCaloriesBurned total number of calories burned by the user
+ */
+public record StatisticsDto(Long userId, int totalTrainings, double totalDistance, int totalCaloriesBurned) {
+
+    /**
+     * Statistics of a user who has not performed any training yet.
+     *
+     * @param userId ID of the user
+     * @return statistics with all totals set to zero
+     */
+    public static StatisticsDto empty(Long userId) {
+        return new StatisticsDto(userId, 0, 0, 0);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimates calories burned during a training from its activity type and duration.
+ * Uses average hourly burn rates of a 70 kg adult; the result is rounded per training, so totals stay exact integers.
+ */
+final class CaloriesCalculator {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private static final Map<ActivityType, Integer> CALORIES_PER_HOUR = new EnumMap<>(Map.of(
+            ActivityType.RUNNING, 686,
+            ActivityType.CYCLING, 525,
+            ActivityType.WALKING, 245,
+            ActivityType.SWIMMING, 560,
+            ActivityType.TENNIS, 511));
+
+    private CaloriesCalculator() {
+    }
+
+    /**
+     * Calculates calories burned during a single training.
+     * Trainings without an end time, or ending before they start, count as zero.
+     *
+     * @param activityType type of the activity
+     * @param startTime    start time of the training
+     * @param endTime      end time of the training
+     * @return estimated number of calories burned
+     */
+    static int caloriesBurned(ActivityType activityType, Instant startTime, Instant endTime) {
+        if (activityType == null || startTime == null || endTime == null || endTime.isBefore(startTime)) {
+            return 0;
+        }
+        double hours = Duration.between(startTime, endTime).toMillis() / MILLIS_PER_HOUR;
+        return (int) Math.round(CALORIES_PER_HOUR.get(activityType) * hours);
+    }
+
+}
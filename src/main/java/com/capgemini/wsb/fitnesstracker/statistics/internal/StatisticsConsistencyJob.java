@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically recalculates every user's statistics from the raw trainings and repairs rows that have drifted.
+ * Disabled unless {@code statistics.consistency-check.cron} is set. Each user is rebuilt in its own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class StatisticsConsistencyJob {
+
+    private static final int USER_PAGE_SIZE = 500;
+
+    private final StatisticsRepository statisticsRepository;
+    private final StatisticsServiceImpl statisticsService;
+
+    @Scheduled(cron = "${statistics.consistency-check.cron:-}")
+    void checkConsistency() {
+        int checked = 0;
+        int rebuilt = 0;
+        long afterId = 0;
+        List<Long> userIds;
+        do {
+            userIds = statisticsRepository.findUserIdPage(afterId, Limit.of(USER_PAGE_SIZE));
+            for (Long userId : userIds) {
+                checked++;
+                if (statisticsService.rebuild(userId)) {
+                    rebuilt++;
+                }
+            }
+            if (!userIds.isEmpty()) {
+                afterId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == USER_PAGE_SIZE);
+        log.info("Statistics consistency check finished: {} users checked, {} rebuilt", checked, rebuilt);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsDto;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/statistics")
+@RequiredArgsConstructor
+class StatisticsController {
+
+    private final StatisticsServiceImpl statisticsService;
+    private final UserProvider userProvider;
+
+    /**
+     * Retrieves the statistics of the given user with a single-row read.
+     * A user who has not performed any training yet gets zeroed statistics.
+     *
+     * @param userId ID of the user
+     * @return statistics of the user
+     * @throws NotFoundException if no user with the given ID exists
+     */
+    @GetMapping("/user/{userId}")
+    public StatisticsDto getStatisticsByUserId(@PathVariable Long userId) {
+        return statisticsService.getStatisticsByUserId(userId)
+                .orElseGet(() -> emptyStatistics(userId));
+    }
+
+    /**
+     * Recalculates the statistics of the given user from the raw trainings.
+     *
+     * @param userId ID of the user
+     * @return statistics of the user after the rebuild
+     * @throws NotFoundException if no user with the given ID exists
+     */
+    @PostMapping("/user/{userId}/rebuild")
+    public StatisticsDto rebuildStatistics(@PathVariable Long userId) {
+        StatisticsDto statistics = emptyStatistics(userId);
+        statisticsService.rebuild(userId);
+        return statisticsService.getStatisticsByUserId(userId).orElse(statistics);
+    }
+
+    private StatisticsDto emptyStatistics(Long userId) {
+        if (userProvider.getUser(userId).isEmpty()) {
+            throw new NotFoundException("User with ID=%s was not found".formatted(userId));
+        }
+        return StatisticsDto.empty(userId);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Instant;
+
+/**
+ * Change of the totals of a single user's statistics, or - when accumulated from scratch - the totals themselves.
+ */
+record StatisticsDelta(int trainings, double distance, int caloriesBurned) {
+
+    static final StatisticsDelta ZERO = new StatisticsDelta(0, 0, 0);
+
+    static StatisticsDelta of(TrainingSnapshot training) {
+        return ofTraining(training.activityType(), training.startTime(), training.endTime(), training.distance());
+    }
+
+    static StatisticsDelta of(TrainingDto training) {
+        return ofTraining(training.activityType(), training.startTime(), training.endTime(), training.distance());
+    }
+
+    private static StatisticsDelta ofTraining(ActivityType activityType, Instant startTime, Instant endTime, double distance) {
+        return new StatisticsDelta(1, distance, CaloriesCalculator.caloriesBurned(activityType, startTime, endTime));
+    }
+
+    StatisticsDelta plus(StatisticsDelta other) {
+        return new StatisticsDelta(trainings + other.trainings, distance + other.distance, caloriesBurned + other.caloriesBurned);
+    }
+
+    StatisticsDelta negate() {
+        return new StatisticsDelta(-trainings, -distance, -caloriesBurned);
+    }
+
+    boolean isZero() {
+        return trainings == 0 && distance == 0 && caloriesBurned == 0;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /**
+     * Query reading the statistics of a user straight from the database, bypassing any stale managed entity.
+     *
+     * @param userId ID of the user
+     * @return {@link Optional} containing the statistics or {@link Optional#empty()} if the user has no statistics row
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsDto(
+                s.user.id, s.totalTrainings, s.totalDistance, s.totalCaloriesBurned)
+            from Statistics s
+            where s.user.id = :userId
+            """)
+    Optional<StatisticsDto> findDtoByUserId(@Param("userId") Long userId);
+
+    /**
+     * Keyset query returning the next page of user IDs, used to walk all users during the consistency check.
+     *
+     * @param afterId ID of the last user of the previous page
+     * @param limit   maximum number of IDs to return
+     * @return next page of user IDs in ascending order
+     */
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findUserIdPage(@Param("afterId") long afterId, Limit limit);
+
+}
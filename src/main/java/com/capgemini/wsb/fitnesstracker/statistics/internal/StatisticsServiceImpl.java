@@ -0,0 +1,199 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsDto;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Keeps one {@link Statistics} row per user up to date by applying deltas whenever a training is created or updated.
+ * The deltas are applied by the training events' listeners, i.e. in the same transaction that stores the training,
+ * so reads never need to aggregate the training history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class StatisticsServiceImpl implements StatisticsProvider {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final double DISTANCE_TOLERANCE = 1e-6;
+
+    private static final String MERGE = """
+            merge into statistics s
+            using (values (cast(? as bigint), cast(? as int), cast(? as double precision), cast(? as int)))
+                  d (user_id, total_trainings, total_distance, total_calories_burned)
+            on s.user_id = d.user_id
+            when matched then update set
+                total_trainings = s.total_trainings + d.total_trainings,
+                total_distance = s.total_distance + d.total_distance,
+                total_calories_burned = s.total_calories_burned + d.total_calories_burned
+            when not matched then insert (user_id, total_trainings, total_distance, total_calories_burned)
+                values (d.user_id, d.total_trainings, d.total_distance, d.total_calories_burned)
+            """;
+
+    private static final String LOCK_TOTALS = """
+            select total_trainings, total_distance, total_calories_burned
+            from statistics
+            where user_id = ?
+            for update
+            """;
+
+    private static final String INSERT_TOTALS = """
+            insert into statistics (user_id, total_trainings, total_distance, total_calories_burned)
+            values (?, ?, ?, ?)
+            """;
+
+    private static final String SET_TOTALS = """
+            update statistics
+            set total_trainings = ?, total_distance = ?, total_calories_burned = ?
+            where user_id = ?
+            """;
+
+    private final StatisticsRepository statisticsRepository;
+    private final TrainingProvider trainingProvider;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Statistics> getStatistics(Long statisticsId) {
+        return statisticsRepository.findById(statisticsId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StatisticsDto> getStatisticsByUserId(Long userId) {
+        return statisticsRepository.findDtoByUserId(userId);
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingCreated(TrainingCreatedEvent event) {
+        addToTotals(event.training().userId(), StatisticsDelta.of(event.training()));
+    }
+
+    /**
+     * Applies the deltas of a whole batch with native statements only, one merge per user, in ascending user ID order so
+     * that concurrent batches lock the rows in the same order. Saving entities instead would make every following
+     * statement dirty-check all rows inserted so far, which is quadratic in large batches.
+     *
+     * @param event event carrying the created trainings
+     */
+    @EventListener
+    @Transactional
+    void onTrainingsCreated(TrainingsCreatedEvent event) {
+        Map<Long, StatisticsDelta> deltasByUser = new TreeMap<>();
+        for (TrainingSnapshot training : event.trainings()) {
+            deltasByUser.merge(training.userId(), StatisticsDelta.of(training), StatisticsDelta::plus);
+        }
+        deltasByUser.forEach(this::addToTotals);
+    }
+
+    /**
+     * Subtracts the previous values of the training and adds the current ones.
+     * If the training was moved to another user, the previous user's row is decreased and the current user's row increased.
+     *
+     * @param event event carrying the training before and after the update
+     */
+    @EventListener
+    @Transactional
+    void onTrainingUpdated(TrainingUpdatedEvent event) {
+        TrainingSnapshot previous = event.previous();
+        TrainingSnapshot current = event.current();
+        if (previous.userId().equals(current.userId())) {
+            addToTotals(current.userId(), StatisticsDelta.of(current).plus(StatisticsDelta.of(previous).negate()));
+        } else {
+            addToTotals(previous.userId(), StatisticsDelta.of(previous).negate());
+            addToTotals(current.userId(), StatisticsDelta.of(current));
+        }
+    }
+
+    /**
+     * Recalculates the user's statistics from the raw trainings and overwrites the stored row if it has drifted.
+     * <p>
+     * The row is locked before the trainings are summed, so a training stored meanwhile either commits first and is
+     * summed, or waits to add its delta on top of the rebuilt totals. A user without a row has nothing to lock; if a
+     * training creates the row while the missing one is being inserted, the rebuild starts over with the row locked.
+     *
+     * @param userId ID of the user whose statistics are to be rebuilt
+     * @return {@code true} if the stored statistics differed from the recalculated ones
+     */
+    @Transactional
+    public boolean rebuild(Long userId) {
+        while (true) {
+            List<StatisticsDelta> stored = jdbcTemplate.query(LOCK_TOTALS, (rs, rowNum) -> new StatisticsDelta(
+                    rs.getInt("total_trainings"), rs.getDouble("total_distance"), rs.getInt("total_calories_burned")), userId);
+            StatisticsDelta actual = sumTrainings(userId);
+            if (stored.isEmpty()) {
+                if (actual.isZero()) {
+                    return false;
+                }
+                try {
+                    jdbcTemplate.update(INSERT_TOTALS, userId, actual.trainings(), actual.distance(), actual.caloriesBurned());
+                    return true;
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+            StatisticsDelta current = stored.get(0);
+            if (current.trainings() == actual.trainings()
+                    && Math.abs(current.distance() - actual.distance()) < DISTANCE_TOLERANCE
+                    && current.caloriesBurned() == actual.caloriesBurned()) {
+                return false;
+            }
+            log.warn("Statistics of user {} are {} but the trainings add up to {}, rebuilding", userId, current, actual);
+            jdbcTemplate.update(SET_TOTALS, actual.trainings(), actual.distance(), actual.caloriesBurned(), userId);
+            return true;
+        }
+    }
+
+    private StatisticsDelta sumTrainings(Long userId) {
+        StatisticsDelta total = StatisticsDelta.ZERO;
+        long afterId = 0;
+        List<TrainingDto> page;
+        do {
+            page = trainingProvider.getTrainingsByUserId(userId, afterId, REBUILD_PAGE_SIZE);
+            for (TrainingDto training : page) {
+                total = total.plus(StatisticsDelta.of(training));
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        return total;
+    }
+
+    /**
+     * Adds the delta to the user's totals, creating the row if the user has none, with a single merge. If another
+     * transaction is inserting the row of the same user, H2 makes the merge wait for it and then fails on the unique
+     * user index instead of updating the row, so the merge is run once more, now updating the committed row. It goes
+     * through {@link JdbcTemplate} because a failed repository call would mark the whole transaction as rollback-only.
+     */
+    private void addToTotals(Long userId, StatisticsDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        Object[] args = {userId, delta.trainings(), delta.distance(), delta.caloriesBurned()};
+        try {
+            jdbcTemplate.update(MERGE, args);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(MERGE, args);
+        }
+    }
+
+}
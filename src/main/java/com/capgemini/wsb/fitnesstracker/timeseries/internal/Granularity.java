@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the buckets the trainings are rolled up into.
+ */
+enum Granularity {
+
+    DAY(ChronoUnit.DAYS) {
+        @Override
+        LocalDate bucketStart(LocalDate day) {
+            return day;
+        }
+    },
+    /**
+     * Monday to Monday.
+     */
+    WEEK(ChronoUnit.WEEKS) {
+        @Override
+        LocalDate bucketStart(LocalDate day) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    },
+    MONTH(ChronoUnit.MONTHS) {
+        @Override
+        LocalDate bucketStart(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+    };
+
+    private final ChronoUnit unit;
+
+    Granularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @param day any day
+     * @return first day of the bucket the day belongs to
+     */
+    abstract LocalDate bucketStart(LocalDate day);
+
+    /**
+     * @param from inclusive first day
+     * @param to   exclusive last day
+     * @return number of buckets overlapping the range
+     */
+    long bucketsBetween(LocalDate from, LocalDate to) {
+        return unit.between(bucketStart(from), to.minusDays(1)) + 1;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+import java.time.Duration;
+
+/**
+ * Change of the totals of a single {@link TrainingRollup}.
+ */
+record RollupDelta(int trainings, double distance, long seconds) {
+
+    static RollupDelta of(TrainingSnapshot training) {
+        return new RollupDelta(1, training.distance(), Duration.between(training.startTime(), training.endTime()).toSeconds());
+    }
+
+    RollupDelta plus(RollupDelta other) {
+        return new RollupDelta(trainings + other.trainings, distance + other.distance, seconds + other.seconds);
+    }
+
+    RollupDelta negate() {
+        return new RollupDelta(-trainings, -distance, -seconds);
+    }
+
+    boolean isZero() {
+        return trainings == 0 && distance == 0 && seconds == 0;
+    }
+
+}
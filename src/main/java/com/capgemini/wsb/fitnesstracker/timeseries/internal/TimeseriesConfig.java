@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TimeseriesProperties.class)
+class TimeseriesConfig {
+
+}
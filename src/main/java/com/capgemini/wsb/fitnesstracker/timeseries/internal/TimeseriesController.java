@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/users")
+@RequiredArgsConstructor
+class TimeseriesController {
+
+    private static final int MAX_BUCKETS = 1000;
+
+    private final TimeseriesServiceImpl timeseriesService;
+    private final UserProvider userProvider;
+
+    /**
+     * Retrieves the user's distance, number and duration of trainings per day, week or month and activity type,
+     * with a single index range read of the pre-aggregated rollups.
+     *
+     * @param userId       ID of the user
+     * @param granularity  {@code day}, {@code week} or {@code month}, case-insensitive
+     * @param from         inclusive first day of the range; the bucket it falls into is returned whole
+     * @param to           exclusive last day of the range
+     * @param activityType type of activity, case-insensitive, omitted for all of them
+     * @return one point per bucket and activity type with trainings, oldest first
+     * @throws BusinessException if the granularity or activity type is unknown, the range is empty
+     *                           or it spans more than 1000 buckets
+     * @throws NotFoundException if no user with the given ID exists
+     */
+    @GetMapping("/{userId}/timeseries")
+    public List<TimeseriesPointDto> getTimeseries(@PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "week") String granularity,
+                                                  @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+                                                  @RequestParam(required = false) @Nullable String activityType) {
+        Granularity bucketGranularity = parse(Granularity.class, granularity);
+        if (!from.isBefore(to)) {
+            throw new BusinessException("Range from %s to %s is empty".formatted(from, to));
+        }
+        if (bucketGranularity.bucketsBetween(from, to) > MAX_BUCKETS) {
+            throw new BusinessException("Range from %s to %s spans more than %s buckets".formatted(from, to, MAX_BUCKETS));
+        }
+        List<TimeseriesPointDto> points = timeseriesService.getTimeseries(
+                userId, bucketGranularity, from, to, activityType == null ? null : parse(ActivityType.class, activityType));
+        if (points.isEmpty() && userProvider.getUser(userId).isEmpty()) {
+            throw new NotFoundException("User with ID=%s was not found".formatted(userId));
+        }
+        return points;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown %s: %s".formatted(type.getSimpleName(), value));
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a {@link TrainingRollup}: one point of a user's time series.
+ *
+ * @param bucketStart   first day of the bucket
+ * @param activityType  type of activity
+ * @param trainings     number of trainings that ended within the bucket
+ * @param totalDistance sum of their distances
+ * @param totalHours    sum of their durations
+ */
+record TimeseriesPointDto(LocalDate bucketStart, ActivityType activityType, int trainings, double totalDistance, double totalHours) {
+
+    private static final double SECONDS_PER_HOUR = 3600d;
+
+    /**
+     * Constructor used by the JPQL constructor expression in the rollup repository.
+     */
+    TimeseriesPointDto(LocalDate bucketStart, ActivityType activityType, int trainings, double totalDistance, long totalSeconds) {
+        this(bucketStart, activityType, trainings, totalDistance, totalSeconds / SECONDS_PER_HOUR);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Configuration of the training rollups the users' time series are served from.
+ */
+@ConfigurationProperties(prefix = "timeseries")
+@Getter
+class TimeseriesProperties {
+
+    /**
+     * Time zone the days, weeks (Monday to Monday) and months of the rollups are computed in. The rollups are stored
+     * for this zone only, so changing it requires rebuilding them.
+     */
+    private final ZoneId zone;
+
+    TimeseriesProperties(@DefaultValue("UTC") ZoneId zone) {
+        this.zone = zone;
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the daily, weekly and monthly {@link TrainingRollup}s of every user up to date, so that a time series is read
+ * from the rollups instead of aggregating the user's training history.
+ * <p>
+ * The training events' listeners turn every training into a delta of its day, week and month, in the transaction
+ * that stores the training. Deltas only add up, so trainings arriving out of order need no special handling; an
+ * update subtracts the previous state of the training from its buckets and adds the current one, which may fall into
+ * other buckets, another activity type or another user. The deltas of an event are summed up per bucket and merged
+ * into the rollups with a single JDBC batch; buckets left without trainings are deleted.
+ */
+@Service
+@RequiredArgsConstructor
+class TimeseriesServiceImpl {
+
+    private static final Comparator<RollupKey> LOCK_ORDER = Comparator.comparing(RollupKey::userId)
+            .thenComparing(RollupKey::granularity)
+            .thenComparing(RollupKey::bucketStart)
+            .thenComparing(RollupKey::activityType);
+
+    private static final String MERGE = """
+            merge into training_rollups r
+            using (values (cast(? as bigint), cast(? as int), cast(? as varchar(8)), cast(? as date),
+                           cast(? as int), cast(? as double precision), cast(? as bigint)))
+                  d (user_id, activity_type, granularity, bucket_start, trainings, total_distance, total_seconds)
+            on r.user_id = d.user_id and r.granularity = d.granularity
+               and r.bucket_start = d.bucket_start and r.activity_type = d.activity_type
+            when matched then update set
+                trainings = r.trainings + d.trainings,
+                total_distance = r.total_distance + d.total_distance,
+                total_seconds = r.total_seconds + d.total_seconds
+            when not matched then insert (user_id, activity_type, granularity, bucket_start, trainings, total_distance, total_seconds)
+                values (d.user_id, d.activity_type, d.granularity, d.bucket_start, d.trainings, d.total_distance, d.total_seconds)
+            """;
+
+    private final TrainingRollupRepository rollupRepository;
+    private final TimeseriesProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Retrieves the user's time series.
+     *
+     * @param userId       ID of the user
+     * @param granularity  length of the buckets
+     * @param from         inclusive first day of the range; the bucket it falls into is returned whole
+     * @param to           exclusive last day of the range
+     * @param activityType type of activity, {@code null} for all of them
+     * @return one point per bucket and activity type with trainings, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<TimeseriesPointDto> getTimeseries(Long userId,
+                                                  Granularity granularity,
+                                                  LocalDate from,
+                                                  LocalDate to,
+                                                  @Nullable ActivityType activityType) {
+        return rollupRepository.findPoints(userId, granularity, granularity.bucketStart(from), to, activityType);
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingCreated(TrainingCreatedEvent event) {
+        Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+        add(deltas, event.training(), RollupDelta.of(event.training()));
+        merge(deltas);
+    }
+
+    @EventListener
+    @Transactional
+    void onTrainingsCreated(TrainingsCreatedEvent event) {
+        Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+        for (TrainingSnapshot training : event.trainings()) {
+            add(deltas, training, RollupDelta.of(training));
+        }
+        merge(deltas);
+    }
+
+    /**
+     * Moves the training from the buckets of its previous state to those of its current one. Buckets both states
+     * fall into only get the difference.
+     *
+     * @param event event carrying the training before and after the update
+     */
+    @EventListener
+    @Transactional
+    void onTrainingUpdated(TrainingUpdatedEvent event) {
+        Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+        add(deltas, event.previous(), RollupDelta.of(event.previous()).negate());
+        add(deltas, event.current(), RollupDelta.of(event.current()));
+        merge(deltas);
+        Set<Long> shrunk = new LinkedHashSet<>();
+        deltas.forEach((key, delta) -> {
+            if (delta.trainings() < 0) {
+                shrunk.add(key.userId());
+            }
+        });
+        if (!shrunk.isEmpty()) {
+            rollupRepository.deleteEmpty(shrunk);
+        }
+    }
+
+    private void add(Map<RollupKey, RollupDelta> deltas, TrainingSnapshot training, RollupDelta delta) {
+        LocalDate day = LocalDate.ofInstant(training.endTime(), properties.getZone());
+        for (Granularity granularity : Granularity.values()) {
+            RollupKey key = new RollupKey(training.userId(), training.activityType(), granularity, granularity.bucketStart(day));
+            deltas.merge(key, delta, RollupDelta::plus);
+        }
+    }
+
+    /**
+     * Merges the deltas into the rollups with one batch, in a fixed key order so that concurrent batches lock the rows
+     * in the same order. If another transaction is inserting a bucket of the batch, H2 makes the merge wait for it and
+     * then fails on the unique bucket index instead of updating the row, while the rest of the batch is applied. The
+     * batch therefore runs after a savepoint of the transaction's connection and, on such a failure, is rolled back to
+     * it and merged once more, now updating the committed rows. The savepoint is set on the connection directly, as
+     * the JPA transaction manager does not support nested transactions.
+     */
+    private void merge(Map<RollupKey, RollupDelta> deltas) {
+        List<Object[]> rows = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(entry -> new Object[]{entry.getKey().userId(),
+                                           entry.getKey().activityType().ordinal(),
+                                           entry.getKey().granularity().name(),
+                                           Date.valueOf(entry.getKey().bucketStart()),
+                                           entry.getValue().trainings(),
+                                           entry.getValue().distance(),
+                                           entry.getValue().seconds()})
+                .toList();
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint beforeMerge = connection.setSavepoint();
+            try {
+                jdbcTemplate.batchUpdate(MERGE, rows);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(beforeMerge);
+                jdbcTemplate.batchUpdate(MERGE, rows);
+            }
+            connection.releaseSavepoint(beforeMerge);
+            return null;
+        });
+    }
+
+    private record RollupKey(Long userId, ActivityType activityType, Granularity granularity, LocalDate bucketStart) {
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of a user's trainings of one activity type that ended within a day, week or month.
+ * <p>
+ * The unique key leads with the user, the granularity and the bucket start, so a user's time series over any range
+ * is a single index range read. The rows are written by the {@link TimeseriesServiceImpl} with plain statements only.
+ */
+@Entity
+@Table(name = "training_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "ux_training_rollups_bucket",
+                                             columnNames = {"user_id", "granularity", "bucket_start", "activity_type"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class TrainingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    private User user;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private Granularity granularity;
+
+    /**
+     * First day of the bucket, in {@link TimeseriesProperties#getZone()}.
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "trainings", nullable = false)
+    private int trainings;
+
+    @Column(name = "total_distance", nullable = false)
+    private double totalDistance;
+
+    @Column(name = "total_seconds", nullable = false)
+    private long totalSeconds;
+
+}
@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.timeseries.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+interface TrainingRollupRepository extends JpaRepository<TrainingRollup, Long> {
+
+    /**
+     * Query returning the user's rollups of the granularity whose buckets start within the range, read from the
+     * range of the unique key.
+     *
+     * @param userId       ID of the user
+     * @param granularity  length of the buckets
+     * @param from         inclusive first bucket start
+     * @param to           exclusive last bucket start
+     * @param activityType type of activity, {@code null} for all of them
+     * @return the points of the time series, oldest first, without empty buckets
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.timeseries.internal.TimeseriesPointDto(
+                r.bucketStart, r.activityType, r.trainings, r.totalDistance, r.totalSeconds)
+            from TrainingRollup r
+            where r.user.id = :userId and r.granularity = :granularity
+              and r.bucketStart >= :from and r.bucketStart < :to
+              and (:activityType is null or r.activityType = :activityType)
+            order by r.bucketStart, r.activityType
+            """)
+    List<TimeseriesPointDto> findPoints(@Param("userId") Long userId,
+                                        @Param("granularity") Granularity granularity,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        @Param("activityType") @Nullable ActivityType activityType);
+
+    /**
+     * Deletes the rollups left without trainings after trainings were moved out of them.
+     *
+     * @param userIds IDs of the users whose rollups changed
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("delete from TrainingRollup r where r.user.id in :userIds and r.trainings <= 0")
+    int deleteEmpty(@Param("userIds") Collection<Long> userIds);
+
+}
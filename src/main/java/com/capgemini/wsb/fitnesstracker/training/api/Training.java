@@ -8,7 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-import java.util.Date;
+import java.time.Instant;
 
 /**
  * Represents a training session performed by a user.
@@ -16,7 +16,10 @@ import java.util.Date;
  * including the user, start and end times, activity type, distance, and average speed.
  */
 @Entity
-@Table(name = "trainings")
+@Table(name = "trainings", indexes = {
+        @Index(name = "idx_trainings_user_end_time", columnList = "user_id, end_time"),
+        @Index(name = "idx_trainings_activity_end_time", columnList = "activity_type, end_time")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -24,18 +27,20 @@ public class Training {
 
     /**
      * The unique identifier of the training session.
-     * This field is automatically generated by the database.
+     * This field is generated from a pooled database sequence, which lets Hibernate batch the inserts.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
 
     /**
      * The user who performed the training session.
-     * This field represents a many-to-one relationship with the User entity.
+     * This field represents a many-to-one relationship with the User entity, loaded lazily.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User user;
 
     /**
@@ -43,14 +48,14 @@ public class Training {
      * This field cannot be null and represents the beginning of the training.
      */
     @Column(name = "start_time", nullable = false)
-    private Date startTime;
+    private Instant startTime;
 
     /**
      * The end time of the training session.
      * This field cannot be null and represents the conclusion of the training.
      */
     @Column(name = "end_time", nullable = false)
-    private Date endTime;
+    private Instant endTime;
 
     /**
      * The type of activity performed during the training session.
@@ -86,8 +91,8 @@ public class Training {
      */
     public Training(
             final User user,
-            final Date startTime,
-            final Date endTime,
+            final Instant startTime,
+            final Instant endTime,
             final ActivityType activityType,
             final double distance,
             final double averageSpeed) {
@@ -104,7 +109,7 @@ public class Training {
      *
      * @param startTime the new start time
      */
-    public void updateStartTime(Date startTime) {
+    public void updateStartTime(Instant startTime) {
         this.startTime = startTime;
     }
 
@@ -113,7 +118,7 @@ public class Training {
      *
      * @param endTime the new end time
      */
-    public void updateEndTime(Date endTime) {
+    public void updateEndTime(Instant endTime) {
         this.endTime = endTime;
     }
 
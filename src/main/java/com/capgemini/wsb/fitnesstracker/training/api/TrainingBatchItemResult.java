@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Outcome of a single item of a batch training upload.
+ *
+ * @param index      zero-based position of the item in the uploaded batch
+ * @param status     whether the training was created or rejected
+ * @param trainingId ID of the created training, {@code null} if rejected
+ * @param error      reason of the rejection, {@code null} if created
+ */
+public record TrainingBatchItemResult(int index,
+                                      Status status,
+                                      @Nullable Long trainingId,
+                                      @Nullable String error) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static TrainingBatchItemResult created(int index, Long trainingId) {
+        return new TrainingBatchItemResult(index, Status.CREATED, trainingId, null);
+    }
+
+    public static TrainingBatchItemResult rejected(int index, String error) {
+        return new TrainingBatchItemResult(index, Status.REJECTED, null, error);
+    }
+
+}
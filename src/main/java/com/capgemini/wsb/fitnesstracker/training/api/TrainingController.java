@@ -1,122 +1,343 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingRequest;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingBatchImporter;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingMapper;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
-import com.capgemini.wsb.fitnesstracker.user.api.User;
-import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingTimeFormat;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import com.capgemini.wsb.fitnesstracker.version.api.ChangeVersions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/v1/trainings")
 public class TrainingController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TrainingServiceImpl trainingService;
-    private final UserService userService;
+    private final TrainingMapper trainingMapper;
+    private final TrainingBatchImporter trainingBatchImporter;
+    private final UserProvider userProvider;
+    private final ObjectMapper objectMapper;
+    private final ChangeVersions changeVersions;
 
-    public TrainingController(TrainingServiceImpl trainingService, UserService userService) {
+    public TrainingController(TrainingServiceImpl trainingService,
+                              TrainingMapper trainingMapper,
+                              TrainingBatchImporter trainingBatchImporter,
+                              UserProvider userProvider,
+                              ObjectMapper objectMapper,
+                              ChangeVersions changeVersions) {
         this.trainingService = trainingService;
-        this.userService = userService;
+        this.trainingMapper = trainingMapper;
+        this.trainingBatchImporter = trainingBatchImporter;
+        this.userProvider = userProvider;
+        this.objectMapper = objectMapper;
+        this.changeVersions = changeVersions;
     }
 
     /**
-     * Retrieves all trainings.
+     * Retrieves a page of trainings, ordered by ID.
+     * Answers with 304 Not Modified, without querying the database, if no training changed since the ETag sent in
+     * {@code If-None-Match}.
      *
-     * @return a list of all Training objects
+     * @param after   ID of the last training of the previous page, omitted for the first page
+     * @param limit   maximum number of trainings in the page
+     * @param request request carrying the conditional headers
+     * @return a list of TrainingDto objects, or null if not modified
      */
     @GetMapping
-    public ResponseEntity<List<Training>> getAllTrainings() {
-        List<Training> trainings = trainingService.getAllTrainings();
-        return ResponseEntity.ok(trainings); // Zwracamy listę wszystkich treningów
+    public ResponseEntity<List<TrainingDto>> getAllTrainings(@RequestParam(defaultValue = "0") long after,
+                                                          @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                                          WebRequest request) {
+        if (request.checkNotModified(changeVersions.trainingsETag())) {
+            return null;
+        }
+        List<TrainingDto> trainings = trainingService.getAllTrainings(after, pageSize(limit));
+        return ResponseEntity.ok(trainings); // Zwracamy stronę treningów
     }
 
     /**
-     * Retrieves all trainings for a specific user by their user ID.
+     * Streams all trainings as newline-delimited JSON, ordered by ID.
      *
-     * @param userId the ID of the user whose trainings are to be retrieved
-     * @return a list of Training objects for the specified user
+     * @param response response the trainings are written to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllTrainings(HttpServletResponse response) throws IOException {
+        writeNdjson(response, trainingService::forEachTraining);
+    }
+
+    /**
+     * Retrieves a page of trainings for a specific user by their user ID, ordered by ID.
+     * Answers with 304 Not Modified, without querying the database, if neither the user nor their trainings changed
+     * since the ETag sent in {@code If-None-Match}.
+     *
+     * @param userId  the ID of the user whose trainings are to be retrieved
+     * @param after   ID of the last training of the previous page, omitted for the first page
+     * @param limit   maximum number of trainings in the page
+     * @param request request carrying the conditional headers
+     * @return a list of TrainingDto objects for the specified user, or null if not modified
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Training>> getTrainingsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<TrainingDto>> getTrainingsByUserId(@PathVariable Long userId,
+                                                               @RequestParam(defaultValue = "0") long after,
+                                                               @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+                                                               WebRequest request) {
+        // the ETag is taken before the data is read, so it is never newer than the data
+        if (request.checkNotModified(changeVersions.trainingsETag(userId))) {
+            return null;
+        }
+
         // Sprawdzamy, czy użytkownik istnieje
-        User user = findUserById(userId);
+        UserSimpleDto user = findUserById(userId);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build(); // Zwracamy 404, jeśli użytkownik nie istnieje
         }
 
         // Pobieramy treningi dla użytkownika
-        List<Training> trainings = trainingService.getTrainingsByUserId(userId);
+        List<TrainingDto> trainings = trainingService.getTrainingsByUserId(userId, after, pageSize(limit));
         return ResponseEntity.ok(trainings);
     }
 
     /**
-     * Retrieves all trainings that were finished after the specified date.
+     * Streams all trainings for a specific user as newline-delimited JSON, ordered by ID.
+     *
+     * @param userId   the ID of the user whose trainings are to be retrieved
+     * @param response response the trainings are written to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamTrainingsByUserId(@PathVariable Long userId, HttpServletResponse response) throws IOException {
+        if (findUserById(userId) == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        writeNdjson(response, action -> trainingService.forEachTrainingByUserId(userId, action));
+    }
+
+    /**
+     * Retrieves a page of trainings that were finished after the specified date (midnight UTC), ordered by ID.
      *
      * @param afterTime a string representing the date (in "yyyy-MM-dd" format) after which the trainings are to be retrieved
-     * @return a list of Training objects completed after the specified date
+     * @param after     ID of the last training of the previous page, omitted for the first page
+     * @param limit     maximum number of trainings in the page
+     * @return a list of TrainingDto objects completed after the specified date
      */
     @GetMapping("/finished/{afterTime}")
-    public ResponseEntity<List<Training>> getFinishedTrainingsAfter(@PathVariable String afterTime) {
+    public ResponseEntity<List<TrainingDto>> getFinishedTrainingsAfter(@PathVariable String afterTime,
+                                                                    @RequestParam(defaultValue = "0") long after,
+                                                                    @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         try {
-            // Konwersja tekstowej daty na obiekt `Date`
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date date = sdf.parse(afterTime);
+            // Konwersja tekstowej daty na obiekt `Instant`
+            Instant date = TrainingTimeFormat.startOfDay(LocalDate.parse(afterTime));
 
             // Pobranie treningów zakończonych po podanej dacie
-            List<Training> trainings = trainingService.getCompletedTrainingsAfter(date);
+            List<TrainingDto> trainings = trainingService.getCompletedTrainingsAfter(date, after, pageSize(limit));
             return ResponseEntity.ok(trainings);
 
-        } catch (ParseException e) {
+        } catch (DateTimeParseException e) {
             // W przypadku błędu parsowania daty, zwróć 400 (Bad Request)
             return ResponseEntity.badRequest().build();
         }
     }
 
     /**
-     * Retrieves all trainings that were performed for a specific activity type.
+     * Streams all trainings that were finished after the specified date (midnight UTC) as newline-delimited JSON, ordered by ID.
+     *
+     * @param afterTime a string representing the date (in "yyyy-MM-dd" format) after which the trainings are to be retrieved
+     * @param response  response the trainings are written to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/finished/{afterTime}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamFinishedTrainingsAfter(@PathVariable String afterTime, HttpServletResponse response) throws IOException {
+        Instant date;
+        try {
+            date = TrainingTimeFormat.startOfDay(LocalDate.parse(afterTime));
+        } catch (DateTimeParseException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        writeNdjson(response, action -> trainingService.forEachCompletedTrainingAfter(date, action));
+    }
+
+    /**
+     * Retrieves a page of trainings that ended within the given time range, ordered by ID.
+     * The times are ISO dates or date-times; a missing time means midnight and a missing offset means UTC.
+     *
+     * @param from  inclusive start of the range, e.g. "2024-01-01" or "2024-01-01T06:00:00+01:00"
+     * @param to    exclusive end of the range
+     * @param after ID of the last training of the previous page, omitted for the first page
+     * @param limit maximum number of trainings in the page
+     * @return a list of TrainingDto objects that ended within the range
+     * @throws BusinessException if a time cannot be parsed or the range is empty
+     */
+    @GetMapping("/range")
+    public ResponseEntity<List<TrainingDto>> getTrainingsEndedBetween(@RequestParam String from,
+                                                                      @RequestParam String to,
+                                                                      @RequestParam(defaultValue = "0") long after,
+                                                                      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        Instant fromTime = parseTime("from", from);
+        Instant toTime = parseTime("to", to);
+        checkRange(fromTime, toTime);
+        return ResponseEntity.ok(trainingService.getTrainingsEndedBetween(fromTime, toTime, after, pageSize(limit)));
+    }
+
+    /**
+     * Streams all trainings that ended within the given time range as newline-delimited JSON, ordered by ID.
+     *
+     * @param from     inclusive start of the range, see {@link #getTrainingsEndedBetween(String, String, long, int)}
+     * @param to       exclusive end of the range
+     * @param response response the trainings are written to
+     * @throws IOException       if writing the response fails
+     * @throws BusinessException if a time cannot be parsed or the range is empty
+     */
+    @GetMapping(value = "/range", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamTrainingsEndedBetween(@RequestParam String from,
+                                            @RequestParam String to,
+                                            HttpServletResponse response) throws IOException {
+        Instant fromTime = parseTime("from", from);
+        Instant toTime = parseTime("to", to);
+        checkRange(fromTime, toTime);
+        writeNdjson(response, action -> trainingService.forEachTrainingEndedBetween(fromTime, toTime, action));
+    }
+
+    /**
+     * Retrieves a page of trainings that were performed for a specific activity type, ordered by ID.
      *
      * @param activityType the type of activity for which trainings are to be retrieved
-     * @return a list of Training objects for the specified activity type
+     * @param after        ID of the last training of the previous page, omitted for the first page
+     * @param limit        maximum number of trainings in the page
+     * @return a list of TrainingDto objects for the specified activity type
      */
     @GetMapping("/activityType")
-    public ResponseEntity<List<Training>> getTrainingsByActivityType(@RequestParam String activityType) {
+    public ResponseEntity<List<TrainingDto>> getTrainingsByActivityType(@RequestParam String activityType,
+                                                                     @RequestParam(defaultValue = "0") long after,
+                                                                     @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
         try {
             ActivityType type = ActivityType.valueOf(activityType.toUpperCase()); // Zamiana na wielkie litery
-            List<Training> trainings = trainingService.getTrainingsByActivityType(type);
+            List<TrainingDto> trainings = trainingService.getTrainingsByActivityType(type, after, pageSize(limit));
             return ResponseEntity.ok(trainings);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(null); // Zwraca 400, jeśli podano nieprawidłowy typ aktywności
         }
     }
 
+    /**
+     * Streams all trainings that were performed for a specific activity type as newline-delimited JSON, ordered by ID.
+     *
+     * @param activityType the type of activity for which trainings are to be retrieved
+     * @param response     response the trainings are written to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value = "/activityType", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamTrainingsByActivityType(@RequestParam String activityType, HttpServletResponse response) throws IOException {
+        ActivityType type;
+        try {
+            type = ActivityType.valueOf(activityType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        writeNdjson(response, action -> trainingService.forEachTrainingByActivityType(type, action));
+    }
+
+    /**
+     * Retrieves a page of trainings matching all given filters, ordered by ID.
+     * Filters that are not given are ignored; filtering by user or activity type is served by the matching composite index.
+     *
+     * @param userId        the ID of the user who performed the trainings
+     * @param activityType  the type of activity of the trainings
+     * @param finishedAfter the date (in "yyyy-MM-dd" format, midnight UTC) after which the trainings must have ended
+     * @param after         ID of the last training of the previous page, omitted for the first page
+     * @param limit         maximum number of trainings in the page
+     * @return a list of TrainingDto objects matching the filters
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TrainingDto>> searchTrainings(@RequestParam(required = false) Long userId,
+                                                             @RequestParam(required = false) ActivityType activityType,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate finishedAfter,
+                                                             @RequestParam(defaultValue = "0") long after,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        TrainingSearchCriteria criteria = new TrainingSearchCriteria(userId,
+                                                                     activityType,
+                                                                     finishedAfter == null ? null : TrainingTimeFormat.startOfDay(finishedAfter));
+        return ResponseEntity.ok(trainingService.searchTrainings(criteria, after, pageSize(limit)));
+    }
+
     /**
      * Creates a new training based on the provided TrainingRequest.
      * The user associated with the training is determined from the request.
      *
      * @param trainingRequest the request containing the details of the new training
-     * @return a ResponseEntity containing the created Training object
+     * @return a ResponseEntity containing the created training
      */
     @PostMapping
-    public ResponseEntity<Training> createTraining(@Valid @RequestBody TrainingRequest trainingRequest) {
+    public ResponseEntity<TrainingDto> createTraining(@Valid @RequestBody TrainingRequest trainingRequest) {
         // Znajdź użytkownika na podstawie userId z ciała żądania
-        User user = findUserById(trainingRequest.getUserId());
+        UserSimpleDto user = findUserById(trainingRequest.getUserId());
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
 
         // Tworzenie treningu
-        Training createdTraining = trainingService.createTraining(trainingRequest, user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTraining);
+        Training createdTraining = trainingService.createTraining(trainingRequest, userProvider.getUserReference(user.Id()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(trainingMapper.toDto(createdTraining, user));
+    }
+
+    /**
+     * Creates many trainings in one call. Accepts either a JSON array or newline-delimited JSON of TrainingRequests.
+     * The upload is processed in chunks, each inserted with JDBC batching; every item gets its own result, written
+     * as a JSON array in upload order, so invalid items do not prevent the valid ones from being stored.
+     *
+     * @param request  request carrying the uploaded trainings
+     * @param response response the per-item results are written to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void createTrainings(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (MappingIterator<TrainingRequest> requests = objectMapper.readerFor(TrainingRequest.class).readValues(request.getInputStream());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            trainingBatchImporter.importTrainings(requests, result -> {
+                try {
+                    writer.writeValue(generator, result);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+        }
     }
 
     /**
@@ -125,32 +346,76 @@ public class TrainingController {
      *
      * @param trainingId the ID of the training to be updated
      * @param trainingRequest the request containing the updated details of the training
-     * @return a ResponseEntity containing the updated Training object
+     * @return a ResponseEntity containing the updated training
      */
     @PutMapping("/{trainingId}")
-    public ResponseEntity<Training> updateTraining(
+    public ResponseEntity<TrainingDto> updateTraining(
             @PathVariable Long trainingId,
             @Valid @RequestBody TrainingRequest trainingRequest) {
 
         // Znajdź użytkownika na podstawie userId z TrainingRequest
-        User user = findUserById(trainingRequest.getUserId());
+        UserSimpleDto user = findUserById(trainingRequest.getUserId());
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
 
         // Aktualizacja treningu
-        Training updatedTraining = trainingService.updateTraining(trainingId, trainingRequest, user);
-        return ResponseEntity.ok(updatedTraining);
+        Training updatedTraining = trainingService.updateTraining(trainingId, trainingRequest, userProvider.getUserReference(user.Id()));
+        return ResponseEntity.ok(trainingMapper.toDto(updatedTraining, user));
     }
 
     /**
-     * Finds a user by their ID using the UserService.
+     * Finds a summary of the user by their ID using the UserProvider. Repeated lookups are served from its cache,
+     * so checking that the user exists does not cost a database round trip.
      *
      * @param userId the ID of the user to be found
-     * @return the User if found, or null if the user does not exist
+     * @return the user's summary if found, or null if the user does not exist
      */
-    private User findUserById(Long userId) {
-        // Używamy UserService do znalezienia użytkownika
-        return userService.getUser(userId).orElse(null); // Zwraca null, jeśli użytkownik nie zostanie znaleziony
+    private UserSimpleDto findUserById(Long userId) {
+        // Używamy UserProvider do znalezienia użytkownika
+        return userProvider.getUserSummary(userId).orElse(null); // Zwraca null, jeśli użytkownik nie zostanie znaleziony
+    }
+
+    /**
+     * Writes every training produced by the given source as a separate JSON line, without collecting them first.
+     *
+     * @param response response the trainings are written to
+     * @param source   streaming service call feeding each training to the given consumer
+     * @throws IOException if writing the response fails
+     */
+    private void writeNdjson(HttpServletResponse response, Consumer<Consumer<TrainingDto>> source) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            source.accept(training -> {
+                try {
+                    writer.writeValue(generator, training);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new BusinessException("Page limit must be positive, got " + limit);
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static Instant parseTime(String name, String value) {
+        try {
+            return TrainingTimeFormat.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Invalid '%s' time: %s".formatted(name, value));
+        }
+    }
+
+    private static void checkRange(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new BusinessException("Range start " + from + " must be before its end " + to);
+        }
     }
 }
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Published when a new {@link Training} is stored.
+ * Listeners are invoked synchronously, inside the transaction that stores the training.
+ *
+ * @param training state of the created training
+ */
+public record TrainingCreatedEvent(TrainingSnapshot training) {
+
+}
@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Instant;
+
+/**
+ * Read model of a {@link Training} returned by the training endpoints.
+ * Carries only the ID and nickname of the user, so it can be filled by a single JPQL constructor expression
+ * without loading the {@code User} entity.
+ *
+ * @param id           ID of the training
+ * @param user         user who performed the training
+ * @param startTime    start time of the training session
+ * @param endTime      end time of the training session
+ * @param activityType type of activity performed during the training session
+ * @param distance     distance covered during the training session
+ * @param averageSpeed average speed during the training session
+ */
+public record TrainingDto(Long id,
+                          TrainingUserDto user,
+                          Instant startTime,
+                          Instant endTime,
+                          ActivityType activityType,
+                          double distance,
+                          double averageSpeed) {
+
+    /**
+     * Flat constructor used by the JPQL constructor expressions in the training repository.
+     */
+    public TrainingDto(Long id,
+                       Long userId,
+                       String userNickname,
+                       Instant startTime,
+                       Instant endTime,
+                       ActivityType activityType,
+                       double distance,
+                       double averageSpeed) {
+        this(id, new TrainingUserDto(userId, userNickname), startTime, endTime, activityType, distance, averageSpeed);
+    }
+
+}
@@ -3,7 +3,7 @@ package com.capgemini.wsb.fitnesstracker.training.api;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,7 +38,7 @@ public interface TrainingProvider {
      * @param date the date after which trainings are to be retrieved
      * @return List of trainings
      */
-    List<Training> getCompletedTrainingsAfter(Date date);
+    List<Training> getCompletedTrainingsAfter(Instant date);
 
     /**
      * Retrieves all trainings for a specific activity type.
@@ -47,4 +47,64 @@ public interface TrainingProvider {
      * @return List of trainings for the specified activity type
      */
     List<Training> getTrainingsByActivityType(ActivityType activityType);
+
+    /**
+     * Retrieves the next page of all trainings, ordered by ID.
+     *
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings
+     */
+    List<TrainingDto> getAllTrainings(long afterId, int limit);
+
+    /**
+     * Retrieves the next page of trainings for a specific user, ordered by ID.
+     *
+     * @param userId  the ID of the user
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings for the user
+     */
+    List<TrainingDto> getTrainingsByUserId(Long userId, long afterId, int limit);
+
+    /**
+     * Retrieves the next page of trainings that ended after the specified date, ordered by ID.
+     *
+     * @param date    the date after which trainings are to be retrieved
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings
+     */
+    List<TrainingDto> getCompletedTrainingsAfter(Instant date, long afterId, int limit);
+
+    /**
+     * Retrieves the next page of trainings that ended within the specified time range, ordered by ID.
+     *
+     * @param from    inclusive start of the range
+     * @param to      exclusive end of the range
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings
+     */
+    List<TrainingDto> getTrainingsEndedBetween(Instant from, Instant to, long afterId, int limit);
+
+    /**
+     * Retrieves the next page of trainings for a specific activity type, ordered by ID.
+     *
+     * @param activityType the type of activity
+     * @param afterId      ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit        maximum number of trainings to return
+     * @return page of trainings for the specified activity type
+     */
+    List<TrainingDto> getTrainingsByActivityType(ActivityType activityType, long afterId, int limit);
+
+    /**
+     * Retrieves the next page of trainings matching all given criteria, ordered by ID.
+     *
+     * @param criteria filter to apply, {@code null} criteria are skipped
+     * @param afterId  ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit    maximum number of trainings to return
+     * @return page of matching trainings
+     */
+    List<TrainingDto> searchTrainings(TrainingSearchCriteria criteria, long afterId, int limit);
 }
@@ -4,7 +4,7 @@ import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.util.Date;
+import java.time.Instant;
 
 /**
  * Represents a request for creating or updating a training session.
@@ -26,14 +26,14 @@ public class TrainingRequest {
      * This field is required.
      */
     @NotNull
-    private Date startTime;
+    private Instant startTime;
 
     /**
      * The end time of the training session.
      * This field is required.
      */
     @NotNull
-    private Date endTime;
+    private Instant endTime;
 
     /**
      * The type of activity performed during the training session.
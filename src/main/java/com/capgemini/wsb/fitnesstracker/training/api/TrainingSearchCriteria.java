@@ -0,0 +1,21 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Combined filter for searching trainings. Every {@code null} criterion is ignored.
+ * Filtering by user or activity type lets the search use the {@code (user_id, end_time)}
+ * or {@code (activity_type, end_time)} index of the trainings table.
+ *
+ * @param userId        ID of the user who performed the training
+ * @param activityType  type of activity performed during the training
+ * @param finishedAfter the date after which the training must have ended
+ */
+public record TrainingSearchCriteria(@Nullable Long userId,
+                                     @Nullable ActivityType activityType,
+                                     @Nullable Instant finishedAfter) {
+
+}
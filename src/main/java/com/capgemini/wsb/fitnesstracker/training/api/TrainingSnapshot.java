@@ -0,0 +1,37 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of the state of a {@link Training} at a given moment, carried by the training events.
+ * Holds only the user ID, so listeners never touch the lazily loaded {@code User}.
+ *
+ * @param id           ID of the training
+ * @param userId       ID of the user who performed the training
+ * @param activityType type of activity performed during the training session
+ * @param startTime    start time of the training session
+ * @param endTime      end time of the training session
+ * @param distance     distance covered during the training session
+ * @param averageSpeed average speed during the training session
+ */
+public record TrainingSnapshot(Long id,
+                               Long userId,
+                               ActivityType activityType,
+                               Instant startTime,
+                               Instant endTime,
+                               double distance,
+                               double averageSpeed) {
+
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(training.getId(),
+                                    training.getUser().getId(),
+                                    training.getActivityType(),
+                                    training.getStartTime(),
+                                    training.getEndTime(),
+                                    training.getDistance(),
+                                    training.getAverageSpeed());
+    }
+
+}
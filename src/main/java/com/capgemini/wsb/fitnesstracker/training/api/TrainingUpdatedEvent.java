@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Published when an existing {@link Training} is modified.
+ * Listeners are invoked synchronously, inside the transaction that updates the training.
+ *
+ * @param previous state of the training before the update
+ * @param current  state of the training after the update
+ */
+public record TrainingUpdatedEvent(TrainingSnapshot previous, TrainingSnapshot current) {
+
+}
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Minimal view of the user who performed a training, embedded in {@link TrainingDto}.
+ *
+ * @param id       ID of the user
+ * @param nickname user's display name in the {@code firstName_lastName} form
+ */
+public record TrainingUserDto(Long id, String nickname) {
+
+}
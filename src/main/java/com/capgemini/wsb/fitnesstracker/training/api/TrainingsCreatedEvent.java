@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.util.List;
+
+/**
+ * Published once when a batch of new {@link Training}s is stored, instead of a {@link TrainingCreatedEvent} per training.
+ * Listeners are invoked synchronously, inside the transaction that stores the trainings.
+ *
+ * @param trainings state of the created trainings
+ */
+public record TrainingsCreatedEvent(List<TrainingSnapshot> trainings) {
+
+}
@@ -0,0 +1,148 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingBatchItemResult;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingRequest;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports trainings uploaded in bulk. Requests are read and stored in chunks: all users referenced by a chunk are
+ * resolved with a single query and the chunk is inserted in one transaction using JDBC batching.
+ * Invalid items are rejected individually without failing the rest of the upload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrainingBatchImporter {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final TrainingServiceImpl trainingService;
+    private final TrainingMapper trainingMapper;
+    private final UserProvider userProvider;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    /**
+     * Imports every training request produced by the iterator and reports the outcome of each of them, in upload order.
+     *
+     * @param requests iterator over the uploaded training requests
+     * @param results  consumer receiving the result of every uploaded item
+     */
+    public void importTrainings(MappingIterator<TrainingRequest> requests, Consumer<TrainingBatchItemResult> results) {
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+        boolean readable = true;
+        while (readable) {
+            try {
+                if (!requests.hasNextValue()) {
+                    break;
+                }
+                chunk.add(new Item(index, requests.nextValue(), null));
+            } catch (JsonParseException e) {
+                // malformed JSON cannot be resynchronized, the rest of the upload is skipped
+                chunk.add(new Item(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+                readable = false;
+            } catch (IOException e) {
+                chunk.add(new Item(index, null, "Invalid training: " + e.getMessage()));
+            }
+            index++;
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, results);
+        }
+    }
+
+    private void importChunk(List<Item> chunk, Consumer<TrainingBatchItemResult> results) {
+        Set<Long> userIds = chunk.stream()
+                .map(Item::request)
+                .filter(Objects::nonNull)
+                .map(TrainingRequest::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userProvider.getUsers(userIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        TrainingBatchItemResult[] chunkResults = new TrainingBatchItemResult[chunk.size()];
+        List<Integer> acceptedPositions = new ArrayList<>(chunk.size());
+        List<Training> trainings = new ArrayList<>(chunk.size());
+        for (int position = 0; position < chunk.size(); position++) {
+            Item item = chunk.get(position);
+            String error = validate(item, users);
+            if (error != null) {
+                chunkResults[position] = TrainingBatchItemResult.rejected(item.index(), error);
+            } else {
+                acceptedPositions.add(position);
+                trainings.add(trainingMapper.toEntity(item.request(), users.get(item.request().getUserId())));
+            }
+        }
+
+        try {
+            List<Training> saved = trainingService.createTrainings(trainings);
+            for (int i = 0; i < saved.size(); i++) {
+                int position = acceptedPositions.get(i);
+                chunkResults[position] = TrainingBatchItemResult.created(chunk.get(position).index(), saved.get(i).getId());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to store chunk of {} trainings", trainings.size(), e);
+            for (int position : acceptedPositions) {
+                chunkResults[position] = TrainingBatchItemResult.rejected(chunk.get(position).index(), e.getMostSpecificCause().getMessage());
+            }
+        } finally {
+            // keeps the persistence context of a long upload from growing with every chunk
+            entityManager.clear();
+        }
+
+        for (TrainingBatchItemResult result : chunkResults) {
+            results.accept(result);
+        }
+    }
+
+    private String validate(Item item, Map<Long, User> users) {
+        if (item.error() != null) {
+            return item.error();
+        }
+        Set<ConstraintViolation<TrainingRequest>> violations = validator.validate(item.request());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!users.containsKey(item.request().getUserId())) {
+            return new UserNotFoundException(item.request().getUserId()).getMessage();
+        }
+        return null;
+    }
+
+    private record Item(int index, TrainingRequest request, String error) {
+
+    }
+
+}
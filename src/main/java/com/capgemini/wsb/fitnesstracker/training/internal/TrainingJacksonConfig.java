@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+
+/**
+ * Registers the {@link TrainingTimeFormat} for all {@link Instant}s read and written by the REST API.
+ * Keeps the wire format the training endpoints used while the times were {@code java.util.Date}s,
+ * and keeps accepting times sent without an offset.
+ */
+@Configuration
+class TrainingJacksonConfig {
+
+    @Bean
+    Module trainingTimeModule() {
+        return new SimpleModule("TrainingTimeModule")
+                .addSerializer(Instant.class, new InstantSerializer())
+                .addDeserializer(Instant.class, new InstantDeserializer());
+    }
+
+    private static final class InstantSerializer extends StdScalarSerializer<Instant> {
+
+        private InstantSerializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public void serialize(Instant value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(TrainingTimeFormat.format(value));
+        }
+
+    }
+
+    private static final class InstantDeserializer extends StdScalarDeserializer<Instant> {
+
+        private InstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return Instant.ofEpochMilli(parser.getLongValue());
+            }
+            String text = parser.getValueAsString();
+            if (text == null) {
+                return (Instant) context.handleUnexpectedToken(Instant.class, parser);
+            }
+            if (text.isBlank()) {
+                return null;
+            }
+            try {
+                return TrainingTimeFormat.parse(text.trim());
+            } catch (DateTimeException e) {
+                return (Instant) context.handleWeirdStringValue(Instant.class, text, e.getMessage());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingRequest;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUserDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link Training} entities to the {@link TrainingDto} read model and {@link TrainingRequest}s to new entities.
+ * List endpoints get their DTOs straight from the repository; this mapper is used for single, already loaded trainings
+ * and for building new trainings from requests.
+ */
+@Component
+public class TrainingMapper {
+
+    public TrainingDto toDto(Training training) {
+        User user = training.getUser();
+        return toDto(training, new TrainingUserDto(user.getId(), nickname(user.getFirstName(), user.getLastName())));
+    }
+
+    /**
+     * Maps the training using an already known summary of its user, so a lazy user reference is never initialized.
+     */
+    public TrainingDto toDto(Training training, UserSimpleDto user) {
+        return toDto(training, new TrainingUserDto(user.Id(), nickname(user.firstName(), user.lastName())));
+    }
+
+    private static TrainingDto toDto(Training training, TrainingUserDto user) {
+        return new TrainingDto(training.getId(),
+                               user,
+                               training.getStartTime(),
+                               training.getEndTime(),
+                               training.getActivityType(),
+                               training.getDistance(),
+                               training.getAverageSpeed());
+    }
+
+    private static String nickname(String firstName, String lastName) {
+        return firstName + "_" + lastName;
+    }
+
+    public Training toEntity(TrainingRequest trainingRequest, User user) {
+        return new Training(user,
+                            trainingRequest.getStartTime(),
+                            trainingRequest.getEndTime(),
+                            trainingRequest.getActivityType(),
+                            trainingRequest.getDistance(),
+                            trainingRequest.getAverageSpeed());
+    }
+
+}
@@ -1,14 +1,39 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-interface TrainingRepository extends JpaRepository<Training, Long> {
+interface TrainingRepository extends JpaRepository<Training, Long>, TrainingSearchRepository {
+
+    /**
+     * Number of rows fetched from the database per round trip when streaming trainings.
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Select clause building {@link TrainingDto}s in a single statement, joining only the user columns it needs.
+     */
+    String SELECT_DTO = """
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingDto(
+                t.id, u.id, concat(u.firstName, '_', u.lastName),
+                t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t join t.user u
+            """;
+
     /**
      * Retrieves all trainings for a specific user.
      *
@@ -23,7 +48,7 @@ interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param date the date after which trainings are to be retrieved
      * @return List of trainings
      */
-    List<Training> findAllByEndTimeAfter(Date date);
+    List<Training> findAllByEndTimeAfter(Instant date);
 
     /**
      * Retrieves all trainings for a specific activity type.
@@ -33,4 +58,114 @@ interface TrainingRepository extends JpaRepository<Training, Long> {
      */
     List<Training> findAllByActivityType(ActivityType activityType);
 
+    /**
+     * Retrieves the next page of all trainings, ordered by ID.
+     *
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings with ID greater than {@code afterId}
+     */
+    @Query(SELECT_DTO + "where t.id > :afterId order by t.id")
+    List<TrainingDto> findDtoPage(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Retrieves the next page of trainings for a specific user, ordered by ID.
+     *
+     * @param userId  the ID of the user
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings for the user
+     */
+    @Query(SELECT_DTO + "where u.id = :userId and t.id > :afterId order by t.id")
+    List<TrainingDto> findDtoPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Retrieves the next page of trainings that ended after the specified date, ordered by ID.
+     *
+     * @param date    the date after which trainings are to be retrieved
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings
+     */
+    @Query(SELECT_DTO + "where t.endTime > :date and t.id > :afterId order by t.id")
+    List<TrainingDto> findDtoPageByEndTimeAfter(@Param("date") Instant date, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Retrieves the next page of trainings that ended within the specified time range, ordered by ID.
+     *
+     * @param from    inclusive start of the range
+     * @param to      exclusive end of the range
+     * @param afterId ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit   maximum number of trainings to return
+     * @return page of trainings
+     */
+    @Query(SELECT_DTO + "where t.endTime >= :from and t.endTime < :to and t.id > :afterId order by t.id")
+    List<TrainingDto> findDtoPageByEndTimeBetween(@Param("from") Instant from,
+                                                  @Param("to") Instant to,
+                                                  @Param("afterId") Long afterId,
+                                                  Limit limit);
+
+    /**
+     * Retrieves the next page of trainings for a specific activity type, ordered by ID.
+     *
+     * @param activityType the type of activity
+     * @param afterId      ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit        maximum number of trainings to return
+     * @return page of trainings for the specified activity type
+     */
+    @Query(SELECT_DTO + "where t.activityType = :activityType and t.id > :afterId order by t.id")
+    List<TrainingDto> findDtoPageByActivityType(@Param("activityType") ActivityType activityType,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+
+    /**
+     * Streams all trainings ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of all trainings
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "order by t.id")
+    Stream<TrainingDto> streamDtos();
+
+    /**
+     * Streams all trainings for a specific user ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId the ID of the user
+     * @return stream of trainings for the user
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where u.id = :userId order by t.id")
+    Stream<TrainingDto> streamDtosByUserId(@Param("userId") Long userId);
+
+    /**
+     * Streams all trainings that ended after the specified date ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param date the date after which trainings are to be retrieved
+     * @return stream of trainings
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where t.endTime > :date order by t.id")
+    Stream<TrainingDto> streamDtosByEndTimeAfter(@Param("date") Instant date);
+
+    /**
+     * Streams all trainings that ended within the specified time range ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param from inclusive start of the range
+     * @param to   exclusive end of the range
+     * @return stream of trainings
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where t.endTime >= :from and t.endTime < :to order by t.id")
+    Stream<TrainingDto> streamDtosByEndTimeBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Streams all trainings for a specific activity type ordered by ID. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param activityType the type of activity
+     * @return stream of trainings for the specified activity type
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where t.activityType = :activityType order by t.id")
+    Stream<TrainingDto> streamDtosByActivityType(@Param("activityType") ActivityType activityType);
+
 }
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+
+import java.util.List;
+
+/**
+ * Repository fragment for training queries assembled from optional criteria.
+ */
+interface TrainingSearchRepository {
+
+    /**
+     * Retrieves the next page of trainings matching all given criteria, ordered by ID.
+     *
+     * @param criteria filter to apply, {@code null} criteria are skipped
+     * @param afterId  ID of the last training of the previous page, {@code 0} for the first page
+     * @param limit    maximum number of trainings to return
+     * @return page of matching trainings
+     */
+    List<TrainingDto> search(TrainingSearchCriteria criteria, long afterId, int limit);
+
+}
@@ -0,0 +1,63 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link TrainingSearchRepository}.
+ * Only the criteria actually given end up in the {@code where} clause, so the database can pick the matching composite index.
+ */
+class TrainingSearchRepositoryImpl implements TrainingSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TrainingDto> search(TrainingSearchCriteria criteria, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TrainingDto> query = cb.createQuery(TrainingDto.class);
+        Root<Training> training = query.from(Training.class);
+        Join<Training, User> user = training.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(training.get("id"), afterId));
+        if (criteria.userId() != null) {
+            predicates.add(cb.equal(training.get("user").get("id"), criteria.userId()));
+        }
+        if (criteria.activityType() != null) {
+            predicates.add(cb.equal(training.get("activityType"), criteria.activityType()));
+        }
+        if (criteria.finishedAfter() != null) {
+            predicates.add(cb.greaterThan(training.get("endTime"), criteria.finishedAfter()));
+        }
+
+        query.select(cb.construct(TrainingDto.class,
+                                  training.get("id"),
+                                  user.get("id"),
+                                  cb.concat(cb.concat(user.get("firstName"), "_"), user.get("lastName")),
+                                  training.get("startTime"),
+                                  training.get("endTime"),
+                                  training.get("activityType"),
+                                  training.get("distance"),
+                                  training.get("averageSpeed")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(training.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+}
@@ -1,17 +1,29 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingRequest;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSearchCriteria;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.version.api.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -20,12 +32,22 @@ import java.util.Optional;
  * Uses TrainingRepository to persist training data.
  */
 @Service
+@Timed(value = "service.invocations", description = "Duration of the service method calls")
 public class TrainingServiceImpl implements TrainingProvider {
 
     private final TrainingRepository trainingRepository;
+    private final TrainingMapper trainingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeVersions changeVersions;
 
-    public TrainingServiceImpl(TrainingRepository trainingRepository) {
+    public TrainingServiceImpl(TrainingRepository trainingRepository,
+                               TrainingMapper trainingMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               ChangeVersions changeVersions) {
         this.trainingRepository = trainingRepository;
+        this.trainingMapper = trainingMapper;
+        this.eventPublisher = eventPublisher;
+        this.changeVersions = changeVersions;
     }
 
     @Override
@@ -35,21 +57,35 @@ public class TrainingServiceImpl implements TrainingProvider {
 
     /**
      * Creates a new training based on the provided TrainingRequest and assigns it to a specific user.
+     * Publishes a {@link TrainingCreatedEvent} within the same transaction.
      *
      * @param trainingRequest the request containing the details of the new training
      * @param user the user associated with the training
      * @return Training object
      */
+    @Transactional
     public Training createTraining(TrainingRequest trainingRequest, User user) {
-        Training training = new Training(
-                user,
-                trainingRequest.getStartTime(),
-                trainingRequest.getEndTime(),
-                trainingRequest.getActivityType(),
-                trainingRequest.getDistance(),
-                trainingRequest.getAverageSpeed()
-        );
-        return trainingRepository.save(training);
+        Training training = trainingRepository.save(trainingMapper.toEntity(trainingRequest, user));
+        eventPublisher.publishEvent(new TrainingCreatedEvent(TrainingSnapshot.of(training)));
+        changeVersions.trainingsChanged(List.of(user.getId()));
+        return training;
+    }
+
+    /**
+     * Stores all given trainings in a single transaction, publishing a single {@link TrainingsCreatedEvent} for all of them.
+     * Sequence-generated IDs let Hibernate send the inserts as JDBC batches.
+     *
+     * @param trainings new trainings to be stored
+     * @return the stored trainings, in the same order
+     */
+    @Transactional
+    public List<Training> createTrainings(List<Training> trainings) {
+        List<Training> saved = trainingRepository.saveAll(trainings);
+        List<TrainingSnapshot> snapshots = saved.stream().map(TrainingSnapshot::of).toList();
+        eventPublisher.publishEvent(new TrainingsCreatedEvent(snapshots));
+        changeVersions.trainingsChanged(snapshots.stream().map(TrainingSnapshot::userId).collect(Collectors.toSet()));
+        trainingRepository.flush();
+        return saved;
     }
 
     /**
@@ -78,7 +114,7 @@ public class TrainingServiceImpl implements TrainingProvider {
      * @param date the date after which trainings are to be retrieved
      * @return List of trainings
      */
-    public List<Training> getCompletedTrainingsAfter(Date date) {
+    public List<Training> getCompletedTrainingsAfter(Instant date) {
         return trainingRepository.findAllByEndTimeAfter(date);
     }
 
@@ -93,8 +129,101 @@ public class TrainingServiceImpl implements TrainingProvider {
         return trainingRepository.findAllByActivityType(activityType);
     }
 
+    @Override
+    public List<TrainingDto> getAllTrainings(long afterId, int limit) {
+        return trainingRepository.findDtoPage(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TrainingDto> getTrainingsByUserId(Long userId, long afterId, int limit) {
+        return trainingRepository.findDtoPageByUserId(userId, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TrainingDto> getCompletedTrainingsAfter(Instant date, long afterId, int limit) {
+        return trainingRepository.findDtoPageByEndTimeAfter(date, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TrainingDto> getTrainingsEndedBetween(Instant from, Instant to, long afterId, int limit) {
+        return trainingRepository.findDtoPageByEndTimeBetween(from, to, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TrainingDto> getTrainingsByActivityType(ActivityType activityType, long afterId, int limit) {
+        return trainingRepository.findDtoPageByActivityType(activityType, afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<TrainingDto> searchTrainings(TrainingSearchCriteria criteria, long afterId, int limit) {
+        return trainingRepository.search(criteria, afterId, limit);
+    }
+
+    /**
+     * Passes every training, ordered by ID, to the given action while reading them from a database cursor.
+     * Trainings are read as unmanaged {@link TrainingDto}s, so memory use does not grow with the number of trainings.
+     *
+     * @param action action invoked for every training
+     */
+    @Transactional(readOnly = true)
+    public void forEachTraining(Consumer<TrainingDto> action) {
+        consume(trainingRepository.streamDtos(), action);
+    }
+
+    /**
+     * Streaming counterpart of {@link #getTrainingsByUserId(Long)}, see {@link #forEachTraining(Consumer)}.
+     *
+     * @param userId the ID of the user
+     * @param action action invoked for every training
+     */
+    @Transactional(readOnly = true)
+    public void forEachTrainingByUserId(Long userId, Consumer<TrainingDto> action) {
+        consume(trainingRepository.streamDtosByUserId(userId), action);
+    }
+
+    /**
+     * Streaming counterpart of {@link #getCompletedTrainingsAfter(Instant)}, see {@link #forEachTraining(Consumer)}.
+     *
+     * @param date   the date after which trainings are to be retrieved
+     * @param action action invoked for every training
+     */
+    @Transactional(readOnly = true)
+    public void forEachCompletedTrainingAfter(Instant date, Consumer<TrainingDto> action) {
+        consume(trainingRepository.streamDtosByEndTimeAfter(date), action);
+    }
+
+    /**
+     * Streaming counterpart of {@link #getTrainingsEndedBetween(Instant, Instant, long, int)}, see {@link #forEachTraining(Consumer)}.
+     *
+     * @param from   inclusive start of the range
+     * @param to     exclusive end of the range
+     * @param action action invoked for every training
+     */
+    @Transactional(readOnly = true)
+    public void forEachTrainingEndedBetween(Instant from, Instant to, Consumer<TrainingDto> action) {
+        consume(trainingRepository.streamDtosByEndTimeBetween(from, to), action);
+    }
+
+    /**
+     * Streaming counterpart of {@link #getTrainingsByActivityType(ActivityType)}, see {@link #forEachTraining(Consumer)}.
+     *
+     * @param activityType the type of activity
+     * @param action       action invoked for every training
+     */
+    @Transactional(readOnly = true)
+    public void forEachTrainingByActivityType(ActivityType activityType, Consumer<TrainingDto> action) {
+        consume(trainingRepository.streamDtosByActivityType(activityType), action);
+    }
+
+    private static void consume(Stream<TrainingDto> trainings, Consumer<TrainingDto> action) {
+        try (trainings) {
+            trainings.forEach(action);
+        }
+    }
+
     /**
      * Updates an existing training with new data from the provided TrainingRequest and reassigns the user.
+     * Publishes a {@link TrainingUpdatedEvent} carrying the state before and after the update within the same transaction.
      *
      * @param trainingId the ID of the training to be updated
      * @param trainingRequest the request containing the updated training details
@@ -102,10 +231,12 @@ public class TrainingServiceImpl implements TrainingProvider {
      * @return the updated Training object
      * @throws IllegalArgumentException if no training is found with the specified ID
      */
+    @Transactional
     public Training updateTraining(Long trainingId, TrainingRequest trainingRequest, User user) {
         // Znajdź istniejący trening
         Training training = trainingRepository.findById(trainingId)
                 .orElseThrow(() -> new IllegalArgumentException("Training not found with ID: " + trainingId));
+        TrainingSnapshot previous = TrainingSnapshot.of(training);
 
         // Aktualizuj dane treningu
         training.updateStartTime(trainingRequest.getStartTime());
@@ -116,9 +247,10 @@ public class TrainingServiceImpl implements TrainingProvider {
         training.setUser(user);
 
         // Zapisz zmiany
-        return trainingRepository.save(training);
+        Training updatedTraining = trainingRepository.save(training);
+        eventPublisher.publishEvent(new TrainingUpdatedEvent(previous, TrainingSnapshot.of(updatedTraining)));
+        changeVersions.trainingsChanged(List.of(previous.userId(), user.getId()));
+        return updatedTraining;
     }
 
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-
 }
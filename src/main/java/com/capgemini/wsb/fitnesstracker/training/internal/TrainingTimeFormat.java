@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+
+/**
+ * Shared, immutable formats of the training times. Unlike {@code SimpleDateFormat}, the formatters are thread-safe,
+ * so a single instance serves all requests without locking or per-call allocation of the format itself.
+ * <p>
+ * Times are written in UTC with millisecond precision and an explicit offset, e.g. {@code 2024-01-19T08:00:00.000+00:00}.
+ * Parsing accepts an ISO date with an optional time and an optional offset; a missing time means midnight and a
+ * missing offset means UTC, e.g. {@code 2024-01-19}, {@code 2024-01-19T08:00:00} or {@code 2024-01-19T10:00:00+02:00}.
+ */
+public final class TrainingTimeFormat {
+
+    /**
+     * Formatter writing training times.
+     */
+    public static final DateTimeFormatter PRINTER = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSxxx", Locale.ROOT)
+            .withZone(ZoneOffset.UTC);
+
+    /**
+     * Lenient formatter reading training times, see the class description.
+     */
+    public static final DateTimeFormatter PARSER = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart()
+            .appendLiteral('T')
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .optionalEnd()
+            .optionalStart()
+            .appendOffsetId()
+            .optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .parseDefaulting(ChronoField.OFFSET_SECONDS, 0)
+            .toFormatter(Locale.ROOT)
+            .withChronology(IsoChronology.INSTANCE)
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private TrainingTimeFormat() {
+    }
+
+    /**
+     * Parses a training time, see the class description for the accepted forms.
+     *
+     * @param text text to be parsed
+     * @return parsed instant
+     * @throws DateTimeParseException if the text cannot be parsed
+     */
+    public static Instant parse(CharSequence text) {
+        return PARSER.parse(text, Instant::from);
+    }
+
+    /**
+     * Formats a training time.
+     *
+     * @param instant instant to be formatted
+     * @return the instant in UTC, with millisecond precision and an explicit offset
+     */
+    public static String format(Instant instant) {
+        return PRINTER.format(instant);
+    }
+
+    /**
+     * Returns the first instant of the given day in UTC, the time zone training days are counted in.
+     *
+     * @param date day to be converted
+     * @return midnight UTC of the given day
+     */
+    public static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import java.time.LocalDate;
+
+/**
+ * Keyset pagination cursor for user lists ordered by birthdate (youngest first) and ID.
+ * Points at the last user of the previously returned page.
+ *
+ * @param birthdate birthdate of the last returned user
+ * @param id        ID of the last returned user
+ */
+public record BirthdateCursor(LocalDate birthdate, Long id) {
+
+}
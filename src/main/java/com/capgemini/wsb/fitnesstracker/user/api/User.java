@@ -6,12 +6,16 @@ import lombok.*;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Setter
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "ux_users_email_normalized", columnList = "email_normalized", unique = true),
+        @Index(name = "idx_users_birthdate", columnList = "birthdate DESC, id DESC")
+})
 @ToString
 public class User {
 
@@ -32,6 +36,14 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Lower-cased, trimmed copy of {@link #email} kept in sync on every persist and update.
+     * Backs the case-insensitive email lookup with a unique index instead of a full table scan.
+     */
+    @Column(name = "email_normalized", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
     public User(
             final String firstName,
             final String lastName,
@@ -43,5 +55,21 @@ public class User {
         this.birthdate = birthdate;
         this.email = email;
     }
+
+    /**
+     * Normalizes the given email address the same way it is stored in the {@code email_normalized} column.
+     *
+     * @param email email address to normalize
+     * @return trimmed, lower-cased email, or {@code null} if {@code email} is {@code null}
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncNormalizedEmail() {
+        this.emailNormalized = normalizeEmail(email);
+    }
 }
 
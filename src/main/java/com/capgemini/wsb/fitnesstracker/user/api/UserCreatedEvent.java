@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Published when a new {@link User} is stored.
+ * Listeners are invoked synchronously, inside the transaction that stores the user.
+ *
+ * @param userId    ID of the created user
+ * @param firstName first name of the user
+ * @param lastName  last name of the user
+ * @param email     email address of the user
+ */
+public record UserCreatedEvent(Long userId, String firstName, String lastName, String email) {
+
+}
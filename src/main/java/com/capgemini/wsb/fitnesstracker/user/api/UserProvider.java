@@ -1,5 +1,8 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,33 @@ public interface UserProvider {
      */
     Optional<User> getUser(Long userId);
 
+    /**
+     * Retrieves all users with the given IDs in a single query.
+     * IDs without a matching user are skipped.
+     *
+     * @param userIds ids of the users to be searched
+     * @return users found for the given IDs, in no particular order
+     */
+    List<User> getUsers(Collection<Long> userIds);
+
+    /**
+     * Retrieves the name of a user based on their ID, served from an in-memory cache when possible.
+     * Meant for existence checks and display purposes, where loading the whole entity is not needed.
+     *
+     * @param userId id of the user to be searched
+     * @return An {@link Optional} containing the user's summary, or {@link Optional#empty()} if not found
+     */
+    Optional<UserSimpleDto> getUserSummary(Long userId);
+
+    /**
+     * Returns a reference to the user with the given ID without querying the database,
+     * e.g. to set it as the owner of a new entity. Accessing anything but the ID loads the user.
+     *
+     * @param userId id of an existing user
+     * @return reference to the user
+     */
+    User getUserReference(Long userId);
+
     /**
      * Retrieves a user based on their email.
      * If the user with given email is not found, then {@link Optional#empty()} will be returned.
@@ -38,4 +68,25 @@ public interface UserProvider {
      */
     List<User> getUsersOlderThan(int age);
 
+    /**
+     * Retrieves a single page of users who are older than the given age, youngest first.
+     *
+     * @param age   The age at which to filter users
+     * @param after cursor pointing at the last user of the previous page, or {@code null} for the first page
+     * @param limit maximum number of users to return
+     * @return A page of users who are older than the given age
+     */
+    List<User> getUsersOlderThan(int age, @Nullable BirthdateCursor after, int limit);
+
+    /**
+     * Retrieves a single page of users who are older than {@code minAge} and younger than {@code maxAge}, youngest first.
+     *
+     * @param minAge users must be older than this age
+     * @param maxAge users must be younger than this age
+     * @param after  cursor pointing at the last user of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of users to return
+     * @return A page of users within the given age range
+     */
+    List<User> getUsersWithAgeBetween(int minAge, int maxAge, @Nullable BirthdateCursor after, int limit);
+
 }
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import java.util.List;
+
+/**
+ * Published once when a batch of new {@link User}s is stored, instead of a {@link UserCreatedEvent} per user.
+ * Listeners are invoked synchronously, inside the transaction that stores the users.
+ *
+ * @param users the created users
+ */
+public record UsersCreatedEvent(List<UserCreatedEvent> users) {
+
+}
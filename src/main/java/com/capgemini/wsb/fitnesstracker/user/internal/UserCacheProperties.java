@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-memory caches kept in front of the {@link UserRepository} lookups.
+ */
+@ConfigurationProperties(prefix = "users.cache")
+@Getter
+class UserCacheProperties {
+
+    /**
+     * Maximum number of email to user ID mappings kept in memory.
+     */
+    private final long emailMaxSize;
+
+    /**
+     * Maximum number of user ID to user summary mappings kept in memory.
+     */
+    private final long idMaxSize;
+
+    /**
+     * How long a user summary is kept, bounding staleness after changes made outside the user service.
+     */
+    private final Duration idExpireAfterWrite;
+
+    UserCacheProperties(@DefaultValue("10000") long emailMaxSize,
+                        @DefaultValue("10000") long idMaxSize,
+                        @DefaultValue("10m") Duration idExpireAfterWrite) {
+        this.emailMaxSize = emailMaxSize;
+        this.idMaxSize = idMaxSize;
+        this.idExpireAfterWrite = idExpireAfterWrite;
+    }
+
+}
@@ -1,13 +1,36 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.user.api.BirthdateCursor;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.version.api.ChangeVersions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/v1/users")
@@ -15,29 +38,49 @@ import java.util.Optional;
 @Slf4j
 class UserController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final UserServiceImpl userService;
     private final UserMapper userMapper;
+    private final UserImporter userImporter;
+    private final ChangeVersions changeVersions;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Streams all users as a JSON array, ordered by ID. Each user is written as soon as it is read from the database
+     * cursor, so neither the users nor the response are held in memory.
+     * Answers with 304 Not Modified, without querying the database, if no user changed since the ETag sent in
+     * {@code If-None-Match}.
+     *
+     * @param request  request carrying the conditional headers
+     * @param response response the users are written to
+     * @throws IOException if writing the response fails
+     */
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.findAllUsers()
-                .stream()
-                .map(userMapper::toDto)
-                .toList();
+    public void getAllUsers(WebRequest request, HttpServletResponse response) throws IOException {
+        if (request.checkNotModified(changeVersions.usersETag())) {
+            return;
+        }
+        writeJsonArray(response, userService::forEachUser);
     }
 
     /**
-     * Retrieves a list of basic user information.
-     * Fetches all user records from the database and maps them to a list of UserBasicDto objects.
+     * Streams the basic information of all users as a JSON array, ordered by ID.
+     * Users are read and written like in {@link #getAllUsers(WebRequest, HttpServletResponse)}, including the answer
+     * to conditional requests.
      *
-     * @return A list of UserBasicDto objects containing basic user information.
+     * @param request  request carrying the conditional headers
+     * @param response response the users are written to
+     * @throws IOException if writing the response fails
      */
     @GetMapping("/basic-info")
-    public List<UserBasicDto> getAllUsersBasicInfo() {
-        return userService.findAllUsers()
-                .stream()
-                .map(userMapper::toBasicInfoDto)
-                .toList();
+    public void getAllUsersBasicInfo(WebRequest request, HttpServletResponse response) throws IOException {
+        if (request.checkNotModified(changeVersions.usersETag())) {
+            return;
+        }
+        writeJsonArray(response, userService::forEachUserBasicInfo);
     }
 
     /**
@@ -82,6 +125,61 @@ class UserController {
         return null;
     }
 
+    /**
+     * Creates many users from newline-delimited JSON, each line shaped like the body of {@link #addUser(UserDto)}.
+     * The upload is processed in chunks, see {@link UserImporter}; every row gets its own result, written as a JSON
+     * array in upload order, so invalid rows and emails already in use do not prevent the other users from being stored.
+     *
+     * @param request  request carrying the uploaded users
+     * @param response response the per-row results are written to
+     * @throws IOException if reading the request or writing the response fails
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (MappingIterator<UserDto> users = objectMapper.readerFor(UserDto.class).readValues(request.getInputStream())) {
+            this.<UserImportResult>writeJsonArray(response, results -> userImporter.importNdjson(users, results));
+        }
+    }
+
+    /**
+     * Creates many users from CSV, like {@link #importUsers(HttpServletRequest, HttpServletResponse)}.
+     * The header must name the firstName, lastName, birthdate and email columns, in any order; other columns, such as
+     * the id written by the export, are ignored. Birthdates are ISO dates.
+     *
+     * @param request  request carrying the uploaded users
+     * @param response response the per-row results are written to
+     * @throws IOException       if reading the request or writing the response fails
+     * @throws BusinessException if the header lacks one of the columns
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public void importUsersFromCsv(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserCsv.RecordReader csv = new UserCsv.RecordReader(request.getReader());
+        Map<String, Integer> columns = csv.readHeader(UserCsv.IMPORT_COLUMNS);
+        this.<UserImportResult>writeJsonArray(response, results -> userImporter.importCsv(csv, columns, results));
+    }
+
+    /**
+     * Streams all users, ordered by ID, as a file download. Users are written as they are read from the database
+     * cursor, so memory use does not grow with the number of users. The CSV export can be imported again.
+     *
+     * @param format   {@code ndjson} (default) or {@code csv}
+     * @param response response the users are written to
+     * @throws IOException       if writing the response fails
+     * @throws BusinessException if the format is unknown
+     */
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = parse(ExportFormat.class, format);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("users." + exportFormat.name().toLowerCase())
+                .build()
+                .toString());
+        switch (exportFormat) {
+            case CSV -> writeCsv(response);
+            case NDJSON -> writeNdjson(response);
+        }
+    }
+
     /**
      * Deletes a user by their ID.
      * Logs the user ID to be deleted, and throws an exception if there is an error.
@@ -103,15 +201,45 @@ class UserController {
 
 
     /**
-     * Retrieves a list of users older than the specified age.
-     * Filters users by age and returns only those who are older than the provided age parameter.
+     * Retrieves a page of users older than the specified age, youngest first.
+     * The birthdate cutoff is evaluated by an indexed database query; further pages are requested with the
+     * birthdate and ID of the last user of the previous page.
      *
-     * @param age The age threshold to filter users.
+     * @param age            The age threshold to filter users.
+     * @param afterBirthdate birthdate of the last user of the previous page, omitted for the first page.
+     * @param afterId        ID of the last user of the previous page, omitted for the first page.
+     * @param limit          maximum number of users in the page.
      * @return A list of UserDto objects for users older than the specified age.
      */
     @GetMapping("/older-than/{age}")
-    public List<UserDto> getUsersOlderThan(@PathVariable int age) {
-        return userService.getUsersOlderThan(age)
+    public List<UserDto> getUsersOlderThan(@PathVariable int age,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate afterBirthdate,
+                                           @RequestParam(required = false) Long afterId,
+                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return userService.getUsersOlderThan(age, toCursor(afterBirthdate, afterId), pageSize(limit))
+                .stream()
+                .map(userMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves a page of users older than {@code minAge} and younger than {@code maxAge}, youngest first.
+     * Uses the same keyset pagination as {@link #getUsersOlderThan(int, LocalDate, Long, int)}.
+     *
+     * @param minAge         users must be older than this age.
+     * @param maxAge         users must be younger than this age.
+     * @param afterBirthdate birthdate of the last user of the previous page, omitted for the first page.
+     * @param afterId        ID of the last user of the previous page, omitted for the first page.
+     * @param limit          maximum number of users in the page.
+     * @return A list of UserDto objects for users within the age range.
+     */
+    @GetMapping("/older-than/{minAge}/younger-than/{maxAge}")
+    public List<UserDto> getUsersWithAgeBetween(@PathVariable int minAge,
+                                                @PathVariable int maxAge,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate afterBirthdate,
+                                                @RequestParam(required = false) Long afterId,
+                                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return userService.getUsersWithAgeBetween(minAge, maxAge, toCursor(afterBirthdate, afterId), pageSize(limit))
                 .stream()
                 .map(userMapper::toDto)
                 .toList();
@@ -137,4 +265,87 @@ class UserController {
             throw new IllegalArgumentException("Problem while updating user with email: " + userEmail + ". " + e.getMessage());
         }
     }
+
+    /**
+     * Writes every user produced by the given source as an element of a JSON array, without collecting them first.
+     * The generator is closed only on success: a failure must not end the array and pass a partial list as complete.
+     *
+     * @param response response the users are written to
+     * @param source   streaming service call feeding each user to the given consumer
+     * @throws IOException if writing the response fails
+     */
+    private <T> void writeJsonArray(HttpServletResponse response, Consumer<Consumer<T>> source) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        source.accept(user -> {
+            try {
+                writer.writeValue(generator, user);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    private void writeNdjson(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            userService.forEachUser(user -> {
+                try {
+                    writer.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CSV_VALUE + ";charset=UTF-8");
+        Writer writer = response.getWriter();
+        UserCsv.writeRecord(writer, UserCsv.COLUMNS);
+        userService.forEachUser(user -> {
+            try {
+                UserCsv.writeRecord(writer, Arrays.asList(user.Id(), user.firstName(), user.lastName(), user.birthdate(), user.email()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static BirthdateCursor toCursor(LocalDate afterBirthdate, Long afterId) {
+        if (afterBirthdate == null && afterId == null) {
+            return null;
+        }
+        if (afterBirthdate == null || afterId == null) {
+            throw new BusinessException("Both afterBirthdate and afterId are required to request the next page");
+        }
+        return new BirthdateCursor(afterBirthdate, afterId);
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new BusinessException("Page limit must be positive, got " + limit);
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown %s: %s".formatted(type.getSimpleName(), value));
+        }
+    }
+
+    private enum ExportFormat {
+        CSV,
+        NDJSON
+    }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV format of the user import and export, following RFC 4180: comma separated fields, optionally enclosed in double
+ * quotes, which allows commas, line breaks and doubled double quotes inside them. The first record names the columns.
+ */
+final class UserCsv {
+
+    static final List<String> COLUMNS = List.of("id", "firstName", "lastName", "birthdate", "email");
+    static final List<String> IMPORT_COLUMNS = List.of("firstName", "lastName", "birthdate", "email");
+
+    /**
+     * Upper bound of a single record, so that a missing closing quote cannot make the reader buffer the whole upload.
+     */
+    private static final int MAX_RECORD_LENGTH = 16 * 1024;
+
+    private UserCsv() {
+    }
+
+    /**
+     * Writes one record, quoting the fields that need it.
+     *
+     * @param writer destination of the record
+     * @param fields values of the record, {@code null} written as an empty field
+     * @throws IOException if writing fails
+     */
+    static void writeRecord(Writer writer, List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object field = fields.get(i);
+            String value = field == null ? "" : field.toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Reads records one at a time, never holding more than the current one.
+     */
+    static final class RecordReader {
+
+        private final Reader reader;
+        private int next = -2;
+
+        RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Reads the header and tells the position of each of the required columns, ignoring any others.
+         * Column names are matched case-insensitively.
+         *
+         * @param required names of the columns that must be present
+         * @return position of every required column in the records, by column name
+         * @throws BusinessException if the input is empty or a required column is missing
+         * @throws IOException       if reading fails
+         */
+        Map<String, Integer> readHeader(List<String> required) throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new BusinessException("CSV input is empty, expected a header with the columns " + required);
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (String column : required) {
+                Integer position = positions.get(column.toLowerCase(Locale.ROOT));
+                if (position == null) {
+                    throw new BusinessException("CSV header %s lacks the column '%s'".formatted(header, column));
+                }
+                columns.put(column, position);
+            }
+            return columns;
+        }
+
+        /**
+         * @return fields of the next record, or {@code null} at the end of the input
+         * @throws MalformedCsvException if a quoted field is not closed or a record is too long; the rest of the input
+         *                               cannot be read reliably after that
+         * @throws IOException           if reading fails
+         */
+        @Nullable
+        List<String> readRecord() throws IOException {
+            if (peek() == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            int length = 0;
+            boolean quoted = false;
+            while (true) {
+                int c = read();
+                if (++length > MAX_RECORD_LENGTH) {
+                    throw new MalformedCsvException("Record is longer than %s characters".formatted(MAX_RECORD_LENGTH));
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new MalformedCsvException("Quoted field is not closed");
+                    } else if (c == '"' && peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private int peek() throws IOException {
+            if (next == -2) {
+                next = reader.read();
+            }
+            return next;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            next = -2;
+            return c;
+        }
+
+    }
+
+    /**
+     * Thrown when the CSV input cannot be split into records anymore.
+     */
+    static final class MalformedCsvException extends IOException {
+
+        MalformedCsvException(String message) {
+            super(message);
+        }
+
+    }
+
+}
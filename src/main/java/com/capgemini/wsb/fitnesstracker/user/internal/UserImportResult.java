@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Outcome of a single row of a user import.
+ *
+ * @param index  zero-based position of the row in the upload, not counting the CSV header
+ * @param status whether the user was created or rejected
+ * @param userId ID of the created user, {@code null} if rejected
+ * @param error  reason of the rejection, {@code null} if created
+ */
+record UserImportResult(int index,
+                        Status status,
+                        @Nullable Long userId,
+                        @Nullable String error) {
+
+    enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    static UserImportResult created(int index, Long userId) {
+        return new UserImportResult(index, Status.CREATED, userId, null);
+    }
+
+    static UserImportResult rejected(int index, String error) {
+        return new UserImportResult(index, Status.REJECTED, null, error);
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users uploaded in bulk as CSV or newline-delimited JSON. Rows are read and stored in chunks, so memory use
+ * does not grow with the size of the upload: the emails of a chunk are checked against the database with a single
+ * query and its users are inserted in one transaction using JDBC batching.
+ * Invalid rows are rejected individually without failing the rest of the upload. If storing a chunk fails anyway, e.g.
+ * because an email was registered meanwhile, its users are stored one by one, rejecting only the conflicting ones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserImporter {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final UserServiceImpl userService;
+    private final UserRepository userRepository;
+
+    /**
+     * Imports every user produced by the iterator and reports the outcome of each of them, in upload order.
+     *
+     * @param requests iterator over the uploaded users
+     * @param results  consumer receiving the result of every uploaded row
+     */
+    void importNdjson(MappingIterator<UserDto> requests, Consumer<UserImportResult> results) {
+        importRows(() -> requests.hasNextValue() ? new Row(requests.nextValue(), null) : null, results);
+    }
+
+    /**
+     * Imports every record of the CSV input whose header was already read, see {@link #importNdjson}.
+     *
+     * @param csv     reader positioned after the header
+     * @param columns position of each of the {@link UserCsv#IMPORT_COLUMNS} in the records
+     * @param results consumer receiving the result of every uploaded row
+     */
+    void importCsv(UserCsv.RecordReader csv, Map<String, Integer> columns, Consumer<UserImportResult> results) {
+        importRows(() -> {
+            List<String> fields = csv.readRecord();
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                fields = csv.readRecord();
+            }
+            return fields == null ? null : toRow(fields, columns);
+        }, results);
+    }
+
+    private void importRows(RowReader reader, Consumer<UserImportResult> results) {
+        long started = System.nanoTime();
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        int index = 0;
+        int created = 0;
+        boolean readable = true;
+        while (readable) {
+            try {
+                Row row = reader.read();
+                if (row == null) {
+                    break;
+                }
+                chunk.add(new Item(index, row.user(), row.error()));
+            } catch (JsonParseException e) {
+                // malformed input cannot be resynchronized, the rest of the upload is skipped
+                chunk.add(new Item(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+                readable = false;
+            } catch (UserCsv.MalformedCsvException e) {
+                chunk.add(new Item(index, null, "Malformed CSV: " + e.getMessage()));
+                readable = false;
+            } catch (IOException e) {
+                chunk.add(new Item(index, null, "Invalid user: " + e.getMessage()));
+            }
+            index++;
+            if (chunk.size() == CHUNK_SIZE) {
+                created += importChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, results);
+        }
+        log.info("Imported {} of {} users in {} ms", created, index, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private int importChunk(List<Item> chunk, Consumer<UserImportResult> results) {
+        Set<String> emails = chunk.stream()
+                .map(Item::user)
+                .filter(Objects::nonNull)
+                .map(user -> User.normalizeEmail(user.email()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> takenEmails = new HashSet<>(emails.isEmpty() ? Set.of() : userRepository.findExistingEmails(emails));
+
+        UserImportResult[] chunkResults = new UserImportResult[chunk.size()];
+        List<Integer> acceptedPositions = new ArrayList<>(chunk.size());
+        List<User> users = new ArrayList<>(chunk.size());
+        for (int position = 0; position < chunk.size(); position++) {
+            Item item = chunk.get(position);
+            String error = validate(item, takenEmails);
+            if (error != null) {
+                chunkResults[position] = UserImportResult.rejected(item.index(), error);
+            } else {
+                acceptedPositions.add(position);
+                users.add(toEntity(item.user()));
+            }
+        }
+
+        int created = 0;
+        try {
+            List<Long> ids = userService.createUsers(users);
+            for (int i = 0; i < ids.size(); i++) {
+                int position = acceptedPositions.get(i);
+                chunkResults[position] = UserImportResult.created(chunk.get(position).index(), ids.get(i));
+            }
+            created = ids.size();
+        } catch (DataAccessException e) {
+            // e.g. an email registered concurrently since the chunk was checked; only the conflicting rows are rejected
+            log.warn("Failed to store chunk of {} users, storing them one by one", users.size(), e);
+            for (int i = 0; i < users.size(); i++) {
+                int position = acceptedPositions.get(i);
+                int index = chunk.get(position).index();
+                try {
+                    Long id = userService.createUsers(List.of(users.get(i))).get(0);
+                    chunkResults[position] = UserImportResult.created(index, id);
+                    created++;
+                } catch (DataAccessException rowFailure) {
+                    chunkResults[position] = UserImportResult.rejected(index, rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+
+        for (UserImportResult result : chunkResults) {
+            results.accept(result);
+        }
+        return created;
+    }
+
+    /**
+     * Validates the row, adding its email to the taken ones if valid, so a later row with the same email is rejected.
+     *
+     * @return the reason to reject the row, {@code null} if valid
+     */
+    @Nullable
+    private static String validate(Item item, Set<String> takenEmails) {
+        if (item.error() != null) {
+            return item.error();
+        }
+        UserDto user = Objects.requireNonNull(item.user());
+        List<String> errors = new ArrayList<>();
+        if (isBlank(user.firstName())) {
+            errors.add("firstName must not be blank");
+        }
+        if (isBlank(user.lastName())) {
+            errors.add("lastName must not be blank");
+        }
+        if (user.birthdate() == null) {
+            errors.add("birthdate must not be null");
+        } else if (user.birthdate().isAfter(LocalDate.now())) {
+            errors.add("birthdate must not be in the future");
+        }
+        if (isBlank(user.email())) {
+            errors.add("email must not be blank");
+        } else if (!isEmail(user.email().trim())) {
+            errors.add("email is not a valid address");
+        }
+        if (!errors.isEmpty()) {
+            return String.join(", ", errors);
+        }
+        if (!takenEmails.add(User.normalizeEmail(user.email()))) {
+            return "User with email " + user.email().trim() + " already exists.";
+        }
+        return null;
+    }
+
+    private static Row toRow(List<String> fields, Map<String, Integer> columns) {
+        int required = columns.values().stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        if (fields.size() < required) {
+            return new Row(null, "Expected at least %s fields, got %s".formatted(required, fields.size()));
+        }
+        String birthdate = fields.get(columns.get("birthdate")).trim();
+        LocalDate parsedBirthdate;
+        try {
+            parsedBirthdate = birthdate.isEmpty() ? null : LocalDate.parse(birthdate);
+        } catch (DateTimeParseException e) {
+            return new Row(null, "Invalid birthdate: " + birthdate);
+        }
+        return new Row(new UserDto(null,
+                                   fields.get(columns.get("firstName")),
+                                   fields.get(columns.get("lastName")),
+                                   parsedBirthdate,
+                                   fields.get(columns.get("email"))),
+                       null);
+    }
+
+    private static User toEntity(UserDto user) {
+        return new User(user.firstName().trim(), user.lastName().trim(), user.birthdate(), user.email().trim());
+    }
+
+    private static boolean isBlank(@Nullable String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isEmail(String email) {
+        int at = email.indexOf('@');
+        return at > 0 && at == email.lastIndexOf('@') && at < email.length() - 1 && email.chars().noneMatch(Character::isWhitespace);
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+
+        /**
+         * @return the next row, or {@code null} at the end of the upload
+         */
+        @Nullable
+        Row read() throws IOException;
+
+    }
+
+    private record Row(@Nullable UserDto user, @Nullable String error) {
+
+    }
+
+    private record Item(int index, @Nullable UserDto user, @Nullable String error) {
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, in-memory caches in front of the user lookups, with hit and miss counts exported as {@code cache.*} metrics.
+ * Email entries are only hints: callers must verify the user loaded by the cached ID still has the requested email.
+ * Summary entries must be evicted whenever the user is updated or deleted.
+ */
+@Component
+class UserLookupCache {
+
+    private final Cache<String, Long> emailToId;
+    private final Cache<Long, UserSimpleDto> idToSummary;
+
+    UserLookupCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.emailToId = Caffeine.newBuilder()
+                .maximumSize(properties.getEmailMaxSize())
+                .recordStats()
+                .build();
+        this.idToSummary = Caffeine.newBuilder()
+                .maximumSize(properties.getIdMaxSize())
+                .expireAfterWrite(properties.getIdExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, emailToId, "users.by-email");
+        CaffeineCacheMetrics.monitor(meterRegistry, idToSummary, "users.by-id");
+    }
+
+    Optional<Long> getIdByEmail(String normalizedEmail) {
+        return Optional.ofNullable(emailToId.getIfPresent(normalizedEmail));
+    }
+
+    void putEmail(String normalizedEmail, Long userId) {
+        emailToId.put(normalizedEmail, userId);
+    }
+
+    void evictEmail(String normalizedEmail) {
+        emailToId.invalidate(normalizedEmail);
+    }
+
+    /**
+     * Returns the cached summary of the user, loading it on a miss. Missing users are not cached.
+     */
+    Optional<UserSimpleDto> getSummary(Long userId, Function<Long, Optional<UserSimpleDto>> loader) {
+        return Optional.ofNullable(idToSummary.get(userId, id -> loader.apply(id).orElse(null)));
+    }
+
+    void evictSummary(Long userId) {
+        idToSummary.invalidate(userId);
+    }
+
+}
@@ -1,40 +1,129 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Query searching users by email address. It matches by exact match.
+     * Number of rows fetched from the database per round trip when streaming users.
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Query searching users by email address. It matches case-insensitively, using the indexed normalized email column.
      *
      * @param email email of the user to search
      * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
      */
     default Optional<User> findByEmail(String email) {
-        return findAll().stream()
-                .filter(user -> user.getEmail() != null && user.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        return findByEmailNormalized(User.normalizeEmail(email));
     }
 
+    /**
+     * Query searching users by already normalized email address (see {@link User#normalizeEmail(String)}).
+     *
+     * @param emailNormalized trimmed, lower-cased email of the user to search
+     * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
+     */
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
 
     /**
-     * Query searching users older than a specific age.
+     * Tells which of the given normalized emails are already in use, with a single query on the unique email index.
      *
-     * @param age the age to compare against
-     * @return list of users older than the specified age
+     * @param emailsNormalized trimmed, lower-cased emails to look for
+     * @return those of the given emails that belong to a user
      */
-    default List<User> findUsersOlderThan(int age) {
-        LocalDate cutoffDate = LocalDate.now().minusYears(age);
-        return findAll().stream()
-                .filter(user -> user.getBirthdate() != null && user.getBirthdate().isBefore(cutoffDate))
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emailsNormalized);
+
+    /**
+     * Query searching users born before the given date, i.e. older than the age the date was computed from.
+     *
+     * @param cutoff exclusive upper bound of the birthdate
+     * @return list of users born before the cutoff date
+     */
+    List<User> findAllByBirthdateBefore(LocalDate cutoff);
+
+    /**
+     * Keyset query returning the next page of users ordered by birthdate descending (youngest first) and ID descending.
+     * The first page is requested with {@code afterBirthdate} set to the exclusive birthdate cutoff and {@code afterId} set to {@link Long#MIN_VALUE}.
+     *
+     * @param afterBirthdate birthdate of the last user of the previous page
+     * @param afterId        ID of the last user of the previous page
+     * @param limit          maximum number of users to return
+     * @return next page of users
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate < :afterBirthdate or (u.birthdate = :afterBirthdate and u.id < :afterId)
+            order by u.birthdate desc, u.id desc
+            """)
+    List<User> findPageBornBefore(@Param("afterBirthdate") LocalDate afterBirthdate,
+                                  @Param("afterId") Long afterId,
+                                  Limit limit);
+
+    /**
+     * Keyset query like {@link #findPageBornBefore(LocalDate, Long, Limit)}, additionally bounded by an exclusive lower birthdate.
+     *
+     * @param bornAfter      exclusive lower bound of the birthdate
+     * @param afterBirthdate birthdate of the last user of the previous page
+     * @param afterId        ID of the last user of the previous page
+     * @param limit          maximum number of users to return
+     * @return next page of users
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate > :bornAfter
+              and (u.birthdate < :afterBirthdate or (u.birthdate = :afterBirthdate and u.id < :afterId))
+            order by u.birthdate desc, u.id desc
+            """)
+    List<User> findPageBornBetween(@Param("bornAfter") LocalDate bornAfter,
+                                   @Param("afterBirthdate") LocalDate afterBirthdate,
+                                   @Param("afterId") Long afterId,
+                                   Limit limit);
+
+    /**
+     * Streams all users as {@link UserDto}s ordered by ID, without loading the entities.
+     * Must be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of all users
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserDto(u.id, u.firstName, u.lastName, u.birthdate, u.email)
+            from User u
+            order by u.id
+            """)
+    Stream<UserDto> streamDtos();
+
+    /**
+     * Streams all users as {@link UserBasicDto}s ordered by ID, see {@link #streamDtos()}.
+     *
+     * @return stream of all users
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserBasicDto(u.id, concat(u.firstName, '_', u.lastName))
+            from User u
+            order by u.id
+            """)
+    Stream<UserBasicDto> streamBasicInfoDtos();
+}
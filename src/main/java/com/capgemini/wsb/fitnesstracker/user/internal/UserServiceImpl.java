@@ -1,30 +1,110 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.user.api.BirthdateCursor;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserCreatedEvent;
 import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.api.UserSimpleDto;
+import com.capgemini.wsb.fitnesstracker.user.api.UsersCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.version.api.ChangeVersions;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "service.invocations", description = "Duration of the service method calls")
 @RequiredArgsConstructor
 @Slf4j
 class UserServiceImpl implements UserService, UserProvider {
 
+    private static final String INSERT_USER = """
+            insert into users (first_name, last_name, birthdate, email, email_normalized)
+            values (?, ?, ?, ?, ?)
+            """;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserLookupCache userLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeVersions changeVersions;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
+    @Transactional
     public User createUser(final User user) {
         log.info("Creating User {}", user);
         if (user.getId() != null) {
             throw new IllegalArgumentException("User has already DB ID, update is not permitted!");
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(saved.getId(), saved.getFirstName(), saved.getLastName(), saved.getEmail()));
+        changeVersions.userChanged(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Stores all given users in a single JDBC batch, publishing a single {@link UsersCreatedEvent} for all of them.
+     * The users are inserted without being loaded into the persistence context; their emails must not be in use.
+     *
+     * @param users new users to be stored
+     * @return IDs of the stored users, in the same order
+     */
+    @Transactional
+    public List<Long> createUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, new String[]{"id"}),
+                                 new BatchPreparedStatementSetter() {
+                                     @Override
+                                     public void setValues(PreparedStatement statement, int i) throws SQLException {
+                                         User user = users.get(i);
+                                         statement.setString(1, user.getFirstName());
+                                         statement.setString(2, user.getLastName());
+                                         statement.setObject(3, user.getBirthdate());
+                                         statement.setString(4, user.getEmail());
+                                         statement.setString(5, User.normalizeEmail(user.getEmail()));
+                                     }
+
+                                     @Override
+                                     public int getBatchSize() {
+                                         return users.size();
+                                     }
+                                 },
+                                 keys);
+        List<Long> ids = new ArrayList<>(users.size());
+        List<UserCreatedEvent> created = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            Long id = ((Number) keys.getKeyList().get(i).get("id")).longValue();
+            ids.add(id);
+            created.add(new UserCreatedEvent(id, user.getFirstName(), user.getLastName(), user.getEmail()));
+        }
+        eventPublisher.publishEvent(new UsersCreatedEvent(created));
+        changeVersions.usersChanged(ids);
+        return ids;
     }
 
     @Override
@@ -32,9 +112,47 @@ class UserServiceImpl implements UserService, UserProvider {
         return userRepository.findById(userId);
     }
 
+    @Override
+    public List<User> getUsers(final Collection<Long> userIds) {
+        return userRepository.findAllById(userIds);
+    }
+
+    @Override
+    public Optional<UserSimpleDto> getUserSummary(final Long userId) {
+        return userLookupCache.getSummary(userId, id -> userRepository.findById(id).map(userMapper::toSimpleDto));
+    }
+
+    @Override
+    public User getUserReference(final Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    /**
+     * Retrieves a user by email, case-insensitively.
+     * A cached email to ID mapping turns the lookup into a primary key read; the mapping is dropped
+     * whenever the user loaded by the cached ID no longer has the requested email.
+     *
+     * @param email The email of the user to be searched
+     * @return An {@link Optional} containing the located user, or {@link Optional#empty()} if not found
+     */
     @Override
     public Optional<User> getUserByEmail(final String email) {
-        return userRepository.findByEmail(email);
+        String emailNormalized = User.normalizeEmail(email);
+        if (emailNormalized == null) {
+            return Optional.empty();
+        }
+
+        Optional<User> cached = userLookupCache.getIdByEmail(emailNormalized)
+                .flatMap(userRepository::findById)
+                .filter(user -> emailNormalized.equals(user.getEmailNormalized()));
+        if (cached.isPresent()) {
+            return cached;
+        }
+        userLookupCache.evictEmail(emailNormalized);
+
+        Optional<User> user = userRepository.findByEmailNormalized(emailNormalized);
+        user.ifPresent(found -> userLookupCache.putEmail(emailNormalized, found.getId()));
+        return user;
     }
 
     @Override
@@ -42,17 +160,75 @@ class UserServiceImpl implements UserService, UserProvider {
         return userRepository.findAll();
     }
 
+    /**
+     * Passes every user, ordered by ID, to the given action while reading them from a database cursor.
+     * Users are read as unmanaged {@link UserDto}s, so memory use does not grow with the number of users.
+     *
+     * @param action action invoked for every user
+     */
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<UserDto> action) {
+        consume(userRepository.streamDtos(), action);
+    }
+
+    /**
+     * Basic information counterpart of {@link #forEachUser(Consumer)}.
+     *
+     * @param action action invoked for every user
+     */
+    @Transactional(readOnly = true)
+    public void forEachUserBasicInfo(Consumer<UserBasicDto> action) {
+        consume(userRepository.streamBasicInfoDtos(), action);
+    }
+
+    private static <T> void consume(Stream<T> users, Consumer<T> action) {
+        try (users) {
+            users.forEach(action);
+        }
+    }
+
     @Override
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new UserNotFoundException("User with ID " + userId + " not found.");
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with ID " + userId + " not found."));
+        userLookupCache.evictEmail(user.getEmailNormalized());
+        userRepository.delete(user);
+        userLookupCache.evictSummary(userId);
+        changeVersions.userChanged(userId);
     }
 
     @Override
     public List<User> getUsersOlderThan(int age) {
-        return userRepository.findUsersOlderThan(age);
+        return userRepository.findAllByBirthdateBefore(LocalDate.now().minusYears(age));
+    }
+
+    @Override
+    public List<User> getUsersOlderThan(int age, @Nullable BirthdateCursor after, int limit) {
+        LocalDate bornBefore = LocalDate.now().minusYears(age);
+        BirthdateCursor cursor = startingCursor(bornBefore, after);
+        return userRepository.findPageBornBefore(cursor.birthdate(), cursor.id(), Limit.of(limit));
+    }
+
+    @Override
+    public List<User> getUsersWithAgeBetween(int minAge, int maxAge, @Nullable BirthdateCursor after, int limit) {
+        if (minAge >= maxAge) {
+            throw new BusinessException("Minimum age " + minAge + " must be lower than maximum age " + maxAge);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate bornBefore = today.minusYears(minAge);
+        LocalDate bornAfter = today.minusYears(maxAge);
+        BirthdateCursor cursor = startingCursor(bornBefore, after);
+        return userRepository.findPageBornBetween(bornAfter, cursor.birthdate(), cursor.id(), Limit.of(limit));
+    }
+
+    /**
+     * Resolves the keyset position to continue from, never starting above the given birthdate cutoff.
+     */
+    private static BirthdateCursor startingCursor(LocalDate bornBefore, @Nullable BirthdateCursor after) {
+        if (after == null || !after.birthdate().isBefore(bornBefore)) {
+            return new BirthdateCursor(bornBefore, Long.MIN_VALUE);
+        }
+        return after;
     }
 
     @Override
@@ -60,7 +236,19 @@ class UserServiceImpl implements UserService, UserProvider {
         if (user.getEmail() == null) {
             throw new IllegalArgumentException("User not found");
         }
-        return userRepository.save(user);
+        // normalized email still holds the value from before this update until the entity is flushed
+        if (user.getEmailNormalized() != null) {
+            userLookupCache.evictEmail(user.getEmailNormalized());
+        }
+        userLookupCache.evictEmail(User.normalizeEmail(user.getEmail()));
+        if (user.getId() != null) {
+            userLookupCache.evictSummary(user.getId());
+        }
+        User updatedUser = userRepository.save(user);
+        // evicted again, so a concurrent read cannot re-cache the previous name while the update was in flight
+        userLookupCache.evictSummary(updatedUser.getId());
+        changeVersions.userChanged(updatedUser.getId());
+        return updatedUser;
     }
 
 }
\ No newline at end of file
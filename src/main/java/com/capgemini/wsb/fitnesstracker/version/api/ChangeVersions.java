@@ -0,0 +1,133 @@
+package com.capgemini.wsb.fitnesstracker.version.api;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions of the user and training collections, turned into ETags so that polling clients can be answered
+ * with {@code 304 Not Modified} without querying the database.
+ * <p>
+ * Every change takes a new number from a single sequence, so a version never repeats, not even for a user deleted and
+ * created again. Changes are applied once their transaction commits, and readers must take the ETag before reading
+ * the data: a response may then carry an older version than its data, which costs a refetch, but never a newer one.
+ * Users whose trainings did not change since startup, or since {@link #allChanged()}, share a baseline version instead of
+ * an entry each.
+ * <p>
+ * Versions live in this instance only and restart with it, so ETags carry a token generated at startup and never
+ * match those of another instance. Only changes made through the services are tracked; code writing the tables
+ * directly must call {@link #allChanged()}.
+ */
+@Component
+public class ChangeVersions {
+
+    private final String instance = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> userTrainings = new ConcurrentHashMap<>();
+    private volatile long users;
+    private volatile long trainings;
+    private volatile long userTrainingsBaseline;
+
+    /**
+     * @return ETag of the list of all users
+     */
+    public String usersETag() {
+        return eTag(users);
+    }
+
+    /**
+     * @return ETag of the list of all trainings
+     */
+    public String trainingsETag() {
+        return eTag(trainings);
+    }
+
+    /**
+     * @param userId ID of the user, who does not need to exist
+     * @return ETag of the list of trainings of the user
+     */
+    public String trainingsETag(Long userId) {
+        return eTag(Math.max(userTrainings.getOrDefault(userId, 0L), userTrainingsBaseline));
+    }
+
+    /**
+     * Records that the user was created, updated or deleted. The user's name is shown in the training lists and the
+     * trainings of a missing user are not listed at all, so the training lists change as well.
+     *
+     * @param userId ID of the user
+     */
+    public void userChanged(Long userId) {
+        usersChanged(List.of(userId));
+    }
+
+    /**
+     * Records that the given users were created, updated or deleted, see {@link #userChanged(Long)}.
+     *
+     * @param userIds IDs of the users
+     */
+    public void usersChanged(Collection<Long> userIds) {
+        afterCommit(() -> {
+            long version = sequence.incrementAndGet();
+            userIds.forEach(userId -> userTrainings.put(userId, version));
+            trainings = version;
+            users = version;
+        });
+    }
+
+    /**
+     * Records that trainings of the given users were created or updated.
+     *
+     * @param userIds IDs of the users the trainings belong, or belonged before an update, to
+     */
+    public void trainingsChanged(Collection<Long> userIds) {
+        afterCommit(() -> {
+            long version = sequence.incrementAndGet();
+            userIds.forEach(userId -> userTrainings.put(userId, version));
+            trainings = version;
+        });
+    }
+
+    /**
+     * Records that any user or training may have changed, e.g. after rows were inserted without the services.
+     * Only the entries the new baseline supersedes are removed, so a concurrent change recorded meanwhile with a newer
+     * version is kept; one recorded with an older version is outweighed by the baseline when read.
+     */
+    public void allChanged() {
+        afterCommit(() -> {
+            long version = sequence.incrementAndGet();
+            userTrainingsBaseline = version;
+            userTrainings.values().removeIf(userVersion -> userVersion <= version);
+            trainings = version;
+            users = version;
+        });
+    }
+
+    private String eTag(long version) {
+        return "W/\"" + instance + "-" + version + "\"";
+    }
+
+    /**
+     * Runs the change once the current transaction commits, so that no reader can see the new version before the new
+     * data. Runs it right away outside a transaction and never if the transaction rolls back.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+}
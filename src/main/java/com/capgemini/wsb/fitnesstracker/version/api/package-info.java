@@ -0,0 +1,4 @@
+@NonNullByDefault
+package com.capgemini.wsb.fitnesstracker.version.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
\ No newline at end of file
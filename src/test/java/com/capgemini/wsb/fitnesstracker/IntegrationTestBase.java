@@ -58,5 +58,23 @@ public abstract class IntegrationTestBase {
         return trainingRepository.findAll();
     }
 
+    protected static String trainingRequest(User user, String activityType, Object startTime, Object endTime, double distance) {
+        return trainingRequest(user, activityType, startTime, endTime, distance, 10);
+    }
+
+    protected static String trainingRequest(User user, String activityType, Object startTime, Object endTime,
+                                            double distance, double averageSpeed) {
+        return """
+                {
+                    "userId": "%s",
+                    "startTime": "%s",
+                    "endTime": "%s",
+                    "activityType": "%s",
+                    "distance": %s,
+                    "averageSpeed": %s
+                }
+                """.formatted(user.getId(), startTime, endTime, activityType, distance, averageSpeed);
+    }
+
 
 }
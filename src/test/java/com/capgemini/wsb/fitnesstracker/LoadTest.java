@@ -0,0 +1,19 @@
+package com.capgemini.wsb.fitnesstracker;
+
+import org.junit.jupiter.api.Tag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks tests that put the application under load. They are excluded from the default build and run with the
+ * {@code load-test} Maven profile.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Tag("LoadTest")
+public @interface LoadTest {
+
+}
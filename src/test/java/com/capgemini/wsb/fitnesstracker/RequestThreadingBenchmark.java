@@ -0,0 +1,104 @@
+package com.capgemini.wsb.fitnesstracker;
+
+import com.capgemini.wsb.FitnessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@code /v1/trainings} and {@code /v1/users} endpoints with request handling on Tomcat's platform
+ * thread pool and on virtual threads (the {@code virtual-threads} profile).
+ * <p>
+ * Each mode starts the application in its own fork on a random port and drives it with more concurrent clients than
+ * Tomcat has worker threads. The virtual mode needs a Java 21 runtime, so run it with {@code JAVA_HOME} pointing to
+ * one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(400)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class RequestThreadingBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest trainings;
+    private HttpRequest users;
+
+    @Setup
+    public void startApplication() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(FitnessTracker.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=warn");
+        if ("virtual".equals(threads)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+            }
+            builder.profiles("virtual-threads");
+        }
+        context = builder.run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        trainings = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/trainings")).build();
+        users = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/users")).build();
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getAllTrainings() throws IOException, InterruptedException {
+        return send(trainings);
+    }
+
+    @Benchmark
+    public int getAllUsers() throws IOException, InterruptedException {
+        return send(users);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(RequestThreadingBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,242 @@
+package com.capgemini.wsb.fitnesstracker.achievement;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: the backfill replays the users in transactions of its own, which must see the trainings.
+ */
+@IntegrationTest
+class AchievementApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldAwardFirst100KmOfRunning_whenDistanceAddsUp() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T14:00:00", 60));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-08T08:00:00", "2024-04-08T14:00:00", 60));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FIRST_100_KM_OF_RUNNING"))
+                .andExpect(jsonPath("$[0].description").value("First 100 km of running"))
+                .andExpect(jsonPath("$[0].awardedAt").value("2024-04-08T14:00:00.000+00:00"));
+    }
+
+    @Test
+    void shouldAwardTenTrainingsInAWeek_whenUploadingTrainingsOfDifferentActivities() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        StringBuilder batch = new StringBuilder("[");
+        for (int day = 1; day <= 5; day++) {
+            batch.append(trainingRequest(user1, "WALKING", "2024-04-0%sT08:00:00".formatted(day), "2024-04-0%sT09:00:00".formatted(day), 5)).append(",");
+            batch.append(trainingRequest(user1, "CYCLING", "2024-04-0%sT18:00:00".formatted(day), "2024-04-0%sT19:00:00".formatted(day), 20));
+            batch.append(day < 5 ? "," : "]");
+        }
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(batch.toString()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("TEN_TRAININGS_IN_A_WEEK"))
+                .andExpect(jsonPath("$[0].awardedAt").value("2024-04-05T19:00:00.000+00:00"));
+    }
+
+    @Test
+    void shouldAwardTenTrainingsInAWeek_whenTrainingOfEarlierWeekArrivesLate() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        StringBuilder batch = new StringBuilder("[");
+        for (int hour = 10; hour < 19; hour++) {
+            batch.append(trainingRequest(user1, "WALKING", "2024-04-03T%s:00:00".formatted(hour), "2024-04-03T%s:30:00".formatted(hour), 2));
+            batch.append(hour < 18 ? "," : "]");
+        }
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(batch.toString()))
+                .andExpect(status().isOk());
+        createTraining(trainingRequest(user1, "WALKING", "2024-04-09T08:00:00", "2024-04-09T09:00:00", 2));
+
+        createTraining(trainingRequest(user1, "WALKING", "2024-04-05T08:00:00", "2024-04-05T09:00:00", 2));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("TEN_TRAININGS_IN_A_WEEK"))
+                .andExpect(jsonPath("$[0].awardedAt").value("2024-04-05T09:00:00.000+00:00"));
+    }
+
+    @Test
+    void shouldKeepBestFiveKmTimeUntilBackfill_whenTrainingIsEditedSlower() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Object trainingId = createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T08:20:00", 5));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T08:40:00", 5)))
+                .andExpect(status().isOk());
+
+        // the maxima cannot be recalculated without the history, so the edited training's best time is kept
+        assertThat(bestFiveKmSeconds(user1)).isEqualTo(20 * 60);
+        mockMvc.perform(post("/v1/achievements/backfill"))
+                .andExpect(status().isOk());
+        assertThat(bestFiveKmSeconds(user1)).isEqualTo(40 * 60);
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FAST_5_KM"));
+    }
+
+    @Test
+    void shouldAddToProgressOfConcurrentWriter_whenCreatingFirstTrainingOfUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<Void> concurrentWriter = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select id from users where id = ? for update", Long.class, user1.getId());
+            jdbcTemplate.update("""
+                    insert into achievement_progress (user_id, activity_type, trainings, total_distance, max_distance)
+                    values (?, ?, 1, 10, 10)
+                    """, user1.getId(), ActivityType.RUNNING.ordinal());
+            written.countDown();
+            try {
+                // keeps the progress uncommitted while the training below is evaluated
+                TimeUnit.SECONDS.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        written.await();
+
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T17:00:00", 95));
+        concurrentWriter.join();
+
+        assertThat(jdbcTemplate.queryForMap("select trainings, total_distance from achievement_progress where user_id = ?", user1.getId()))
+                .containsEntry("TRAININGS", 2)
+                .containsEntry("TOTAL_DISTANCE", 105.0);
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FIRST_100_KM_OF_RUNNING"));
+    }
+
+    @Test
+    void shouldAwardFast5Km_whenRunningAtPaceUnder5MinutesPerKm() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T08:30:00", 5));
+        createTraining(trainingRequest(user1, "CYCLING", "2024-04-02T08:00:00", "2024-04-02T08:20:00", 10));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-03T08:00:00", "2024-04-03T08:28:00", 6));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FAST_5_KM"));
+    }
+
+    @Test
+    void shouldAwardOnlyMissingAchievements_whenBackfilling() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T18:00:00", 100));
+        createTraining(trainingRequest(user2, "RUNNING", "2024-04-02T08:00:00", "2024-04-02T08:20:00", 5));
+        jdbcTemplate.update("delete from achievement_awards where user_id = ?", user2.getId());
+        jdbcTemplate.update("delete from achievement_progress");
+
+        mockMvc.perform(post("/v1/achievements/backfill"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users").value(2))
+                .andExpect(jsonPath("$.trainings").value(2))
+                .andExpect(jsonPath("$.awards").value(1));
+        mockMvc.perform(post("/v1/achievements/backfill"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.awards").value(0));
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FIRST_100_KM_OF_RUNNING"));
+        mockMvc.perform(get("/v1/achievements/user/{userId}", user2.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].achievement").value("FAST_5_KM"))
+                .andExpect(jsonPath("$[0].awardedAt").value("2024-04-02T08:20:00.000+00:00"));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenUserDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/v1/achievements/user/{userId}", 999_999))
+                .andExpect(status().isNotFound());
+    }
+
+    private Object createTraining(String request) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, Map.class).get("id");
+    }
+
+    private Long bestFiveKmSeconds(User user) {
+        return jdbcTemplate.queryForObject("select best_five_km_seconds from achievement_progress where user_id = ? and activity_type = ?",
+                                           Long.class, user.getId(), ActivityType.RUNNING.ordinal());
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The columnar store is kept in memory across tests, while the database is cleaned up after each of them, so every
+ * test works with trainings in a year of its own.
+ */
+@IntegrationTest
+class AnalyticsApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ColumnarTrainingStore store;
+
+    @Test
+    void shouldSummarizeTrainingsByActivity_whenTrainingsAreCreated() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "1995-03-01T08:00:00", "1995-03-01T09:00:00", 10, 10));
+        createTraining(trainingRequest(user1, "RUNNING", "1995-03-02T08:00:00", "1995-03-02T10:00:00", 20, 8));
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("[%s,%s]".formatted(
+                        trainingRequest(user1, "CYCLING", "1995-03-03T08:00:00", "1995-03-03T09:30:00", 30, 20),
+                        trainingRequest(user1, "CYCLING", "1995-04-03T08:00:00", "1995-04-03T09:30:00", 30, 20))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/analytics/summary").param("from", "1995-03-01").param("to", "1995-04-01"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ActivityType.values().length)))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(30.0))
+                .andExpect(jsonPath("$[0].averageDistance").value(15.0))
+                .andExpect(jsonPath("$[0].maxDistance").value(20.0))
+                .andExpect(jsonPath("$[0].averageSpeed").value(9.0))
+                .andExpect(jsonPath("$[0].totalHours").value(3.0))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].trainings").value(1))
+                .andExpect(jsonPath("$[1].totalHours").value(1.5));
+    }
+
+    @Test
+    void shouldTotalTrainingsByWeek_whenTrainingIsMovedToAnotherActivity() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Object trainingId = createTraining(trainingRequest(user1, "RUNNING", "1996-01-02T08:00:00", "1996-01-02T09:00:00", 10, 10));
+        createTraining(trainingRequest(user1, "RUNNING", "1996-01-09T08:00:00", "1996-01-09T09:00:00", 12, 12));
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "CYCLING", "1996-01-02T08:00:00", "1996-01-02T09:00:00", 25, 25)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/analytics/{activityType}/periods", "running")
+                                .param("period", "week").param("from", "1996-01-03").param("to", "1996-01-15"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].periodStart").value("1996-01-01"))
+                .andExpect(jsonPath("$[0].trainings").value(0))
+                .andExpect(jsonPath("$[1].periodStart").value("1996-01-08"))
+                .andExpect(jsonPath("$[1].trainings").value(1))
+                .andExpect(jsonPath("$[1].totalDistance").value(12.0));
+        mockMvc.perform(get("/v1/analytics/{activityType}/periods", "CYCLING")
+                                .param("period", "month").param("from", "1996-01-01").param("to", "1996-02-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].trainings").value(1))
+                .andExpect(jsonPath("$[0].totalDistance").value(25.0));
+    }
+
+    @Test
+    void shouldCountTrainingsByDistance_whenLoadedFromDatabase() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        persistTraining(training(user1, "1997-05-01T10:00:00Z", 2));
+        persistTraining(training(user1, "1997-05-02T10:00:00Z", 4));
+        persistTraining(training(user1, "1997-05-03T10:00:00Z", 12));
+        persistTraining(training(user1, "1997-05-04T10:00:00Z", 1000));
+
+        store.load();
+
+        mockMvc.perform(get("/v1/analytics/{activityType}/distribution", "WALKING")
+                                .param("bucketWidth", "5").param("from", "1997-01-01").param("to", "1998-01-01"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(AnalyticsServiceImpl.MAX_DISTRIBUTION_BUCKETS)))
+                .andExpect(jsonPath("$[0].fromDistance").value(0.0))
+                .andExpect(jsonPath("$[0].toDistance").value(5.0))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[1].trainings").value(0))
+                .andExpect(jsonPath("$[2].trainings").value(1))
+                .andExpect(jsonPath("$[99].fromDistance").value(495.0))
+                .andExpect(jsonPath("$[99].toDistance").value(nullValue()))
+                .andExpect(jsonPath("$[99].trainings").value(1));
+        mockMvc.perform(get("/v1/analytics/memory"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trainings").value(greaterThanOrEqualTo(4)))
+                .andExpect(jsonPath("$.columnBytesPerTraining").value(48))
+                .andExpect(jsonPath("$.entityGraphBytesPerTraining").value(112))
+                .andExpect(jsonPath("$.segments", hasSize(ActivityType.values().length)));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenParametersAreInvalid() throws Exception {
+
+        mockMvc.perform(get("/v1/analytics/{activityType}/distribution", "CLIMBING"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/analytics/{activityType}/distribution", "RUNNING").param("bucketWidth", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/analytics/summary").param("from", "2024-02-01").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/analytics/{activityType}/periods", "RUNNING")
+                                .param("period", "day").param("from", "2000-01-01").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Object createTraining(String request) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, Map.class).get("id");
+    }
+
+    private static Training training(User user, String endTime, double distance) {
+        Instant end = Instant.parse(endTime);
+        return new Training(user, end.minusSeconds(3600), end, ActivityType.WALKING, distance, 5);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: the leaderboards are updated only after the transaction storing the training commits. The
+ * leaderboards outlive the database clean-up between tests, so every test ranks its own, fresh users.
+ */
+@IntegrationTest
+class LeaderboardApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldRankUsersByDistanceWithinWindow_whenCreatingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", daysAgo(1).minus(Duration.ofHours(1)), daysAgo(1), 10_000));
+        createTraining(trainingRequest(user2, "RUNNING", daysAgo(2).minus(Duration.ofHours(1)), daysAgo(2), 8_000));
+        createTraining(trainingRequest(user2, "RUNNING", daysAgo(20).minus(Duration.ofHours(1)), daysAgo(20), 5_000));
+        createTraining(trainingRequest(user2, "CYCLING", daysAgo(1).minus(Duration.ofHours(1)), daysAgo(1), 50_000));
+
+        String week = leaderboard("running", "week");
+        assertThat(distanceOf(week, user1)).containsExactly(10_000.0);
+        assertThat(distanceOf(week, user2)).containsExactly(8_000.0);
+        assertThat(rankOf(week, user1).get(0)).isLessThan(rankOf(week, user2).get(0));
+
+        String month = leaderboard("RUNNING", "MONTH");
+        assertThat(distanceOf(month, user1)).containsExactly(10_000.0);
+        assertThat(distanceOf(month, user2)).containsExactly(13_000.0);
+        assertThat(rankOf(month, user2).get(0)).isLessThan(rankOf(month, user1).get(0));
+    }
+
+    @Test
+    void shouldSumTrainingsOfBatch_whenUploadingTrainingBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String batch = "["
+                + trainingRequest(user1, "WALKING", daysAgo(3).minus(Duration.ofHours(1)), daysAgo(3), 3_000) + ","
+                + trainingRequest(user1, "WALKING", daysAgo(4).minus(Duration.ofHours(1)), daysAgo(4), 4_000) + "]";
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isOk());
+
+        assertThat(distanceOf(leaderboard("WALKING", "WEEK"), user1)).containsExactly(7_000.0);
+    }
+
+    @Test
+    void shouldMoveDistance_whenUpdatingTrainingToAnotherActivity() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String trainingId = createTraining(trainingRequest(user1, "SWIMMING", daysAgo(1).minus(Duration.ofHours(1)), daysAgo(1), 2_000));
+        assertThat(distanceOf(leaderboard("SWIMMING", "WEEK"), user1)).containsExactly(2_000.0);
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "TENNIS", daysAgo(1).minus(Duration.ofHours(1)), daysAgo(1), 2_500)))
+                .andExpect(status().isOk());
+
+        assertThat(distanceOf(leaderboard("SWIMMING", "WEEK"), user1)).isEmpty();
+        assertThat(distanceOf(leaderboard("TENNIS", "WEEK"), user1)).containsExactly(2_500.0);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenWindowIsUnknown() throws Exception {
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "RUNNING").param("window", "decade"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "CLIMBING"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String leaderboard(String activityType, String window) throws Exception {
+        return mockMvc.perform(get("/v1/leaderboards/{activityType}", activityType).param("window", window))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private String createTraining(String request) throws Exception {
+        return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*?\"id\":(\\d+).*", "$1");
+    }
+
+    private static List<Double> distanceOf(String leaderboard, User user) {
+        return JsonPath.read(leaderboard, "$[?(@.userId == %s)].distance".formatted(user.getId()));
+    }
+
+    private static List<Integer> rankOf(String leaderboard, User user) {
+        return JsonPath.read(leaderboard, "$[?(@.userId == %s)].rank".formatted(user.getId()));
+    }
+
+    private static Instant daysAgo(int days) {
+        return Instant.now().minus(Duration.ofDays(days));
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
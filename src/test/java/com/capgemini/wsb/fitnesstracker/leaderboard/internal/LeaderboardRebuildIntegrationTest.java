@@ -0,0 +1,88 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingUpdatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rebuilds a leaderboard service of its own, so the rebuild can be interleaved with training events deterministically.
+ * Not transactional: the trainings changed during the rebuild must be committed for the rebuild to read them.
+ */
+@IntegrationTest
+class LeaderboardRebuildIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private TrainingProvider trainingProvider;
+
+    @Autowired
+    private LeaderboardProperties properties;
+
+    @Test
+    void shouldCountTrainingsOnce_whenTheyChangeDuringRebuild() {
+
+        User user1 = existingUser(generateClient());
+        Training updated = persistTraining(training(user1, 10_000));
+        TrainingSnapshot beforeUpdate = TrainingSnapshot.of(updated);
+        TrainingProvider provider = mock(TrainingProvider.class, delegatesTo(trainingProvider));
+        LeaderboardServiceImpl leaderboards = new LeaderboardServiceImpl(provider, properties);
+        AtomicBoolean changed = new AtomicBoolean();
+        CompletableFuture<Void> listeners = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            if (!changed.getAndSet(true)) {
+                Training created = persistTraining(training(user1, 5_000));
+                updated.updateDistance(12_000);
+                persistTraining(updated);
+                // as if the events of the trainings committed right before the rebuild reads them came in meanwhile
+                listeners.completeAsync(() -> {
+                    leaderboards.onTrainingCreated(new TrainingCreatedEvent(TrainingSnapshot.of(created)));
+                    leaderboards.onTrainingUpdated(new TrainingUpdatedEvent(beforeUpdate, TrainingSnapshot.of(updated)));
+                    return null;
+                });
+                listeners.copy().completeOnTimeout(null, 1, TimeUnit.SECONDS).join();
+            }
+            return trainingProvider.getCompletedTrainingsAfter(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+        }).when(provider).getCompletedTrainingsAfter(any(Instant.class), anyLong(), anyInt());
+
+        leaderboards.rebuild();
+        listeners.join();
+
+        assertThat(leaderboards.getLeaderboard(ActivityType.RUNNING, LeaderboardWindow.WEEK))
+                .filteredOn(entry -> entry.userId().equals(user1.getId()))
+                .extracting(LeaderboardEntryDto::distance)
+                .containsExactly(17_000.0);
+    }
+
+    private static Training training(User user, double distance) {
+        Instant endTime = Instant.now().minus(Duration.ofDays(1));
+        return new Training(user, endTime.minus(Duration.ofHours(1)), endTime, ActivityType.RUNNING, distance, 10);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.capgemini.wsb.fitnesstracker.LoadTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the user and training endpoints of the application, filled by the synthetic data generator, with an open-loop
+ * request mix and reports latency percentiles per endpoint. Fails if an endpoint's p99 latency regressed past the
+ * stored baseline or any request failed.
+ * <p>
+ * Run with {@code mvn -Pload-test test}; settings are in {@code application-load-test.yml}. Latencies depend on the
+ * machine, so no baseline is committed: the first run on a machine must store one with
+ * {@code -Dload-test.update-baseline=true}, and runs without one fail.
+ */
+@LoadTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"loadInitialData", "load-test"})
+@Slf4j
+class EndpointLoadTest {
+
+    private static final long SEED = 42;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${data-generator.users}")
+    private int users;
+
+    @Autowired
+    private LoadTestProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldKeepP99WithinBaseline_whenDrivingEndpointsAtTargetRate() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(client, "http://localhost:" + port,
+                                                                    properties.endpoints(), users);
+
+        log.info("Warming up for {} at {} req/s", properties.warmup(), properties.rate());
+        generator.run(properties.rate(), properties.warmup(), SEED);
+        log.info("Measuring for {} at {} req/s", properties.duration(), properties.rate());
+        Map<String, LoadReport.EndpointReport> results = new LinkedHashMap<>();
+        generator.run(properties.rate(), properties.duration(), SEED + 1)
+                .forEach((name, recorder) -> results.put(name, recorder.toReport(properties.duration())));
+        LoadReport report = new LoadReport(properties.rate(), results);
+
+        log.info("Load test results:\n{}", report.toTable());
+        Files.createDirectories(properties.report().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(properties.report().toFile(), report);
+
+        if (properties.updateBaseline()) {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(properties.baseline().toFile(), report);
+            log.info("Stored the results as the new baseline {}", properties.baseline());
+        } else {
+            assertThat(properties.baseline())
+                    .as("baseline, run with -Dload-test.update-baseline=true to store one")
+                    .exists();
+            LoadReport baseline = objectMapper.readValue(properties.baseline().toFile(), LoadReport.class);
+            List<String> regressions = report.p99RegressionsAgainst(baseline, properties.maxP99Regression());
+            assertThat(regressions).as("p99 regressions over %s", properties.baseline()).isEmpty();
+        }
+        assertThat(results.values()).allSatisfy(result -> assertThat(result.errors()).isZero());
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(LoadTestProperties.class)
+    static class LoadTestConfig {
+
+    }
+
+}
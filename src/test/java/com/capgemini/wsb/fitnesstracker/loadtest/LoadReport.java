@@ -0,0 +1,62 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a load test run, stored as JSON so later runs can be compared with it.
+ *
+ * @param rate      requests started per second
+ * @param endpoints results per endpoint name
+ */
+record LoadReport(int rate, Map<String, EndpointReport> endpoints) {
+
+    /**
+     * Lists the endpoints whose p99 latency is more than {@code maxRegression} above the one in the baseline.
+     * Endpoints missing from either report are not compared.
+     *
+     * @param baseline      report of the reference run
+     * @param maxRegression allowed relative increase, e.g. {@code 0.25} for 25%
+     * @return a description of every regressed endpoint, empty if there are none
+     */
+    List<String> p99RegressionsAgainst(LoadReport baseline, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        endpoints.forEach((name, current) -> {
+            EndpointReport reference = baseline.endpoints().get(name);
+            if (reference != null && current.p99Millis() > reference.p99Millis() * (1 + maxRegression)) {
+                regressions.add("%s: p99 %.1f ms, baseline %.1f ms".formatted(name, current.p99Millis(), reference.p99Millis()));
+            }
+        });
+        return regressions;
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder("%-20s %8s %7s %9s %9s %9s %9s %9s%n"
+                .formatted("endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        endpoints.forEach((name, report) -> table.append("%-20s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n"
+                .formatted(name, report.requests(), report.errors(), report.throughput(),
+                           report.p50Millis(), report.p99Millis(), report.p999Millis(), report.maxMillis())));
+        return table.toString();
+    }
+
+    /**
+     * @param requests   number of completed requests
+     * @param errors     number of requests that failed or returned an error status
+     * @param throughput completed requests per second of the measured phase
+     * @param p50Millis  median latency
+     * @param p99Millis  99th percentile latency
+     * @param p999Millis 99.9th percentile latency
+     * @param maxMillis  maximum latency
+     */
+    record EndpointReport(long requests,
+                          long errors,
+                          double throughput,
+                          double p50Millis,
+                          double p99Millis,
+                          double p999Millis,
+                          double maxMillis) {
+
+    }
+
+}
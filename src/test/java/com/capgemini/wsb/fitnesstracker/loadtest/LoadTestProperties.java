@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of {@link EndpointLoadTest}, see {@code application-load-test.yml}. Every value can be overridden with a
+ * system property, e.g. {@code -Dload-test.rate=500}.
+ *
+ * @param rate             requests started per second, regardless of how fast the previous ones complete
+ * @param warmup           duration of the warm-up phase, whose latencies are not reported
+ * @param duration         duration of the measured phase
+ * @param endpoints        endpoints called, picked randomly according to their weights
+ * @param report           file the report of the run is written to
+ * @param baseline         report of a reference run the p99 latencies are compared with; the test fails if it does not exist
+ * @param maxP99Regression allowed relative increase of an endpoint's p99 latency over the baseline, e.g. {@code 0.25} for 25%
+ * @param updateBaseline   whether to store the report of this run as the new baseline instead of comparing with it
+ */
+@ConfigurationProperties(prefix = "load-test")
+record LoadTestProperties(int rate,
+                          Duration warmup,
+                          Duration duration,
+                          List<Endpoint> endpoints,
+                          Path report,
+                          Path baseline,
+                          double maxP99Regression,
+                          boolean updateBaseline) {
+
+    /**
+     * @param name   name the endpoint is reported under
+     * @param path   path and query of the request; {@code {userId}} is replaced with a random generated user ID
+     * @param weight relative share of the requests sent to the endpoint
+     */
+    record Endpoint(String name, String path, int weight) {
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests to a running application at a fixed rate, open-loop: request {@code i} is due at
+ * {@code start + i / rate} no matter how many earlier requests are still in flight. Latency is measured from the due
+ * time, not from the moment the request was actually sent, so a stalled server shows up in the percentiles instead of
+ * silently lowering the request rate (coordinated omission).
+ */
+class OpenLoopLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<LoadTestProperties.Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+    private final int users;
+
+    OpenLoopLoadGenerator(HttpClient client, String baseUrl, List<LoadTestProperties.Endpoint> endpoints, int users) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.endpoints = endpoints;
+        this.users = users;
+        this.cumulativeWeights = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            total += endpoints.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Sends requests for the given duration and waits until all of them completed.
+     *
+     * @param rate     requests started per second
+     * @param duration how long new requests are started
+     * @param seed     seed picking the endpoints and path variables
+     * @return latencies and errors per endpoint name
+     */
+    Map<String, EndpointRecorder> run(int rate, Duration duration, long seed) throws InterruptedException, TimeoutException {
+        Map<String, EndpointRecorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name(), new EndpointRecorder()));
+        SplittableRandom random = new SplittableRandom(seed);
+        Phaser inFlight = new Phaser(1);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long due = start + i * intervalNanos;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            LoadTestProperties.Endpoint endpoint = nextEndpoint(random);
+            EndpointRecorder recorder = recorders.get(endpoint.name());
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + resolve(endpoint.path(), random))).build();
+            inFlight.register();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        recorder.record(due, error == null ? response.statusCode() : -1);
+                        inFlight.arriveAndDeregister();
+                    });
+        }
+        inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        return recorders;
+    }
+
+    private LoadTestProperties.Endpoint nextEndpoint(SplittableRandom random) {
+        int weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (cumulativeWeights[i] <= weight) {
+            i++;
+        }
+        return endpoints.get(i);
+    }
+
+    private String resolve(String path, SplittableRandom random) {
+        return path.replace("{userId}", Long.toString(random.nextInt(users) + 1));
+    }
+
+    /**
+     * Latency histogram and error count of one endpoint, recorded concurrently by the HTTP client's threads.
+     */
+    static final class EndpointRecorder {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private void record(long dueNanos, int statusCode) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueNanos);
+            latencies.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (statusCode < 200 || statusCode >= 400) {
+                errors.increment();
+            }
+        }
+
+        LoadReport.EndpointReport toReport(Duration duration) {
+            return new LoadReport.EndpointReport(latencies.getTotalCount(),
+                                                 errors.sum(),
+                                                 latencies.getTotalCount() * 1000.0 / duration.toMillis(),
+                                                 millis(latencies.getValueAtPercentile(50)),
+                                                 millis(latencies.getValueAtPercentile(99)),
+                                                 millis(latencies.getValueAtPercentile(99.9)),
+                                                 millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+class QueuedEmailSenderIntegrationTest extends IntegrationTestBase {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Test
+    void shouldDeliverAllEmails_whenSendingInBulk() throws Exception {
+
+        List<EmailDto> emails = IntStream.range(0, 120)
+                .mapToObj(i -> new EmailDto("user" + i + "@domain.com", "Subject " + i, "Content " + i))
+                .toList();
+
+        List<CompletableFuture<Void>> results = emailSender.sendAll(emails);
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertThat(greenMail.getReceivedMessages()).hasSize(emails.size());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(Arrays.stream(received).map(GreenMailUtil::getBody))
+                .contains("Content 0", "Content 119");
+        for (MimeMessage message : received) {
+            assertThat(GreenMailUtil.getAddressList(message.getFrom())).isEqualTo("fitness-tracker@localhost");
+        }
+        assertThat(meterRegistry.get("mail.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldRetryWithBackoff_whenServerIsTemporarilyUnavailable() throws Exception {
+
+        double retriedBefore = meterRegistry.get("mail.retried").counter().count();
+        greenMail.stop();
+
+        emailSender.send(new EmailDto("user@domain.com", "Retried", "Delivered eventually"));
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("mail.retried").counter().count() > retriedBefore);
+        greenMail.start();
+        await().atMost(Duration.ofSeconds(10)).until(() -> greenMail.getReceivedMessages().length == 1);
+        assertThat(greenMail.getReceivedMessages()[0].getSubject()).isEqualTo("Retried");
+    }
+
+    @Test
+    void shouldMakeLastAttemptOfWaitingRetries_whenStopping() throws Exception {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        QueuedEmailSender sender = standaloneSender(registry);
+        greenMail.stop();
+
+        CompletableFuture<Void> result = sender.send(new EmailDto("user@domain.com", "Retried", "Delivered on shutdown"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> registry.get("mail.retried").counter().count() == 1);
+        assertThat(result).isNotDone();
+        greenMail.start();
+        sender.stop();
+
+        assertThat(result).isCompleted();
+        assertThat(greenMail.getReceivedMessages()).extracting(MimeMessage::getSubject).containsExactly("Retried");
+        assertThat(registry.get("mail.failed").tag("reason", "shutdown").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldCountDroppedEmails_whenStoppingWhileServerIsUnavailable() throws Exception {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        QueuedEmailSender sender = standaloneSender(registry);
+        greenMail.stop();
+
+        CompletableFuture<Void> result = sender.send(new EmailDto("user@domain.com", "Lost", "Never delivered"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> registry.get("mail.retried").counter().count() == 1);
+        sender.stop();
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(MailSendException.class);
+        assertThat(registry.get("mail.failed").tag("reason", "shutdown").counter().count()).isEqualTo(1);
+        greenMail.start();
+    }
+
+    /**
+     * Sender with a retry backoff far longer than the test, so that only the shutdown can make the retry happen.
+     */
+    private QueuedEmailSender standaloneSender(MeterRegistry registry) {
+        MailProperties.Queue queue = new MailProperties.Queue(10, Duration.ZERO, 1, 10, 5, Duration.ofMinutes(10), Duration.ofMinutes(10));
+        QueuedEmailSender sender = new QueuedEmailSender(javaMailSender, new MailProperties("fitness-tracker@localhost", queue), registry);
+        sender.start();
+        return sender;
+    }
+
+}
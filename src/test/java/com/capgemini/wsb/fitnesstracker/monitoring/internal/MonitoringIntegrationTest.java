@@ -0,0 +1,100 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.service.invocations=true",
+        "monitoring.tracing.enabled=true",
+        "monitoring.tracing.sample-rate=1"
+})
+@ExtendWith(OutputCaptureExtension.class)
+class MonitoringIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRecordStatementsPerRequest_whenGettingTrainingsOfUser() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.of(1990, 1, 1), randomUUID().toString()));
+        Instant start = Instant.parse("2024-01-19T08:00:00Z");
+        persistTraining(new Training(user, start, start.plusSeconds(3600), ActivityType.RUNNING, 10, 10));
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        double statements = meterRegistry.get("http.server.requests.statements")
+                .tags("method", "GET", "uri", "/v1/trainings/{userId}")
+                .summary()
+                .totalAmount();
+        assertThat(statements).isPositive();
+    }
+
+    @Test
+    void shouldLogServiceCallWithSignatureAndResult_whenTracingIsEnabled(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/v1/users/email/{email}", "nobody@" + randomUUID()))
+                .andExpect(status().isNotFound());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(output.getOut())
+                .contains("Calling Optional UserServiceImpl.getUserByEmail(String email)")
+                .contains("Optional UserServiceImpl.getUserByEmail(String email) returned Optional.empty in "));
+    }
+
+    @Test
+    void shouldExposeServiceRepositoryAndPoolMetrics_whenScrapingPrometheusEndpoint() throws Exception {
+        mockMvc.perform(get("/v1/users"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "service_invocations_seconds_count{class=\"com.capgemini.wsb.fitnesstracker.user.internal.UserServiceImpl\",exception=\"none\",method=\"forEachUser\",outcome=\"SUCCESS\"")))
+                .andExpect(content().string(containsString("service_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total{")));
+    }
+
+    @Test
+    void shouldTagServiceCallWithErrorOutcome_whenServiceThrows() throws Exception {
+        mockMvc.perform(get("/v1/users/older-than/{minAge}/younger-than/{maxAge}", 40, 30))
+                .andExpect(status().isBadRequest());
+
+        long errors = meterRegistry.get("service.invocations")
+                .tags("method", "getUsersWithAgeBetween", "exception", "BusinessException", "outcome", "ERROR")
+                .timer()
+                .count();
+        assertThat(errors).isEqualTo(1);
+    }
+
+}
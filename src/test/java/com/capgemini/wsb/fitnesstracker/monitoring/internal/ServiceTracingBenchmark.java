@@ -0,0 +1,154 @@
+package com.capgemini.wsb.fitnesstracker.monitoring.internal;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the {@link ServiceTracingInterceptor} on a service method that builds a hundred rows, compared with
+ * calling the service without the aspect ({@code none}). The log goes through the same asynchronous appender as in the
+ * application, into a discarding output stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceTracingBenchmark {
+
+    @Param({"none", "sampled", "sampled-timing", "timing", "full"})
+    private String tracing;
+
+    /**
+     * CPU work done by the service besides building the rows, in JMH tokens: {@code 0} is a pure in-memory call,
+     * {@code 20000} is roughly as long as a simple query against the in-memory database.
+     */
+    @Param({"0", "20000"})
+    private long work;
+
+    private SampleService service;
+    private AsyncAppender asyncAppender;
+
+    @Setup(Level.Trial)
+    public void createService() {
+        configureLogging();
+        SampleService target = new SampleService(work);
+        TracingProperties properties = switch (tracing) {
+            case "none" -> null;
+            case "sampled" -> new TracingProperties(true, 0.01, TracingProperties.Mode.FULL);
+            case "sampled-timing" -> new TracingProperties(true, 0.01, TracingProperties.Mode.TIMING);
+            case "timing" -> new TracingProperties(true, 1, TracingProperties.Mode.TIMING);
+            case "full" -> new TracingProperties(true, 1, TracingProperties.Mode.FULL);
+            default -> throw new IllegalArgumentException(tracing);
+        };
+        if (properties == null) {
+            service = target;
+        } else {
+            ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(ServiceTracingInterceptor.SERVICE_METHODS,
+                                                               new ServiceTracingInterceptor(properties)));
+            service = (SampleService) proxyFactory.getProxy();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopLogging() {
+        asyncAppender.stop();
+    }
+
+    @Benchmark
+    public List<SampleRow> callService() {
+        return service.findRows(100);
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> discarding = new OutputStreamAppender<>();
+        discarding.setContext(context);
+        discarding.setEncoder(encoder);
+        discarding.setOutputStream(OutputStream.nullOutputStream());
+        discarding.start();
+
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(0);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(discarding);
+        asyncAppender.start();
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.WARN);
+        Logger tracingLogger = context.getLogger(ServiceTracingInterceptor.class);
+        tracingLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+        tracingLogger.setAdditive(false);
+        tracingLogger.addAppender(asyncAppender);
+    }
+
+    public record SampleRow(long id, String firstName, String lastName) {
+
+    }
+
+    /**
+     * Annotated with {@code @Service} for the aspect's pointcut; the profile keeps component scanning of the test
+     * sources from registering it in the application contexts of the tests.
+     */
+    @Service
+    @Profile("tracing-benchmark")
+    public static class SampleService {
+
+        private final long work;
+
+        public SampleService(long work) {
+            this.work = work;
+        }
+
+        public List<SampleRow> findRows(int count) {
+            Blackhole.consumeCPU(work);
+            List<SampleRow> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new SampleRow(i, "First" + i, "Last" + i));
+            }
+            return rows;
+        }
+
+    }
+
+}
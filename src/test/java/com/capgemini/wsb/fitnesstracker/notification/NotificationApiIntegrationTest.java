@@ -0,0 +1,187 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: the outbox rows are delivered by the dispatcher's threads, which must see them committed.
+ */
+@IntegrationTest
+class NotificationApiIntegrationTest extends IntegrationTestBase {
+
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldSendWelcomeEmailAndAddFeedEntry_whenUserIsCreated() throws Exception {
+
+        String email = randomUUID() + "@domain.com";
+        mockMvc.perform(post("/v1/users").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"firstName": "Ada", "lastName": "Lovelace", "birthdate": "1990-12-10", "email": "%s"}
+                        """.formatted(email)))
+                .andExpect(status().isCreated());
+        Long userId = jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, email);
+
+        awaitFeed(userId, 1);
+        mockMvc.perform(get("/v1/notifications/user/{userId}", userId))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].message").value("Welcome to Fitness Tracker, Ada!"));
+        await().atMost(DELIVERY_TIMEOUT).until(() -> Arrays.stream(greenMail.getReceivedMessages())
+                .anyMatch(message -> recipient(message).equals(email)));
+        MimeMessage welcome = Arrays.stream(greenMail.getReceivedMessages())
+                .filter(message -> recipient(message).equals(email))
+                .findFirst().orElseThrow();
+        assertThat(welcome.getSubject()).isEqualTo("Welcome to Fitness Tracker");
+        assertThat(GreenMailUtil.getBody(welcome)).contains("Hello Ada");
+    }
+
+    @Test
+    void shouldKeepWelcomeEmailPending_untilMailServerAcceptsIt() throws Exception {
+
+        greenMail.stop();
+        String email = randomUUID() + "@domain.com";
+        mockMvc.perform(post("/v1/users").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"firstName": "Grace", "lastName": "Hopper", "birthdate": "1990-12-09", "email": "%s"}
+                        """.formatted(email)))
+                .andExpect(status().isCreated());
+        Long userId = jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, email);
+
+        await().atMost(DELIVERY_TIMEOUT).until(() -> emailOutboxRow(userId).get("last_error") != null);
+        assertThat(emailOutboxRow(userId).get("status")).isEqualTo("PENDING");
+
+        greenMail.start();
+        await().atMost(DELIVERY_TIMEOUT).until(() -> "DELIVERED".equals(emailOutboxRow(userId).get("status")));
+        assertThat(Arrays.stream(greenMail.getReceivedMessages()).map(NotificationApiIntegrationTest::recipient)).contains(email);
+    }
+
+    @Test
+    void shouldNotifyAboutTrainings_newestFirst_andOncePerUserForBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String request = trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 10.5);
+        String response = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Object trainingId = objectMapper.readValue(response, Map.class).get("id");
+        awaitFeed(user1.getId(), 1);
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 12)))
+                .andExpect(status().isOk());
+        awaitFeed(user1.getId(), 2);
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("[%s,%s,%s]".formatted(
+                        trainingRequest(user1, "CYCLING", "2024-04-02T08:00:00", "2024-04-02T09:00:00", 20),
+                        trainingRequest(user1, "CYCLING", "2024-04-03T08:00:00", "2024-04-03T09:00:00", 25),
+                        trainingRequest(user1, "WALKING", "2024-04-04T08:00:00", "2024-04-04T09:00:00", 3))))
+                .andExpect(status().isOk());
+        awaitFeed(user1.getId(), 3);
+
+        mockMvc.perform(get("/v1/notifications/user/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].message").value("3 trainings imported"))
+                .andExpect(jsonPath("$[1].message").value("Your 12.00 km running training was updated"))
+                .andExpect(jsonPath("$[2].message").value("New 10.50 km running training saved"));
+        mockMvc.perform(get("/v1/notifications/user/{userId}?limit=1", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldAddFeedEntryOnce_whenNotificationIsDeliveredAgain() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "SWIMMING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 2)))
+                .andExpect(status().isCreated());
+        awaitFeed(user1.getId(), 1);
+        await().atMost(DELIVERY_TIMEOUT).until(() -> "DELIVERED".equals(outboxStatus(user1)));
+
+        // as if the dispatcher stopped after delivering, before marking the row as delivered
+        jdbcTemplate.update("""
+                update notification_outbox set status = 'PENDING', next_attempt_at = current_timestamp
+                where user_id = ? and channel = 'in-app'
+                """, user1.getId());
+        await().atMost(DELIVERY_TIMEOUT).until(() -> "DELIVERED".equals(outboxStatus(user1)));
+
+        assertThat(jdbcTemplate.queryForObject("select attempts from notification_outbox where user_id = ? and channel = 'in-app'",
+                                               Integer.class, user1.getId())).isEqualTo(2);
+        mockMvc.perform(get("/v1/notifications/user/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenUserDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/v1/notifications/user/{userId}", 999_999))
+                .andExpect(status().isNotFound());
+    }
+
+    private void awaitFeed(Object userId, int entries) {
+        await().atMost(DELIVERY_TIMEOUT).until(() -> jdbcTemplate.queryForObject(
+                "select count(*) from user_notifications where user_id = ?", Integer.class, userId) == entries);
+    }
+
+    private String outboxStatus(User user) {
+        return jdbcTemplate.queryForObject("select status from notification_outbox where user_id = ? and channel = 'in-app'",
+                                           String.class, user.getId());
+    }
+
+    private Map<String, Object> emailOutboxRow(Long userId) {
+        return jdbcTemplate.queryForMap("select status, last_error from notification_outbox where user_id = ? and channel = 'email'", userId);
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return GreenMailUtil.getAddressList(message.getAllRecipients());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
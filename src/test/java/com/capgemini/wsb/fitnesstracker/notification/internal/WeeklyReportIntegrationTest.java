@@ -0,0 +1,188 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.api.MailGivenUpException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@IntegrationTest
+@TestPropertySource(properties = {
+        "notification.weekly-report.enabled=true",
+        "notification.weekly-report.chunk-size=2",
+        "notification.weekly-report.email-batch-size=2"
+})
+class WeeklyReportIntegrationTest extends IntegrationTestBase {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 4, 1);
+
+    @MockBean
+    private EmailSender emailSender;
+
+    @Autowired
+    private WeeklyReportGenerator generator;
+
+    @Autowired
+    private WeeklyReportCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void acceptAllEmails() {
+        when(emailSender.sendAll(anyList())).thenAnswer(invocation -> invocation.<List<EmailDto>>getArgument(0).stream()
+                .map(email -> CompletableFuture.<Void>completedFuture(null))
+                .toList());
+    }
+
+    @AfterEach
+    void cleanUpCheckpoints() {
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSendReportToEveryUser_whenGeneratingWeeklyReport() {
+
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+        User user3 = existingUser(generateUser());
+        persistTraining(generateTraining(user1, ActivityType.RUNNING, WEEK_START.atTime(8, 0), 10));
+        persistTraining(generateTraining(user1, ActivityType.RUNNING, WEEK_START.plusDays(2).atTime(8, 0), 5.5));
+        persistTraining(generateTraining(user1, ActivityType.CYCLING, WEEK_START.plusDays(6).atTime(20, 0), 30));
+        persistTraining(generateTraining(user2, ActivityType.SWIMMING, WEEK_START.plusWeeks(1).atTime(8, 0), 2));
+        persistTraining(generateTraining(user3, ActivityType.WALKING, WEEK_START.minusDays(1).atTime(8, 0), 4));
+
+        long sent = generator.generate(WEEK_START);
+
+        assertThat(sent).isEqualTo(3);
+        List<EmailDto> emails = sentEmails();
+        assertThat(emails).extracting(EmailDto::toAddress)
+                .containsExactly(user1.getEmail(), user2.getEmail(), user3.getEmail());
+        assertThat(emails.get(0).content())
+                .contains("you completed 3 training(s)")
+                .contains("- Running: 2 (15.50 km)")
+                .contains("- Cycling: 1 (30.00 km)")
+                .contains("Total time: 3 h 0 min");
+        assertThat(emails.get(1).content()).contains("you did not record any training");
+        assertThat(emails.get(2).content()).contains("you did not record any training");
+        assertThat(checkpointRepository.findById(WEEK_START)).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.isCompleted()).isTrue();
+            assertThat(checkpoint.getLastUserId()).isEqualTo(user3.getId());
+            assertThat(checkpoint.getReportsSent()).isEqualTo(3);
+        });
+        assertThat(generator.generate(WEEK_START)).isZero();
+    }
+
+    @Test
+    void shouldResumeAfterLastCheckpointedUser_whenRunWasInterrupted() {
+
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+        User user3 = existingUser(generateUser());
+        WeeklyReportCheckpoint checkpoint = new WeeklyReportCheckpoint(WEEK_START);
+        checkpoint.advance(user1.getId(), 1, 0);
+        checkpointRepository.save(checkpoint);
+
+        long sent = generator.generate(WEEK_START);
+
+        assertThat(sent).isEqualTo(2);
+        assertThat(sentEmails()).extracting(EmailDto::toAddress)
+                .containsExactly(user2.getEmail(), user3.getEmail());
+        assertThat(checkpointRepository.findById(WEEK_START)).hasValueSatisfying(
+                resumed -> assertThat(resumed.getReportsSent()).isEqualTo(3));
+    }
+
+    @Test
+    void shouldSkipUserAndCompleteWeek_whenEmailWasGivenUp() {
+
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+        User user3 = existingUser(generateUser());
+        failEmailsTo(user2, new MailGivenUpException("Email dropped after 5 attempts", new MailSendException("Unknown recipient")));
+
+        long sent = generator.generate(WEEK_START);
+
+        assertThat(sent).isEqualTo(2);
+        assertThat(sentEmails()).extracting(EmailDto::toAddress)
+                .containsExactly(user1.getEmail(), user2.getEmail(), user3.getEmail());
+        assertThat(checkpointRepository.findById(WEEK_START)).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.isCompleted()).isTrue();
+            assertThat(checkpoint.getLastUserId()).isEqualTo(user3.getId());
+            assertThat(checkpoint.getReportsSent()).isEqualTo(2);
+            assertThat(checkpoint.getReportsGivenUp()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void shouldCheckpointBeforeFailedUser_whenEmailWasNotSent() {
+
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+        existingUser(generateUser());
+        failEmailsTo(user2, new MailSendException("Email was not sent before shutdown"));
+
+        assertThatThrownBy(() -> generator.generate(WEEK_START))
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(MailSendException.class);
+
+        assertThat(sentEmails()).extracting(EmailDto::toAddress).containsExactly(user1.getEmail(), user2.getEmail());
+        assertThat(checkpointRepository.findById(WEEK_START)).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.isCompleted()).isFalse();
+            assertThat(checkpoint.getLastUserId()).isEqualTo(user1.getId());
+            assertThat(checkpoint.getReportsSent()).isEqualTo(1);
+        });
+    }
+
+    private void failEmailsTo(User user, Exception failure) {
+        when(emailSender.sendAll(anyList())).thenAnswer(invocation -> invocation.<List<EmailDto>>getArgument(0).stream()
+                .map(email -> email.toAddress().equals(user.getEmail())
+                        ? CompletableFuture.<Void>failedFuture(failure)
+                        : CompletableFuture.<Void>completedFuture(null))
+                .toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailDto> sentEmails() {
+        ArgumentCaptor<List<EmailDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(emailSender, atLeastOnce()).sendAll(batches.capture());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        return batches.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static User generateUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.of(1990, 1, 1), randomUUID() + "@domain.com");
+    }
+
+    private static Training generateTraining(User user, ActivityType activityType, LocalDateTime startTime, double distance) {
+        return new Training(user,
+                            startTime.toInstant(ZoneOffset.UTC),
+                            startTime.plusHours(1).toInstant(ZoneOffset.UTC),
+                            activityType,
+                            distance,
+                            distance);
+    }
+
+}
@@ -0,0 +1,235 @@
+package com.capgemini.wsb.fitnesstracker.statistics;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class StatisticsApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldReturnZeroedStatistics_whenUserHasNoTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user1.getId()))
+                .andExpect(jsonPath("$.totalTrainings").value(0))
+                .andExpect(jsonPath("$.totalDistance").value(0.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(0));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenUserDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", 999_999).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldApplyDeltas_whenCreatingAndUpdatingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String running = trainingRequest(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated());
+        String trainingId = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*?\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(20.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(2 * 686));
+
+        String cycling = trainingRequest(user1, "CYCLING", "2024-04-01T10:00:00", "2024-04-01T12:00:00", 40);
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON).content(cycling))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(50.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(686 + 2 * 525));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldAddToRowInsertedConcurrently_whenCreatingFirstTrainingOfUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> concurrentInsert = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    insert into statistics (user_id, total_trainings, total_distance, total_calories_burned)
+                    values (?, 1, 5, 100)
+                    """, user1.getId());
+            inserted.countDown();
+            try {
+                // keeps the row uncommitted while the training below is created
+                TimeUnit.SECONDS.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        inserted.await();
+
+        String running = trainingRequest(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated());
+        concurrentInsert.join();
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(15.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(100 + 686));
+    }
+
+    @Test
+    void shouldApplyDeltasPerUser_whenUploadingTrainingBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        String running = trainingRequest(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated());
+
+        String batch = "[" + running + ","
+                + trainingRequest(user2, "CYCLING", "2024-04-02T10:00:00", "2024-04-02T12:00:00", 40) + ","
+                + trainingRequest(user2, "WALKING", "2024-04-03T10:00:00", "2024-04-03T11:00:00", 5) + "]";
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(20.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(2 * 686));
+        mockMvc.perform(get("/v1/statistics/user/{userId}", user2.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(45.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(2 * 525 + 245));
+    }
+
+    @Test
+    void shouldRepairDriftedRow_whenRebuildingStatistics() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String running = trainingRequest(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated());
+        jdbcTemplate.update("update statistics set total_trainings = 7, total_distance = 1 where user_id = ?", user1.getId());
+
+        mockMvc.perform(post("/v1/statistics/user/{userId}/rebuild", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(1))
+                .andExpect(jsonPath("$.totalDistance").value(10.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(686));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldKeepDeltaOfConcurrentTraining_whenRebuildingStatistics() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String running = trainingRequest(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T11:00:00", 10);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(running))
+                .andExpect(status().isCreated());
+        jdbcTemplate.update("update statistics set total_trainings = 7, total_distance = 1 where user_id = ?", user1.getId());
+        CountDownLatch applied = new CountDownLatch(1);
+        CountDownLatch rebuildBlocked = new CountDownLatch(1);
+        CompletableFuture<Void> concurrentTraining = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    update statistics
+                    set total_trainings = total_trainings + 1, total_distance = total_distance + 5,
+                        total_calories_burned = total_calories_burned + 686
+                    where user_id = ?
+                    """, user1.getId());
+            persistTraining(new Training(user1, Instant.parse("2024-04-02T10:00:00Z"), Instant.parse("2024-04-02T11:00:00Z"),
+                                         ActivityType.RUNNING, 5, 5));
+            applied.countDown();
+            try {
+                // keeps the training and its delta uncommitted until the rebuild waits for them
+                rebuildBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        applied.await();
+
+        CompletableFuture<MvcResult> rebuild = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(post("/v1/statistics/user/{userId}/rebuild", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                        .andReturn();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        await().atMost(Duration.ofSeconds(10)).until(() -> jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.sessions where blocker_id is not null", Integer.class) > 0);
+        rebuildBlocked.countDown();
+        concurrentTraining.join();
+
+        String statistics = rebuild.join().getResponse().getContentAsString();
+        assertThat(JsonPath.<Integer>read(statistics, "$.totalTrainings")).isEqualTo(2);
+        assertThat(JsonPath.<Double>read(statistics, "$.totalDistance")).isEqualTo(15.0);
+        assertThat(JsonPath.<Integer>read(statistics, "$.totalCaloriesBurned")).isEqualTo(2 * 686);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
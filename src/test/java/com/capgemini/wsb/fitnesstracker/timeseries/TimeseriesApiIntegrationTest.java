@@ -0,0 +1,202 @@
+package com.capgemini.wsb.fitnesstracker.timeseries;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+class TimeseriesApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldRollUpTrainingsByWeekAndMonth_whenTrainingsArriveOutOfOrder() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-10T08:00:00", "2024-04-10T09:00:00", 10));
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:30:00", 12));
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-03T08:00:00", "2024-04-03T08:30:00", 5));
+        createTraining(trainingRequest(user1, "CYCLING", "2024-03-31T23:00:00", "2024-03-31T23:30:00", 15));
+
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "week").param("from", "2024-04-03").param("to", "2024-04-15"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(17.0))
+                .andExpect(jsonPath("$[0].totalHours").value(2.0))
+                .andExpect(jsonPath("$[1].bucketStart").value("2024-04-08"))
+                .andExpect(jsonPath("$[1].trainings").value(1));
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "MONTH").param("from", "2024-04-01").param("to", "2024-05-01")
+                                .param("activityType", "running"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-04-01"))
+                .andExpect(jsonPath("$[0].trainings").value(3))
+                .andExpect(jsonPath("$[0].totalDistance").value(27.0));
+    }
+
+    @Test
+    void shouldMoveTrainingBetweenBuckets_whenTrainingIsEditedLate() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Object trainingId = createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 10));
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-02T08:00:00", "2024-04-02T09:00:00", 6));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON)
+                                .content(trainingRequest(user1, "WALKING", "2024-04-20T08:00:00", "2024-04-20T09:00:00", 4)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "day").param("from", "2024-04-01").param("to", "2024-05-01"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bucketStart").value("2024-04-02"))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].totalDistance").value(6.0))
+                .andExpect(jsonPath("$[1].bucketStart").value("2024-04-20"))
+                .andExpect(jsonPath("$[1].activityType").value("WALKING"))
+                .andExpect(jsonPath("$[1].totalDistance").value(4.0));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from training_rollups where user_id = ? and trainings = 0",
+                                               Integer.class, user1.getId())).isZero();
+    }
+
+    @Test
+    void shouldRollUpBatchIntoSingleBucket_whenTrainingsEndOnSameDay() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("[%s,%s]".formatted(
+                        trainingRequest(user1, "SWIMMING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 2),
+                        trainingRequest(user1, "SWIMMING", "2024-04-01T18:00:00", "2024-04-01T19:00:00", 3))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "day").param("from", "2024-04-01").param("to", "2024-04-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(5.0));
+    }
+
+    @Test
+    void shouldMergeBatchIntoBucketInsertedConcurrently() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> concurrentInsert = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    insert into training_rollups (user_id, activity_type, granularity, bucket_start, trainings, total_distance, total_seconds)
+                    values (?, ?, 'DAY', DATE '2024-04-01', 1, 1, 3600)
+                    """, user1.getId(), ActivityType.SWIMMING.ordinal());
+            inserted.countDown();
+            try {
+                // keeps the bucket uncommitted while the batch below is merged
+                TimeUnit.SECONDS.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        inserted.await();
+
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content("[%s,%s,%s]".formatted(
+                        trainingRequest(user1, "SWIMMING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 2),
+                        trainingRequest(user1, "SWIMMING", "2024-04-01T18:00:00", "2024-04-01T19:00:00", 3),
+                        trainingRequest(user1, "SWIMMING", "2024-04-02T18:00:00", "2024-04-02T19:00:00", 4))))
+                .andExpect(status().isOk());
+        concurrentInsert.join();
+
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "day").param("from", "2024-04-01").param("to", "2024-04-03"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].trainings").value(3))
+                .andExpect(jsonPath("$[0].totalDistance").value(6.0))
+                .andExpect(jsonPath("$[1].trainings").value(1))
+                .andExpect(jsonPath("$[1].totalDistance").value(4.0));
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", user1.getId())
+                                .param("granularity", "week").param("from", "2024-04-01").param("to", "2024-04-08"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].trainings").value(3))
+                .andExpect(jsonPath("$[0].totalDistance").value(9.0));
+    }
+
+    @Test
+    void shouldReadTimeseriesFromUniqueKeyRange() {
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN SELECT bucket_start, activity_type, trainings, total_distance, total_seconds
+                FROM training_rollups
+                WHERE user_id = 1 AND granularity = 'WEEK' AND bucket_start >= DATE '2024-01-01' AND bucket_start < DATE '2025-01-01'
+                ORDER BY bucket_start, activity_type
+                """, String.class);
+
+        assertThat(plan).containsIgnoringCase("UX_TRAINING_ROLLUPS_BUCKET");
+    }
+
+    @Test
+    void shouldReturnErrors_whenUserIsMissingOrParametersAreInvalid() throws Exception {
+
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", 999_999).param("from", "2024-01-01").param("to", "2024-02-01"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", 999_999)
+                                .param("granularity", "decade").param("from", "2024-01-01").param("to", "2024-02-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", 999_999)
+                                .param("granularity", "day").param("from", "2020-01-01").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/users/{userId}/timeseries", 999_999).param("from", "2024-02-01").param("to", "2024-02-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Object createTraining(String request) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, Map.class).get("id");
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}
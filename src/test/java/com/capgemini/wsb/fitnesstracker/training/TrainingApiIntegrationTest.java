@@ -4,21 +4,44 @@ import com.capgemini.wsb.fitnesstracker.IntegrationTest;
 import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingTimeFormat;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.sql.ParameterMetaData;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.time.LocalDate.now;
 import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,48 +53,90 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
     @Autowired
     private MockMvc mockMvc;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void shouldReturnAllTrainings_whenGettingAllTrainings() throws Exception {
 
         User user1 = existingUser(generateClient());
         Training training1 = persistTraining(generateTraining(user1));
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS+00:00");
-        sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
         mockMvc.perform(get("/v1/trainings").contentType(MediaType.APPLICATION_JSON))
                 .andDo(log())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$[0].user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
 
 
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].startTime").value(TrainingTimeFormat.format(training1.getStartTime())))
+                .andExpect(jsonPath("$[0].endTime").value(TrainingTimeFormat.format(training1.getEndTime())))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
 
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldReturnNextPage_whenGettingAllTrainingsAfterCursor() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+        Training training2 = persistTraining(generateTraining(user1));
+        Training training3 = persistTraining(generateTraining(user1));
+
+        mockMvc.perform(get("/v1/trainings").param("limit", "2").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(training1.getId()))
+                .andExpect(jsonPath("$[1].id").value(training2.getId()))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+
+        mockMvc.perform(get("/v1/trainings").param("after", training2.getId().toString()).param("limit", "2").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(training3.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+    }
+
+    @Test
+    void shouldStreamAllTrainingsAsNdjson_whenAcceptingNdjson() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+        Training training2 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.TENNIS));
+
+        String body = mockMvc.perform(get("/v1/trainings").accept(MediaType.APPLICATION_NDJSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines().toList())
+                .hasSize(2)
+                .satisfiesExactly(
+                        line -> assertThat(line).contains("\"id\":" + training1.getId()),
+                        line -> assertThat(line).contains("\"id\":" + training2.getId()).contains("TENNIS"));
+    }
+
     @Test
     void shouldReturnAllTrainingsForDedicatedUser_whenGettingAllTrainingsForDedicatedUser() throws Exception {
 
         User user1 = existingUser(generateClient());
         Training training1 = persistTraining(generateTraining(user1));
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS+00:00");
-        sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
         mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
                 .andDo(log())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
+                .andExpect(jsonPath("$[0].startTime").value(TrainingTimeFormat.format(training1.getStartTime())))
+                .andExpect(jsonPath("$[0].endTime").value(TrainingTimeFormat.format(training1.getEndTime())))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
 
@@ -85,18 +150,15 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
         Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
         Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.RUNNING, 14, 11.5));
 
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS+00:00");
-        sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
         mockMvc.perform(get("/v1/trainings/finished/{afterTime}", "2024-05-18").contentType(MediaType.APPLICATION_JSON))
                 .andDo(log())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$[0].user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
+                .andExpect(jsonPath("$[0].startTime").value(TrainingTimeFormat.format(training1.getStartTime())))
+                .andExpect(jsonPath("$[0].endTime").value(TrainingTimeFormat.format(training1.getEndTime())))
                 .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
                 .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
                 .andExpect(jsonPath("$[1]").doesNotExist());
@@ -115,14 +177,12 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$[0].user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
                 .andExpect(jsonPath("$[0].activityType").value(training2.getActivityType().toString()))
                 .andExpect(jsonPath("$[1].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[1].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[1].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[1].user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$[1].user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$[1].user.email").doesNotExist())
                 .andExpect(jsonPath("$[1].activityType").value(training3.getActivityType().toString()))
 
                 .andExpect(jsonPath("$[2]").doesNotExist());
@@ -147,14 +207,63 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andDo(log())
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.user.id").value(user1.getId()))
-                .andExpect(jsonPath("$.user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$.user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$.user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$.user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$.user.email").doesNotExist())
                 .andExpect(jsonPath("$.distance").value(10.52))
                 .andExpect(jsonPath("$.averageSpeed").value(8.2));
 
     }
 
+    @Test
+    void shouldReportEveryItem_whenCreatingTrainingsInBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        String requestBody = """
+                [
+                    {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.52, "averageSpeed": 8.2},
+                    {"userId": %2$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 5, "averageSpeed": 5},
+                    {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "DANCING", "distance": 5, "averageSpeed": 5},
+                    {"userId": %1$s, "startTime": "2024-04-02T10:00:00", "activityType": "CYCLING", "distance": 30, "averageSpeed": 20},
+                    {"userId": %1$s, "startTime": "2024-04-03T10:00:00", "endTime": "2024-04-03T11:00:00", "activityType": "CYCLING", "distance": 30, "averageSpeed": 20}
+                ]
+                """.formatted(user1.getId(), user1.getId() + 1000);
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].trainingId").isNumber())
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].error").value("User with ID=%s was not found".formatted(user1.getId() + 1000)))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$[3].status").value("REJECTED"))
+                .andExpect(jsonPath("$[3].error").value("endTime must not be null"))
+                .andExpect(jsonPath("$[4].index").value(4))
+                .andExpect(jsonPath("$[4].status").value("CREATED"));
+
+        assertThat(getAllTrainings()).hasSize(2);
+    }
+
+    @Test
+    void shouldCreateTrainings_whenUploadingNdjsonBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        String requestBody = """
+                {"userId": %1$s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.52, "averageSpeed": 8.2}
+                {"userId": %1$s, "startTime": "2024-04-02T10:00:00", "endTime": "2024-04-02T11:00:00", "activityType": "SWIMMING", "distance": 2, "averageSpeed": 2}
+                """.formatted(user1.getId());
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_NDJSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+
+        assertThat(getAllTrainings()).hasSize(2);
+    }
+
     @Test
     void shouldUpdateTraining_whenUpdatingTraining() throws Exception {
 
@@ -174,53 +283,235 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andDo(log())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user.id").value(user1.getId()))
-                .andExpect(jsonPath("$.user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$.user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$.user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$.user.nickname").value(nickname(user1)))
+                .andExpect(jsonPath("$.user.email").doesNotExist())
                 .andExpect(jsonPath("$.activityType").value(ActivityType.TENNIS.toString()))
                 .andExpect(jsonPath("$.distance").value(0.0))
                 .andExpect(jsonPath("$.averageSpeed").value(0.0));
     }
 
+    @Test
+    void shouldRunSingleQuery_whenListingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user2, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user2, "2024-05-20 19:00:00", "2024-05-20 20:30:00", ActivityType.CYCLING, 30, 20));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertSingleStatement(get("/v1/trainings"), 3);
+        assertSingleStatement(get("/v1/trainings/activityType").param("activityType", "RUNNING"), 2);
+        assertSingleStatement(get("/v1/trainings/finished/{afterTime}", "2024-05-18"), 3);
+    }
+
+    @Test
+    void shouldReturnTrainingsMatchingAllFilters_whenSearchingTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-17 19:00:00", "2024-05-17 20:30:00", ActivityType.RUNNING, 14, 11.5));
+        persistTraining(generateTrainingWithDetails(user1, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.CYCLING, 30, 20));
+        persistTraining(generateTrainingWithDetails(user2, "2024-05-19 19:00:00", "2024-05-19 20:30:00", ActivityType.RUNNING, 14, 11.5));
+
+        mockMvc.perform(get("/v1/trainings/search")
+                        .param("userId", user1.getId().toString())
+                        .param("activityType", "RUNNING")
+                        .param("finishedAfter", "2024-05-18")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(training1.getId()))
+                .andExpect(jsonPath("$[0].user.id").value(user1.getId()));
+    }
+
+    @Test
+    void shouldReturnTrainingsEndedWithinRange_whenGettingTrainingsByTimeRange() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-01-18 22:00:00", "2024-01-18 23:30:00", ActivityType.RUNNING, 5, 5));
+        Training training2 = persistTraining(generateTrainingWithDetails(user1, "2024-01-19 06:00:00", "2024-01-19 07:00:00", ActivityType.RUNNING, 5, 5));
+        Training training3 = persistTraining(generateTrainingWithDetails(user1, "2024-01-19 22:30:00", "2024-01-19 23:30:00", ActivityType.RUNNING, 5, 5));
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-01-19").param("to", "2024-01-20").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(training2.getId()))
+                .andExpect(jsonPath("$[0].endTime").value("2024-01-19T07:00:00.000+00:00"))
+                .andExpect(jsonPath("$[1].id").value(training3.getId()));
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-01-19T00:00:00+01:00").param("to", "2024-01-19T08:00:00").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id").value(training2.getId()));
+
+        mockMvc.perform(get("/v1/trainings/range").param("from", "2024-01-20").param("to", "2024-01-19").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/trainings/range").param("from", "19.01.2024").param("to", "2024-01-20").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldNotLoadUser_whenCreatingTrainingForCachedUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String requestBody = """
+                {"userId": %s, "startTime": "2024-04-01T10:00:00", "endTime": "2024-04-01T11:00:00", "activityType": "RUNNING", "distance": 10.52, "averageSpeed": 8.2}
+                """.formatted(user1.getId());
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andExpect(status().isCreated());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.user.id").value(user1.getId()))
+                .andExpect(jsonPath("$.user.nickname").value(nickname(user1)));
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldUseCompositeIndexes_whenSearchingTrainings() throws Exception {
+
+        String byUser = explain(executedSearch(get("/v1/trainings/search")
+                                                      .param("userId", "1")
+                                                      .param("activityType", "RUNNING")
+                                                      .param("finishedAfter", "2024-05-18")));
+        String byActivityType = explain(executedSearch(get("/v1/trainings/search")
+                                                              .param("activityType", "RUNNING")
+                                                              .param("finishedAfter", "2024-05-18")));
+
+        assertThat(byUser).containsIgnoringCase("IDX_TRAININGS_USER_END_TIME");
+        assertThat(byActivityType).containsIgnoringCase("IDX_TRAININGS_ACTIVITY_END_TIME");
+    }
+
+    /**
+     * @return the statement Hibernate prepared to answer the search request
+     */
+    private String executedSearch(MockHttpServletRequestBuilder request) throws Exception {
+        entityManager.flush();
+        StatementRecorder.STATEMENTS.clear();
+        mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        return StatementRecorder.STATEMENTS.stream()
+                .filter(sql -> sql.contains("trainings"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement on trainings was executed"));
+    }
+
+    /**
+     * Explains the statement with sample values bound to its parameters, so the plan is the one chosen for the statement
+     * exactly as the application prepares it.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                switch (parameters.getParameterType(i)) {
+                    case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                            statement.setObject(i, OffsetDateTime.parse("2024-05-18T00:00:00Z"));
+                    default -> statement.setLong(i, 1);
+                }
+            }
+        }, result -> {
+            result.next();
+            return result.getString(1);
+        });
+    }
+
+    private void assertSingleStatement(MockHttpServletRequestBuilder request, int expectedTrainings) throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(expectedTrainings)))
+                .andExpect(jsonPath("$[0].user.nickname").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static Instant parseTime(String time) {
+        return LocalDateTime.parse(time, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")).toInstant(ZoneOffset.UTC);
+    }
+
+    private static String nickname(User user) {
+        return user.getFirstName() + "_" + user.getLastName();
+    }
+
     private static User generateClient() {
         return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
     }
 
-    private static Training generateTraining(User user) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
+    private static Training generateTraining(User user) {
         return new Training(
                 user,
-                sdf.parse("2024-01-19 08:00:00"),
-                sdf.parse("2024-01-19 09:30:00"),
+                parseTime("2024-01-19 08:00:00"),
+                parseTime("2024-01-19 09:30:00"),
                 ActivityType.RUNNING,
                 10.5,
                 8.2);
     }
 
-    private static Training generateTrainingWithActivityType(User user, ActivityType activityType) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
+    private static Training generateTrainingWithActivityType(User user, ActivityType activityType) {
         return new Training(
                 user,
-                sdf.parse("2024-01-19 08:00:00"),
-                sdf.parse("2024-01-19 09:30:00"),
+                parseTime("2024-01-19 08:00:00"),
+                parseTime("2024-01-19 09:30:00"),
                 activityType,
                 0, 0);
     }
 
-    private static Training generateTrainingWithDetails(User user, String startTime, String endTime, ActivityType activityType, double distance, double averageSpeed) throws ParseException {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
+    private static Training generateTrainingWithDetails(User user, String startTime, String endTime, ActivityType activityType, double distance, double averageSpeed) {
         return new Training(
                 user,
-                sdf.parse(startTime),
-                sdf.parse(endTime),
+                parseTime(startTime),
+                parseTime(endTime),
                 activityType,
                 distance,
                 averageSpeed);
     }
 
 
-}
+    /**
+     * Records the statements Hibernate prepares, keeping the inspector already configured by the application.
+     */
+    @TestConfiguration
+    static class StatementRecorder {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Bean
+        static BeanPostProcessor statementRecordingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof LocalContainerEntityManagerFactoryBean factory) {
+                        Object configured = factory.getJpaPropertyMap().get(AvailableSettings.STATEMENT_INSPECTOR);
+                        StatementInspector inspector = configured instanceof StatementInspector statementInspector
+                                ? statementInspector
+                                : sql -> sql;
+                        factory.getJpaPropertyMap().put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                            STATEMENTS.add(sql);
+                            return inspector.inspect(sql);
+                        });
+                    }
+                    return bean;
+                }
+            };
+        }
 
+    }
+
+}
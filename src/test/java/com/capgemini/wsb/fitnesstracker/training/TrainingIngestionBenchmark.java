@@ -0,0 +1,131 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.FitnessTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares storing trainings with one {@code POST /v1/trainings} request each against uploading them to
+ * {@code /v1/trainings/batch} in a single request, over HTTP against the running application.
+ * <p>
+ * Both benchmarks store {@link #TRAININGS} trainings per invocation, spread over {@link #USERS} users, and report
+ * trainings stored per second, so their scores compare directly.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class TrainingIngestionBenchmark {
+
+    private static final int TRAININGS = 500;
+    private static final int USERS = 100;
+    private static final String[] ACTIVITY_TYPES = {"RUNNING", "CYCLING", "WALKING", "SWIMMING", "TENNIS"};
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI single;
+    private URI batch;
+    private List<Long> userIds;
+
+    @Setup
+    public void startApplication() {
+        context = new SpringApplicationBuilder(FitnessTracker.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=warn")
+                .run();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            String email = "user" + i + "@bench.local";
+            users.add(new Object[]{"First" + i, "Last" + i, Date.valueOf("1990-01-01"), email, email});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into users (first_name, last_name, birthdate, email, email_normalized)
+                values (?, ?, ?, ?, ?)
+                """, users);
+        userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        single = URI.create("http://localhost:" + port + "/v1/trainings");
+        batch = URI.create("http://localhost:" + port + "/v1/trainings/batch");
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRAININGS)
+    public int singleInserts() throws IOException, InterruptedException {
+        int stored = 0;
+        for (int i = 0; i < TRAININGS; i++) {
+            stored += send(single, trainingRequest(), 201);
+        }
+        return stored;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRAININGS)
+    public int batchInsert() throws IOException, InterruptedException {
+        List<String> trainings = new ArrayList<>(TRAININGS);
+        for (int i = 0; i < TRAININGS; i++) {
+            trainings.add(trainingRequest());
+        }
+        return send(batch, "[" + String.join(",", trainings) + "]", 200);
+    }
+
+    private int send(URI uri, String body, int expectedStatus) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(uri + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private String trainingRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant endTime = Instant.now().minus(random.nextInt(365 * 24 * 60), ChronoUnit.MINUTES).truncatedTo(ChronoUnit.SECONDS);
+        return """
+                {"userId": %d, "startTime": "%s", "endTime": "%s", "activityType": "%s", "distance": %s, "averageSpeed": 10}
+                """.formatted(userIds.get(random.nextInt(userIds.size())),
+                              endTime.minus(1, ChronoUnit.HOURS),
+                              endTime,
+                              ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)],
+                              Math.round(random.nextDouble(1, 40) * 100) / 100.0).trim();
+    }
+
+}
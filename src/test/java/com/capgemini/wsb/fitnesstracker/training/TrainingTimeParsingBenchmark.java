@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a training time the way it was done with {@code java.util.Date} against the shared
+ * {@link TrainingTimeFormat}, with several threads parsing at once like concurrent requests do.
+ * <p>
+ * The old paths are a new {@code SimpleDateFormat} per call (what the controller did) and a single shared one,
+ * which - not being thread-safe - has to be locked. Run {@link #main(String[])} with {@code -prof gc} added to the
+ * options to compare the allocation rates as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrainingTimeParsingBenchmark {
+
+    private static final String TIME = "2024-01-19T08:00:00";
+    private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+    private final SimpleDateFormat sharedFormat = new SimpleDateFormat(PATTERN);
+
+    @Benchmark
+    public Date simpleDateFormatPerCall() throws ParseException {
+        return new SimpleDateFormat(PATTERN).parse(TIME);
+    }
+
+    @Benchmark
+    public Date sharedSimpleDateFormatLocked() throws ParseException {
+        synchronized (sharedFormat) {
+            return sharedFormat.parse(TIME);
+        }
+    }
+
+    @Benchmark
+    public Instant sharedDateTimeFormatter() {
+        return TrainingTimeFormat.parse(TIME);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                           .include(TrainingTimeParsingBenchmark.class.getSimpleName())
+                           .build())
+                .run();
+    }
+
+}
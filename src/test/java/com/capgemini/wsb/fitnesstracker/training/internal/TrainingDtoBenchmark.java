@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures mapping {@link Training}s to {@link TrainingDto}s and serializing them with the time format of the REST API,
+ * for lists of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrainingDtoBenchmark {
+
+    private static final Instant START = Instant.parse("2024-01-01T06:00:00Z");
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final TrainingMapper trainingMapper = new TrainingMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new TrainingJacksonConfig().trainingTimeModule())
+            .build();
+
+    private List<Training> trainings;
+    private List<TrainingDto> dtos;
+
+    @Setup
+    public void createTrainings() {
+        User user = new User("John", "Doe", LocalDate.of(1990, 5, 17), "john.doe@bench.local");
+        ActivityType[] activityTypes = ActivityType.values();
+        trainings = IntStream.range(0, size)
+                .mapToObj(i -> {
+                    Instant startTime = START.plus(i, ChronoUnit.HOURS);
+                    return new Training(user, startTime, startTime.plus(45, ChronoUnit.MINUTES),
+                                        activityTypes[i % activityTypes.length], 5 + i % 20, 8 + i % 12);
+                })
+                .toList();
+        dtos = trainings.stream().map(trainingMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<TrainingDto> mapToDto() {
+        return trainings.stream().map(trainingMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+}
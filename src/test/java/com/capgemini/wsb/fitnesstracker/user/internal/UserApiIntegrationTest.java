@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -19,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,6 +70,21 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[2]").doesNotExist());
     }
 
+    @Test
+    void shouldStreamBasicInfoOfAllUsers_whenGettingBasicInfo() throws Exception {
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+
+        mockMvc.perform(get("/v1/users/basic-info").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(user1.getId()))
+                .andExpect(jsonPath("$[0].nickname").value(user1.getFirstName() + "_" + user1.getLastName()))
+                .andExpect(jsonPath("$[1].id").value(user2.getId()));
+    }
+
     @Test
     void shouldReturnDetailsAboutUser_whenGettingUserById() throws Exception {
         User user1 = existingUser(generateUser());
@@ -95,6 +112,46 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[0].email").value(user1.getEmail()));
     }
 
+    @Test
+    void shouldReturnUser_whenGettingUserByEmailIgnoringCase() throws Exception {
+        User user1 = existingUser(new User("Mike", "Scott", LocalDate.of(1999, 9, 29), "Mike.Scott@domain.com"));
+
+        mockMvc.perform(get("/v1/users/email/{email}", "mike.scott@DOMAIN.com").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(user1.getEmail()));
+
+        mockMvc.perform(get("/v1/users/email/{email}", "MIKE.SCOTT@domain.com").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(user1.getEmail()));
+    }
+
+    @Test
+    void shouldFindUserByNewEmail_whenEmailWasUpdated() throws Exception {
+        User user1 = existingUser(new User("Mike", "Scott", LocalDate.of(1999, 9, 29), "mike.scott@domain.com"));
+
+        mockMvc.perform(get("/v1/users/email/{email}", user1.getEmail()).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/v1/users/{userEmail}", user1.getEmail())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "email": "Michael.Scott@domain.com" }
+                                """))
+                .andDo(log())
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/email/{email}", "michael.scott@domain.com").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("Michael.Scott@domain.com"));
+
+        mockMvc.perform(get("/v1/users/email/{email}", "mike.scott@domain.com").contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldReturnAllUsersOlderThan_whenGettingAllUsersOlderThan() throws Exception {
         User user1 = existingUser(generateUserWithDate(LocalDate.of(2000, 8, 11)));
@@ -112,6 +169,35 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[1]").doesNotExist());
     }
 
+    @Test
+    void shouldPageUsersWithinAgeRange_whenGettingUsersWithAgeBetween() throws Exception {
+        LocalDate today = LocalDate.now();
+        existingUser(generateUserWithDate(today.minusYears(15)));
+        User user1 = existingUser(generateUserWithDate(today.minusYears(25)));
+        User user2 = existingUser(generateUserWithDate(today.minusYears(30)));
+        User user3 = existingUser(generateUserWithDate(today.minusYears(30)));
+        existingUser(generateUserWithDate(today.minusYears(45)));
+
+        mockMvc.perform(get("/v1/users/older-than/{minAge}/younger-than/{maxAge}", 20, 40)
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].firstName").value(user1.getFirstName()))
+                .andExpect(jsonPath("$[1].firstName").value(user3.getFirstName()));
+
+        mockMvc.perform(get("/v1/users/older-than/{minAge}/younger-than/{maxAge}", 20, 40)
+                        .param("limit", "2")
+                        .param("afterBirthdate", ISO_DATE.format(user3.getBirthdate()))
+                        .param("afterId", user3.getId().toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value(user2.getFirstName()));
+    }
+
     @Test
     void shouldRemoveUserFromRepository_whenDeletingClient() throws Exception {
         User user1 = existingUser(generateUser());
@@ -203,6 +289,132 @@ class UserApiIntegrationTest extends IntegrationTestBase {
         assertThat(user.getEmail()).isEqualTo(USER_EMAIL);
     }
 
+    @Test
+    void shouldReportEveryRow_whenImportingUsersFromCsv() throws Exception {
+        User existing = existingUser(new User("Jane", "Doe", LocalDate.parse("1990-01-01"), "jane.doe@domain.com"));
+
+        String csv = """
+                email,firstName,lastName,birthdate,id\r
+                mike.scott@domain.com,Mike,Scott,1999-09-29,\r
+                "MIKE.SCOTT@domain.com","Mike \"\"Jr\"\"",Scott,2001-01-01,\r
+                Jane.Doe@domain.com,Jane,Doe,1990-01-01,\r
+                john.doe@domain.com,John,Doe,29.09.1999,\r
+                john.doe@domain.com,John\r
+                "doe, john@domain.com",John,Doe,1990-01-01,\r
+                """;
+
+        mockMvc.perform(post("/v1/users/import").contentType("text/csv").content(csv))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].userId").isNumber())
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].error").value("User with email MIKE.SCOTT@domain.com already exists."))
+                .andExpect(jsonPath("$[2].error").value("User with email Jane.Doe@domain.com already exists."))
+                .andExpect(jsonPath("$[3].error").value("Invalid birthdate: 29.09.1999"))
+                .andExpect(jsonPath("$[4].error").value("Expected at least 4 fields, got 2"))
+                .andExpect(jsonPath("$[5].error").value("email is not a valid address"));
+
+        assertThat(getAllUsers()).extracting(User::getEmail).containsExactlyInAnyOrder(existing.getEmail(), "mike.scott@domain.com");
+    }
+
+    @Test
+    void shouldImportUsers_whenImportingNdjson() throws Exception {
+
+        String ndjson = """
+                {"firstName": "Mike", "lastName": "Scott", "birthdate": "1999-09-29", "email": "mike.scott@domain.com"}
+                {"firstName": " ", "lastName": "Scott", "birthdate": "1999-09-29", "email": "dwight.schrute@domain.com"}
+                {"firstName": "Jim", "lastName": "Halpert", "birthdate": "1978-10-01", "email": "jim.halpert@domain.com"}
+                {"firstName": "Pam",
+                """;
+
+        mockMvc.perform(post("/v1/users/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].error").value("firstName must not be blank"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"))
+                .andExpect(jsonPath("$[3].status").value("REJECTED"));
+
+        assertThat(getAllUsers()).extracting(User::getFirstName).containsExactlyInAnyOrder("Mike", "Jim");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRejectOnlyFailingRow_whenStoringChunkFails() throws Exception {
+
+        String ndjson = """
+                {"firstName": "Mike", "lastName": "Scott", "birthdate": "1999-09-29", "email": "mike.scott@domain.com"}
+                {"firstName": "%s", "lastName": "Halpert", "birthdate": "1978-10-01", "email": "jim.halpert@domain.com"}
+                {"firstName": "Pam", "lastName": "Beesly", "birthdate": "1979-03-25", "email": "pam.beesly@domain.com"}
+                """.formatted("Jim".repeat(100));
+
+        mockMvc.perform(post("/v1/users/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].error").isNotEmpty())
+                .andExpect(jsonPath("$[2].status").value("CREATED"));
+
+        assertThat(getAllUsers()).extracting(User::getFirstName).containsExactlyInAnyOrder("Mike", "Pam");
+    }
+
+    @Test
+    void shouldRejectImport_whenCsvHeaderLacksColumn() throws Exception {
+
+        mockMvc.perform(post("/v1/users/import").contentType("text/csv").content("firstName,lastName,email\r\n"))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+
+        assertThat(getAllUsers()).isEmpty();
+    }
+
+    @Test
+    void shouldExportUsersThatCanBeImportedAgain_whenExportingCsv() throws Exception {
+        User user1 = existingUser(new User("Mike", "Scott, Jr", LocalDate.parse("1999-09-29"), "mike.scott@domain.com"));
+
+        String csv = mockMvc.perform(get("/v1/users/export").param("format", "csv"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csv).isEqualTo("id,firstName,lastName,birthdate,email\r\n%s,Mike,\"Scott, Jr\",1999-09-29,mike.scott@domain.com\r\n"
+                                          .formatted(user1.getId()));
+
+        mockMvc.perform(post("/v1/users/import").contentType("text/csv").content(csv.replace("mike.scott", "michael.scott")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"));
+        assertThat(getAllUsers()).extracting(User::getLastName).containsExactly("Scott, Jr", "Scott, Jr");
+    }
+
+    @Test
+    void shouldExportOneUserPerLine_whenExportingNdjson() throws Exception {
+        User user1 = existingUser(generateUser());
+        User user2 = existingUser(generateUser());
+
+        String ndjson = mockMvc.perform(get("/v1/users/export"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(ndjson.lines()).hasSize(2);
+        assertThat(ndjson).contains(user1.getEmail(), user2.getEmail());
+    }
+
+    @Test
+    void shouldRejectExport_whenFormatIsUnknown() throws Exception {
+
+        mockMvc.perform(get("/v1/users/export").param("format", "xml"))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
     public static User generateUser() {
         return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString());
     }
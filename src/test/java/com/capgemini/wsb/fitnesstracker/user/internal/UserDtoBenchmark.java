@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures what {@link UserController} does with the users it lists: mapping them with {@link UserMapper} and
+ * serializing the resulting DTOs, for lists of different sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserDtoBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private final UserMapper userMapper = new UserMapper();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<User> users;
+    private List<UserDto> dtos;
+    private List<UserBasicDto> basicDtos;
+
+    @Setup
+    public void createUsers() {
+        users = IntStream.range(0, size)
+                .mapToObj(i -> new User("First" + i, "Last" + i, LocalDate.of(1950, 1, 1).plusDays(i), "user" + i + "@bench.local"))
+                .toList();
+        dtos = users.stream().map(userMapper::toDto).toList();
+        basicDtos = users.stream().map(userMapper::toBasicInfoDto).toList();
+    }
+
+    @Benchmark
+    public List<UserDto> mapToDto() {
+        return users.stream().map(userMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<UserBasicDto> mapToBasicInfoDto() {
+        return users.stream().map(userMapper::toBasicInfoDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeBasicInfoDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(basicDtos);
+    }
+
+}
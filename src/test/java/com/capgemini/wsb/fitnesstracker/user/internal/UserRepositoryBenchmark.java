@@ -0,0 +1,105 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the user lookups by email and by age against an in-memory H2 database filled with {@code rows} users.
+ * Birthdates are spread evenly over 70 years, so the "older than 80" query matches roughly a tenth of the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserRepositoryBenchmark {
+
+    private static final LocalDate FIRST_BIRTHDATE = LocalDate.of(1940, 1, 1);
+    private static final int BIRTHDATE_SPAN_DAYS = 70 * 365;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup
+    public void fillDatabase() {
+        context = new SpringApplicationBuilder(FitnessTracker.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                     "--spring.datasource.url=jdbc:h2:mem:user-benchmark",
+                     "--spring.main.banner-mode=off",
+                     "--logging.level.root=warn");
+        userRepository = context.getBean(UserRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int from = 0; from < rows; from += INSERT_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = from; i < Math.min(rows, from + INSERT_BATCH_SIZE); i++) {
+                String email = email(i);
+                batch.add(new Object[]{"First" + i, "Last" + i, Date.valueOf(birthdate(i)), email, email});
+            }
+            jdbcTemplate.batchUpdate("""
+                    insert into users (first_name, last_name, birthdate, email, email_normalized)
+                    values (?, ?, ?, ?, ?)
+                    """, batch);
+        }
+    }
+
+    @TearDown
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userRepository.findByEmail(email(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    public List<User> findUsersOlderThan() {
+        return userRepository.findAllByBirthdateBefore(LocalDate.now().minusYears(80));
+    }
+
+    @Benchmark
+    public List<User> findUsersOlderThanFirstPage() {
+        return userRepository.findPageBornBefore(LocalDate.now().minusYears(30), Long.MIN_VALUE, Limit.of(100));
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@bench.local";
+    }
+
+    private LocalDate birthdate(int i) {
+        return FIRST_BIRTHDATE.plusDays((long) i * BIRTHDATE_SPAN_DAYS / rows);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.capgemini.wsb.fitnesstracker.version;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: versions change only once the transaction of a change commits.
+ */
+@IntegrationTest
+class ConditionalGetIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldAnswerNotModifiedWithoutQueries_whenTrainingsOfUserDidNotChange() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 10));
+        String eTag = eTagOf("/v1/trainings/{userId}", user1.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void shouldReturnTrainings_whenTrainingOfUserChangedSinceETag() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 10));
+        String eTag = eTagOf("/v1/trainings/{userId}", user1.getId());
+        String allTrainingsETag = eTagOf("/v1/trainings");
+
+        createTraining(trainingRequest(user2, "RUNNING", "2024-04-02T08:00:00", "2024-04-02T09:00:00", 10));
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/trainings").header(HttpHeaders.IF_NONE_MATCH, allTrainingsETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-03T08:00:00", "2024-04-03T09:00:00", 10));
+
+        String newETag = mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void shouldReturnUsers_whenUserChangedSinceETag() throws Exception {
+
+        createUser("John", "Smith", "john.smith@domain.com");
+        String eTag = eTagOf("/v1/users");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/v1/users").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/users/basic-info").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        createUser("Jane", "Smith", "jane.smith@domain.com");
+
+        mockMvc.perform(get("/v1/users").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void shouldChangeTrainingsETag_whenUserIsRenamed() throws Exception {
+
+        createUser("John", "Smith", "john.smith@domain.com");
+        User user1 = getAllUsers().get(0);
+        createTraining(trainingRequest(user1, "RUNNING", "2024-04-01T08:00:00", "2024-04-01T09:00:00", 10));
+        String eTag = eTagOf("/v1/trainings/{userId}", user1.getId());
+
+        mockMvc.perform(put("/v1/users/{userEmail}", user1.getEmail())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(userRequest("Johnny", "Smith", user1.getEmail())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.nickname").value("Johnny_Smith"));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenUserWasDeletedSinceETag() throws Exception {
+
+        createUser("John", "Smith", "john.smith@domain.com");
+        User user1 = getAllUsers().get(0);
+        String eTag = eTagOf("/v1/trainings/{userId}", user1.getId());
+
+        mockMvc.perform(delete("/v1/users/{userId}", user1.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
+    private String eTagOf(String uri, Object... uriVariables) throws Exception {
+        String eTag = mockMvc.perform(get(uri, uriVariables))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+        return eTag;
+    }
+
+    private void createUser(String firstName, String lastName, String email) throws Exception {
+        mockMvc.perform(post("/v1/users").contentType(MediaType.APPLICATION_JSON).content(userRequest(firstName, lastName, email)))
+                .andExpect(status().isCreated());
+    }
+
+    private void createTraining(String request) throws Exception {
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isCreated());
+    }
+
+    private static String userRequest(String firstName, String lastName, String email) {
+        return """
+                {
+                    "firstName": "%s",
+                    "lastName": "%s",
+                    "birthdate": "1999-09-29",
+                    "email": "%s"
+                }
+                """.formatted(firstName, lastName, email);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+}